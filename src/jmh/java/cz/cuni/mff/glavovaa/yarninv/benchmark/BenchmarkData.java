@@ -0,0 +1,74 @@
+package cz.cuni.mff.glavovaa.yarninv.benchmark;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.InventoryGenerator;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic data for the benchmarks, made by {@link InventoryGenerator}. The yarns use the real weights from
+ * config/yarn_weights.json, so the benchmarks have to be run from the project directory. The data only depends on
+ * the seed, so every run measures the same inventory.
+ */
+final class BenchmarkData {
+    /**
+     * Seed used by all benchmarks
+     */
+    static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates yarns with the given number of brands and colours. Roughly the given share of the yarns repeats
+     * the brand, colour and weight of an earlier yarn (with another length).
+     * @param size: number of yarns
+     * @param brands: number of different brands
+     * @param colours: number of different colours
+     * @param duplicateRatio: share of yarns duplicating an earlier one, between 0 and 1
+     * @return the generated yarns
+     */
+    static List<Yarn> yarns(int size, int brands, int colours, double duplicateRatio) {
+        List<Yarn> yarns = new ArrayList<>(size);
+        new InventoryGenerator().brands(brands).colours(colours).duplicateRatio(duplicateRatio).seed(SEED)
+                .forEach(size, yarns::add);
+        return yarns;
+    }
+
+    /**
+     * Generates yarns with 50 brands, 40 colours and 20 % duplicates
+     * @param size: number of yarns
+     * @return the generated yarns
+     */
+    static List<Yarn> yarns(int size) {
+        return yarns(size, 50, 40, 0.2);
+    }
+
+    /**
+     * Hides the messages the inventory prints to the console, so they do not slow down the measured code
+     */
+    static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Deletes a temporary directory of a benchmark with all its files
+     * @param dir: the directory
+     * @throws IOException if a file cannot be deleted
+     */
+    static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package cz.cuni.mff.glavovaa.yarninv.benchmark;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.ColumnarYarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.RowPredicate;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of scanning {@link ColumnarYarnInventory} against filtering the yarn objects of {@link YarnInventory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarBenchmarks {
+    @Param({"100000", "1000000"})
+    int size;
+
+    private Path dir;
+    private YarnInventory objects;
+    private ColumnarYarnInventory columns;
+    private RowPredicate mediumColour7;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.silenceConsole();
+        List<Yarn> yarns = BenchmarkData.yarns(size);
+        dir = Files.createTempDirectory("yarn-benchmark");
+        objects = new YarnInventory(dir.resolve("objects.json"));
+        columns = new ColumnarYarnInventory(dir.resolve("columns.json"));
+        for (Yarn yarn : yarns) {
+            objects.addItem(new Yarn(yarn.getBrand(), yarn.getColor(), yarn.getLengthMeters(), yarn.getWeight()));
+            columns.add(yarn);
+        }
+        mediumColour7 = columns.weightIs("Medium").and(columns.colourIs("colour 7"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public long sumMediumColour7Objects() {
+        long sum = 0;
+        for (Yarn yarn : objects.filter(y -> y.getWeight().getName().equals("Medium") && y.getColor().equals("colour 7"))) {
+            sum += yarn.getLengthMeters();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long sumMediumColour7Columns() {
+        return columns.sumLength(mediumColour7);
+    }
+
+    @Benchmark
+    public int countMediumColour7Columns() {
+        return columns.count(mediumColour7);
+    }
+
+    @Benchmark
+    public Object sumByWeightColumns() {
+        return columns.sumLengthByWeight(RowPredicate.ALL);
+    }
+}
@@ -0,0 +1,124 @@
+package cz.cuni.mff.glavovaa.yarninv.benchmark;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.GroupTotal;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnGroupKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnQuery;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnSortKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of adding, filtering, sorting and merging yarns in {@link YarnInventory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmarks {
+    @Param({"1000", "100000"})
+    int size;
+
+    private List<Yarn> yarns;
+    private Path dir;
+    private YarnInventory inventory;
+
+    /**
+     * Inventory for the merge benchmark only. It is filled again before every merge, because merging changes it.
+     */
+    @State(Scope.Benchmark)
+    public static class MergeFixture {
+        private YarnInventory unmerged;
+
+        @Setup(Level.Invocation)
+        public void setUp(InventoryBenchmarks benchmark) {
+            unmerged = benchmark.fill(new YarnInventory(benchmark.dir.resolve("merge.json")));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.silenceConsole();
+        yarns = BenchmarkData.yarns(size);
+        dir = Files.createTempDirectory("yarn-benchmark");
+        inventory = fill(new YarnInventory(dir.resolve("inventory.json")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public YarnInventory addItems() {
+        return fill(new YarnInventory(dir.resolve("add.json")));
+    }
+
+    @Benchmark
+    public List<Yarn> filterByColour() {
+        return inventory.filter(yarn -> yarn.getColor().equals("colour 7"));
+    }
+
+    @Benchmark
+    public List<Yarn> filterByWeightAndBrand() {
+        return inventory.filter(yarn -> yarn.getWeight().getName().equals("Medium") && yarn.getBrand().equals("brand 3"));
+    }
+
+    @Benchmark
+    public List<Yarn> findByColour() {
+        return inventory.find(new YarnQuery().color("colour 7"));
+    }
+
+    @Benchmark
+    public List<Yarn> findByWeightAndBrand() {
+        return inventory.find(new YarnQuery().weight("Medium").brand("brand 3"));
+    }
+
+    @Benchmark
+    public List<Yarn> top20LongestMedium() {
+        return inventory.top(new YarnQuery().weight("Medium"), YarnSortKey.LENGTH, true, 20);
+    }
+
+    @Benchmark
+    public List<Yarn> sortMediumByLength() {
+        return inventory.sorted(new YarnQuery().weight("Medium"), YarnSortKey.LENGTH, true);
+    }
+
+    @Benchmark
+    public List<GroupTotal> top5ColoursByLength() {
+        return inventory.topTotals(YarnGroupKey.COLOUR, 5);
+    }
+
+    @Benchmark
+    public YarnInventory mergeDuplicates(MergeFixture fixture) {
+        fixture.unmerged.mergeDuplicateYarns();
+        return fixture.unmerged;
+    }
+
+    private YarnInventory fill(YarnInventory target) {
+        for (Yarn yarn : yarns) {
+            target.addItem(new Yarn(yarn.getBrand(), yarn.getColor(), yarn.getLengthMeters(), yarn.getWeight()));
+        }
+        return target;
+    }
+}
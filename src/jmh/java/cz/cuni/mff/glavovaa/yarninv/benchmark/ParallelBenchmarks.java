@@ -0,0 +1,85 @@
+package cz.cuni.mff.glavovaa.yarninv.benchmark;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.GroupTotal;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.ParallelPolicy;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnGroupKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Benchmarks of filtering, counting and summing {@link YarnInventory} on the calling thread and in parallel.
+ * Comparing the two modes over the sizes shows from how many yarns the parallel mode pays off, which is what
+ * {@link ParallelPolicy#DEFAULT_THRESHOLD} is based on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelBenchmarks {
+    @Param({"1000", "10000", "100000", "1000000"})
+    int size;
+
+    @Param({"sequential", "parallel"})
+    String mode;
+
+    private static final Predicate<Yarn> MEDIUM_COLOUR_7 = yarn -> yarn.getWeight().getName().equals("Medium")
+            && yarn.getColor().equals("colour 7");
+
+    private Path dir;
+    private YarnInventory inventory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.silenceConsole();
+        dir = Files.createTempDirectory("yarn-benchmark");
+        inventory = new YarnInventory(dir.resolve("inventory.json"));
+        for (Yarn yarn : BenchmarkData.yarns(size)) {
+            inventory.addItem(new Yarn(yarn.getBrand(), yarn.getColor(), yarn.getLengthMeters(), yarn.getWeight()));
+        }
+        inventory.setParallelPolicy(mode.equals("parallel")
+                ? ParallelPolicy.adaptive(0, Math.max(2, Runtime.getRuntime().availableProcessors()))
+                : ParallelPolicy.SEQUENTIAL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public List<Yarn> filterMediumColour7() {
+        return inventory.filter(MEDIUM_COLOUR_7);
+    }
+
+    @Benchmark
+    public long countMediumColour7() {
+        return inventory.count(MEDIUM_COLOUR_7);
+    }
+
+    @Benchmark
+    public List<GroupTotal> mediumMetersByBrand() {
+        return inventory.totalLengthBy(YarnGroupKey.BRAND, yarn -> yarn.getWeight().getName().equals("Medium"));
+    }
+}
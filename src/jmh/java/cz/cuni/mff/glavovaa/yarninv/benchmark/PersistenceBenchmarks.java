@@ -0,0 +1,71 @@
+package cz.cuni.mff.glavovaa.yarninv.benchmark;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.SnapshotFormat;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of saving and loading the inventory in every snapshot format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmarks {
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"PRETTY_JSON", "COMPACT_JSON", "BINARY"})
+    SnapshotFormat format;
+
+    private Path dir;
+    private YarnInventory inventory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.silenceConsole();
+        dir = Files.createTempDirectory("yarn-benchmark");
+        inventory = new YarnInventory(dir.resolve("inventory.json"));
+        inventory.setSnapshotFormat(format);
+        for (Yarn yarn : BenchmarkData.yarns(size)) {
+            inventory.addItem(yarn);
+        }
+        inventory.saveInventory();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.delete(dir);
+    }
+
+    @Benchmark
+    public void save() {
+        inventory.saveInventory();
+    }
+
+    @Benchmark
+    public List<Yarn> load() {
+        return inventory.loadInventory();
+    }
+}
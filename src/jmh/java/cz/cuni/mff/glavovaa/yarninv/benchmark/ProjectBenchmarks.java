@@ -0,0 +1,91 @@
+package cz.cuni.mff.glavovaa.yarninv.benchmark;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.project.BatchPlan;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.BatchPlanner;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.Calculator;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.ProjectRequest;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.YarnSelection;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.YarnSelectionSolver;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the yarn requirement lookups and of choosing yarns for projects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectBenchmarks {
+    private static final String[] WEIGHTS = {"Lace", "Super Fine", "Fine", "Light", "Medium", "Bulky", "Super Bulky", "Jumbo"};
+
+    /**
+     * Number of yarns the projects are planned from
+     */
+    @Param({"50", "1000"})
+    int size;
+
+    private Calculator calculator;
+    private String[] projects;
+    private int lookup;
+    private List<Yarn> mediumYarns;
+    private List<Yarn> yarns;
+    private List<ProjectRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        calculator = new Calculator();
+        projects = calculator.getAvailableProjects().toArray(new String[0]);
+        yarns = BenchmarkData.yarns(size);
+        mediumYarns = new ArrayList<>();
+        for (Yarn yarn : yarns) {
+            if (yarn.getWeight().getName().equals("Medium")) {
+                mediumYarns.add(yarn);
+            }
+        }
+        requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(new ProjectRequest(projects[i % projects.length], WEIGHTS[i % WEIGHTS.length], i % 3 == 0));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> calculatorLookup() {
+        int i = lookup++;
+        return calculator.getYarnRequirement(projects[i % projects.length], WEIGHTS[i % WEIGHTS.length]);
+    }
+
+    @Benchmark
+    public YarnSelection selectYarnsLeastWaste() {
+        return new YarnSelectionSolver().solve(1029, mediumYarns);
+    }
+
+    @Benchmark
+    public YarnSelection selectYarnsFewestSkeins() {
+        return new YarnSelectionSolver(YarnSelectionSolver.Objective.FEWEST_SKEINS, false,
+                YarnSelectionSolver.DEFAULT_TIME_BUDGET_MILLIS).solve(1029, mediumYarns);
+    }
+
+    @Benchmark
+    public BatchPlan planBatch() {
+        return new BatchPlanner().plan(requests, yarns);
+    }
+}
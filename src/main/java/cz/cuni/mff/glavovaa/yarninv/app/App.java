@@ -1,15 +1,26 @@
 package cz.cuni.mff.glavovaa.yarninv.app;
 
+import cz.cuni.mff.glavovaa.yarninv.utils.project.Feasibility;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.FeasibilityMatrix;
 import cz.cuni.mff.glavovaa.yarninv.utils.project.Project;
 import cz.cuni.mff.glavovaa.yarninv.utils.UserInputValidator;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.InventoryPrinter;
 import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnQuery;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnSortKey;
 import cz.cuni.mff.glavovaa.yarninv.utils.project.ProjectHandler;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.ProjectStore;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.YarnRequirements;
+import cz.cuni.mff.glavovaa.yarninv.utils.query.InventoryQuery;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.ToolSizeIndex;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -31,15 +42,22 @@ public class App {
      */
     public static final Path PROJECTS_DIR = Paths.get(System.getProperty("user.home"), ".yarn-inventory", "projects");
 
+    private static ProjectStore projects;
+
     /**
-     * app.Main class for running the app
-     * @param args: user arguments (not used)
+     * app.Main class for running the app. Without arguments the interactive menu is shown, otherwise the arguments
+     * are executed as commands (see {@link CommandRunner}).
+     * @param args: user arguments, a command or --script with a file of commands
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(CommandRunner.run(args));
+        }
 
-        YarnInventory inv = new YarnInventory(INVENTORY_PATH);
+        YarnInventory inv = new YarnInventory(INVENTORY_PATH, true);
 
         try (Scanner scanner = new Scanner(System.in)){
+            UserInputValidator.setScanner(scanner);
             boolean running = true;
 
             // Runs until the user decides to exit the app
@@ -57,10 +75,25 @@ public class App {
         } catch (Exception e) {
             System.out.println("An unexpected error occurred: " + e.getMessage());
         } finally {
-            inv.saveInventory();
+            inv.close();
         }
     }
 
+    /**
+     * Opens the project store on first use
+     * @return the project store or null if it cannot be opened
+     */
+    private static ProjectStore projectStore(){
+        if (projects == null){
+            try {
+                projects = new ProjectStore(PROJECTS_DIR);
+            } catch (IOException e) {
+                System.out.println("Failed to open the saved projects: " + e.getMessage());
+            }
+        }
+        return projects;
+    }
+
     /**
     Prints menu options for the user
      */
@@ -75,7 +108,8 @@ public class App {
         System.out.println("7. Estimate yarn for a project");
         System.out.println("8. Plan a project");
         System.out.println("9. Manage projects");
-        System.out.println("10. Exit");
+        System.out.println("10. Stock report");
+        System.out.println("11. Exit");
         System.out.print("Enter your choice: ");
     }
 
@@ -94,76 +128,100 @@ public class App {
                 Yarn yarn = UserInputValidator.validateYarn();
                 inv.addItem(yarn);
             }
-            // Lists all yarns in inventory and asks for an index of the yarn the user wishes to remove
+            // Lists all yarns in inventory and asks for the id of the yarn the user wishes to remove
             case "2" -> {
                 inv.printInventory();
-                System.out.print("Enter the index of the item you want to remove: ");
-                int index = UserInputValidator.validatePositiveInteger(scanner.nextLine()) -1;
-                inv.removeAt(index);
+                System.out.print("Enter the id of the item you want to remove: ");
+                long id = UserInputValidator.validateYarnId(scanner.nextLine(), inv);
+                inv.removeById(id);
             }
-            // Lists all yarns in inventory and asks for an index of the yarn to decrease its length
+            // Lists all yarns in inventory and asks for the id of the yarn to decrease its length
             case "3" -> {
                 inv.printInventory();
-                System.out.print("Enter the index of the item whose length you want to change: ");
-                int index = UserInputValidator.validatePositiveInteger(scanner.nextLine()) -1;
+                System.out.print("Enter the id of the item whose length you want to change: ");
+                long id = UserInputValidator.validateYarnId(scanner.nextLine(), inv);
                 System.out.print("Enter the amount you want to reduce: ");
                 int amount = UserInputValidator.validatePositiveInteger(scanner.nextLine());
-                inv.changeLength(index, amount);
+                inv.changeLengthById(id, amount);
             }
             // Merges duplicate yarns into one
             case "4" -> {
                 inv.mergeDuplicateYarns();
+                System.out.println("Merged duplicate yarns successfully.");
                 inv.printInventory();
             }
-            // Prints the entire inventory
-            case "5" -> inv.printInventory();
+            // Prints the inventory page by page
+            case "5" -> browseInventory(scanner, inv);
             // Filters the inventory
             case "6" -> processFilterQuery(scanner, inv);
             // Asks for the project name (e.g. hat) and yarn weight and returns min and max length of yarn needed
             case "7" -> {
                 Project projectInfo = ProjectHandler.retrieveProjectInfo(scanner);
 
-                // Prints min and max length
+                // Prints min and max length and whether there is enough yarn of the weight
                 if (projectInfo.getYarnData() != null) {
-                    int minMeters = projectInfo.getYarnData().get("min");
-                    int maxMeters = projectInfo.getYarnData().get("max");
-                    System.out.println("Min: " + minMeters + " meters");
-                    System.out.println("Max: " + maxMeters + " meters");
+                    Map<String, Integer> yarnData = projectInfo.getYarnData();
+                    System.out.println("Min: " + (yarnData.containsKey("min") ? yarnData.get("min") + " meters" : "unknown"));
+                    System.out.println("Max: " + (yarnData.containsKey("max") ? yarnData.get("max") + " meters" : "unknown"));
+                    System.out.println(Feasibility.of(projectInfo, inv));
                 } else {
                     System.out.println("No data available for this combination.");
                 }
+
+                System.out.println("Would you like to see which projects you have enough yarn for? (y/n)");
+                if (UserInputValidator.validateIsInList(scanner.nextLine(), "y", "n").equals("y")) {
+                    new FeasibilityMatrix(YarnRequirements.current(), inv).print(System.out);
+                }
             }
             // Asks the user to select yarns they want to use in a project
             case "8" -> {
                 // Retrieves project name, yarn weight and min/max length
                 Project projectInfo = ProjectHandler.retrieveProjectInfo(scanner);
+                if (projectInfo.getYarnData() == null) {
+                    System.out.println("No data available for this combination.");
+                    break;
+                }
                 int remainingLength = ProjectHandler.getLengthRequirement(projectInfo, scanner);
+                Feasibility feasibility = Feasibility.of(projectInfo, inv);
+                if (!feasibility.isEnough(remainingLength)) {
+                    // other weights can still be used, but the user knows before selecting
+                    System.out.println("Only " + feasibility.getAvailable() + " of " + remainingLength + " meters of "
+                            + feasibility.getWeightName() + " yarn are available.");
+                }
                 List<Yarn> availableYarns = ProjectHandler.getAvailableYarns(projectInfo, scanner, inv);
 
                 System.out.println("You need " + remainingLength + " meters of yarn.");
 
-                // Helps user select yarns for a project
-                List<Yarn> selectedYarns = ProjectHandler.selectYarnsForProject(remainingLength, availableYarns, scanner);
+                // Selects yarns automatically or helps user select yarns for a project
+                System.out.println("Would you like the yarns to be selected automatically? (y/n)");
+                List<Yarn> selectedYarns;
+                if (UserInputValidator.validateIsInList(scanner.nextLine(), "y", "n").equals("y")) {
+                    selectedYarns = ProjectHandler.autoSelectYarnsForProject(remainingLength, availableYarns, scanner);
+                } else {
+                    selectedYarns = ProjectHandler.selectYarnsForProject(remainingLength, availableYarns, scanner);
+                }
                 if (selectedYarns == null) break; // If none are selected
 
                 // Prints all selected yarns
                 ProjectHandler.printSelectedYarns(selectedYarns);
 
-                // Saves the selected yarn into a (preferably) txt file
+                // Saves the project with the selected yarn into the project store
                 System.out.println("Would you like to save this project? (y/n)");
                 if (UserInputValidator.validateIsInList(scanner.nextLine(), "y", "n").equals("y")) {
-                    System.out.print("Enter file name: ");
-                    String fileName = UserInputValidator.validateFileFormat(scanner.nextLine()); // Get the validated filename
-                    Path filePath = PROJECTS_DIR.resolve(fileName);
-                    ProjectHandler.saveSelectedYarns(filePath, selectedYarns, projectInfo);
-
+                    ProjectStore store = projectStore();
+                    if (store != null) {
+                        ProjectHandler.saveSelectedYarns(store, selectedYarns, projectInfo, remainingLength);
+                    }
                 }
             }
-            // Allows the user to see details of a project (reads a text file) or to delete a project
+            // Allows the user to see details of a project or to delete a project
             case "9" -> {
-                // Prints inventory and options
+                ProjectStore store = projectStore();
+                if (store == null) break;
+
+                // Prints projects and options
                 System.out.println("Here is a list of all your projects:");
-                ProjectHandler.listProjects();
+                ProjectHandler.listProjects(store);
                 System.out.println("---------------------\n What would you like to do?");
                 System.out.println("1. See project detail");
                 System.out.println("2. Delete project");
@@ -174,20 +232,22 @@ public class App {
 
                 switch (cmd){
                     case "1" -> {
-                        System.out.print("Enter project index: ");
-                        int index = UserInputValidator.validateIndex(scanner.nextLine(), 3) -1;
-                        ProjectHandler.viewProject(index);
+                        System.out.print("Enter project id: ");
+                        long id = UserInputValidator.validatePositiveInteger(scanner.nextLine());
+                        ProjectHandler.viewProject(store, id);
                     }
                     case "2" -> {
-                        System.out.print("Enter project index: ");
-                        int index = UserInputValidator.validateIndex(scanner.nextLine(), 3) -1;
-                        ProjectHandler.deleteProject(index);
+                        System.out.print("Enter project id: ");
+                        long id = UserInputValidator.validatePositiveInteger(scanner.nextLine());
+                        ProjectHandler.deleteProject(store, id);
                     }
                     case "3" -> System.out.println("Returning back");
                 }
             }
+            // Prints the total meters and skeins per yarn weight and of the top brands and colours
+            case "10" -> inv.printStockReport(System.out, 10);
             // Exit
-            case "10" -> {
+            case "11" -> {
                 return false;
             }
             default -> System.out.println("Unknown command");
@@ -196,6 +256,57 @@ public class App {
         return true;
     }
 
+    /**
+     * Prints the inventory one page at a time. The user can move between the pages, change the order of the yarns
+     * and write the whole inventory into a text file.
+     * @param sc for reading user input
+     * @param inv for accessing the inventory
+     */
+    public static void browseInventory(Scanner sc, YarnInventory inv){
+        if (inv.size() == 0){
+            System.out.println("Inventory is empty.");
+            return;
+        }
+        YarnSortKey sortKey = YarnSortKey.ID;
+        int pageSize = InventoryPrinter.DEFAULT_PAGE_SIZE;
+        int page = 0;
+
+        while (true){
+            int pages = (inv.size() + pageSize - 1) / pageSize;
+            page = Math.min(page, pages - 1);
+            inv.printInventory(sortKey, page * pageSize, pageSize);
+            if (pages == 1){
+                return;
+            }
+
+            System.out.println("Page " + (page + 1) + " of " + pages + " (sorted by " + sortKey.name().toLowerCase() + ")");
+            System.out.print("n - next page, p - previous page, s - sort, e - export to a file, q - back to menu: ");
+            switch (UserInputValidator.validateIsInList(sc.nextLine(), "n", "p", "s", "e", "q")){
+                case "n" -> page = Math.min(page + 1, pages - 1);
+                case "p" -> page = Math.max(page - 1, 0);
+                case "s" -> {
+                    System.out.print("Sort by (id/brand/colour/weight/length): ");
+                    sortKey = YarnSortKey.parse(UserInputValidator.validateIsInList(sc.nextLine(),
+                            "id", "brand", "colour", "weight", "length"));
+                    page = 0;
+                }
+                case "e" -> {
+                    System.out.print("Enter file name: ");
+                    Path file = Paths.get(UserInputValidator.validateFileFormat(sc.nextLine()));
+                    try {
+                        inv.exportInventory(file, sortKey);
+                        System.out.println("Inventory written to " + file.toAbsolutePath());
+                    } catch (IOException e) {
+                        System.out.println("Failed to write the inventory: " + e.getMessage());
+                    }
+                }
+                default -> {
+                    return;
+                }
+            }
+        }
+    }
+
     /**
      * Asks the user what they want to filter by. Then filters through the inventory.
      * Uses inventory's method "filter".
@@ -207,6 +318,8 @@ public class App {
         System.out.println("1. By colour");
         System.out.println("2. By yarn weight");
         System.out.println("3. By brand");
+        System.out.println("4. By query (e.g. weight in (Bulky, Medium) and length >= 100 and brand ~ \"alaska*\")");
+        System.out.println("5. By needle or hook size");
 
         String command = sc.nextLine();
         List<Yarn> filtered;
@@ -215,19 +328,37 @@ public class App {
             case "1" -> {
                 System.out.print("Enter colour: ");
                 String colour = UserInputValidator.validateNonEmptyStr(sc.nextLine());
-                filtered = inv.filter(yarn -> yarn.getColor().equalsIgnoreCase(colour));
+                filtered = inv.find(new YarnQuery().color(colour));
             }
             // Filters by yarn weight
             case "2" -> {
                 System.out.print("Enter yarn weight: ");
                 YarnWeight yw = UserInputValidator.validateYarnWeight();
-                filtered = inv.filter(yarn -> yarn.getWeight().getName().equalsIgnoreCase(yw.getName()));
+                filtered = inv.find(new YarnQuery().weight(yw.getName()));
             }
             // Filters by brand
             case "3" -> {
                 System.out.print("Enter brand: ");
                 String brand = UserInputValidator.validateNonEmptyStr(sc.nextLine());
-                filtered = inv.filter(yarn -> yarn.getBrand().equalsIgnoreCase(brand));
+                filtered = inv.find(new YarnQuery().brand(brand));
+            }
+            // Filters by a query over several properties
+            case "4" -> {
+                System.out.print("Enter query: ");
+                try {
+                    filtered = InventoryQuery.parse(sc.nextLine()).find(inv);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Invalid query: " + e.getMessage());
+                    return;
+                }
+            }
+            // Filters by the yarn weights that suit a needle or hook
+            case "5" -> {
+                System.out.print("Needle or hook? (n/h): ");
+                String tool = UserInputValidator.validateIsInList(sc.nextLine(), "n", "h");
+                System.out.print("Enter the size in mm: ");
+                double size = UserInputValidator.validatePositiveNumber(sc.nextLine());
+                filtered = inv.findForTool(tool.equals("n") ? ToolSizeIndex.Tool.NEEDLE : ToolSizeIndex.Tool.HOOK, size);
             }
             default -> { System.out.println("Unknown command"); return; }
         }
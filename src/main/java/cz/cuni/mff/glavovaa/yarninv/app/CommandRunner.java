@@ -0,0 +1,455 @@
+package cz.cuni.mff.glavovaa.yarninv.app;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.UserInputValidator;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.GroupTotal;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnGroupKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnQuery;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnSortKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.BatchPlan;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.BatchPlanner;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.Calculator;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.Feasibility;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.FeasibilityMatrix;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.Project;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.YarnSelection;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.YarnSelectionSolver;
+import cz.cuni.mff.glavovaa.yarninv.utils.query.InventoryQuery;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.ToolSizeIndex;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the application without the interactive menu. Commands are given as program arguments or read from a script
+ * file (one command per line, {@code #} starts a comment, values with spaces are written in double quotes).
+ * No prompts or pauses are shown and the output is buffered, so thousands of commands run in one launch.
+ *
+ * <pre>
+ * App add "Alaska" red 250 Medium \; print
+ * App --inventory other.json --script commands.txt
+ * </pre>
+ */
+public class CommandRunner {
+    private static final String HELP = """
+            Commands:
+              add <brand> <colour> <length> <weight>   adds yarn
+              remove <id>                              removes the yarn with an id (as listed by print)
+              change <id> <amount>                     reduces the length of the yarn with an id
+              merge                                    merges duplicate yarns
+              print [sort] [offset] [count]            prints the inventory, sorted by id, brand, colour,
+                                                       weight or length, optionally only a page of it
+              export <file> [sort]                     writes the printed inventory into a text file
+              filter colour|brand|weight <value>       prints matching yarns
+              query <query>                            prints yarns matching a query, e.g.
+                                                       query weight in (Bulky, Medium) and length >= 100
+              explain <query>                          prints how a query would be run
+              needle|hook <mm>                         prints yarns that suit a needle or hook size
+              top <count> <sort> [asc|desc] [colour|brand|weight <value>]...
+                                                       prints e.g. the longest yarns of a weight
+              totals brand|colour|weight [count]       prints total meters per brand, colour or weight
+              stock [brand|colour|weight <name>]       prints the stock report or the stock of one group
+              estimate <project> <weight>              prints min and max length needed for a project
+                                                       and whether there is enough yarn of the weight
+              feasible                                 prints which projects there is enough yarn for
+              plan <project> <weight> [min|max]        selects yarns for a project automatically
+              plan-batch <requests.json>               plans many projects without double-booking yarn
+              memory                                   prints how much memory is saved by sharing values
+              save                                     writes the whole inventory file
+              help                                     prints this help
+            Options: --inventory <file> uses another inventory file, --script <file> reads commands from a file
+            (use - for standard input). Several commands can be separated by ';'.""";
+
+    private final YarnInventory inv;
+    private final PrintStream out;
+    private Calculator calculator;
+
+    /**
+     * Constructor of the command runner.
+     * @param inv: the inventory the commands work with
+     * @param out: where the output of the commands is written
+     */
+    public CommandRunner(YarnInventory inv, PrintStream out) {
+        this.inv = inv;
+        this.out = out;
+    }
+
+    /**
+     * Runs the commands given as program arguments
+     * @param args: options and commands
+     * @return the exit code, 0 if all commands succeeded
+     */
+    public static int run(String[] args) {
+        Path inventoryPath = App.INVENTORY_PATH;
+        Path script = null;
+        int start = 0;
+        while (start + 1 < args.length && args[start].startsWith("--")) {
+            switch (args[start]) {
+                case "--inventory" -> inventoryPath = Path.of(args[start + 1]);
+                case "--script" -> script = Path.of(args[start + 1]);
+                default -> {
+                    System.out.println("Unknown option " + args[start]);
+                    return 2;
+                }
+            }
+            start += 2;
+        }
+
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+        int errors = 0;
+        try (YarnInventory inv = new YarnInventory(inventoryPath, true)) {
+            CommandRunner runner = new CommandRunner(inv, out);
+
+            if (script != null) {
+                try (BufferedReader reader = script.toString().equals("-")
+                        ? new BufferedReader(new InputStreamReader(System.in))
+                        : Files.newBufferedReader(script)) {
+                    errors += runner.executeScript(reader);
+                } catch (IOException e) {
+                    out.println("Failed to read the script: " + e.getMessage());
+                    errors++;
+                }
+            }
+
+            // The remaining arguments are commands separated by ';'
+            List<String> command = new ArrayList<>();
+            for (String arg : Arrays.asList(args).subList(start, args.length)) {
+                if (arg.equals(";")) {
+                    errors += runner.execute(command) ? 0 : 1;
+                    command = new ArrayList<>();
+                } else {
+                    command.add(arg);
+                }
+            }
+            errors += runner.execute(command) ? 0 : 1;
+        } finally {
+            out.flush();
+        }
+        return errors == 0 ? 0 : 1;
+    }
+
+    /**
+     * Executes every line of a script
+     * @param reader: reader of the script
+     * @return the number of commands that failed
+     * @throws IOException if the script cannot be read
+     */
+    public int executeScript(BufferedReader reader) throws IOException {
+        int errors = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            List<String> tokens;
+            try {
+                tokens = tokenize(line);
+            } catch (IllegalArgumentException e) {
+                out.println("Error in '" + line + "': " + e.getMessage());
+                tokens = null;
+            }
+            if (tokens == null || !execute(tokens)) {
+                out.println("  (line " + lineNumber + ")");
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Executes a single command. An empty command does nothing.
+     * @param tokens: the command name followed by its arguments
+     * @return true if the command succeeded, false if it failed (the error is printed)
+     */
+    public boolean execute(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return true;
+        }
+        try {
+            executeCommand(tokens.get(0).toLowerCase(), tokens.subList(1, tokens.size()));
+            return true;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            out.println("Error in '" + String.join(" ", tokens) + "': " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void executeCommand(String name, List<String> args) {
+        switch (name) {
+            case "add" -> {
+                expectArgs(args, 4, "add <brand> <colour> <length> <weight>");
+                inv.addItem(new Yarn(args.get(0), args.get(1), positive(args.get(2)), weight(args.get(3))));
+            }
+            case "remove" -> {
+                expectArgs(args, 1, "remove <id>");
+                inv.removeById(positive(args.get(0)));
+            }
+            case "change" -> {
+                expectArgs(args, 2, "change <id> <amount>");
+                inv.changeLengthById(positive(args.get(0)), positive(args.get(1)));
+            }
+            case "merge" -> inv.mergeDuplicateYarns();
+            case "print" -> {
+                if (args.size() > 3) {
+                    throw new IllegalArgumentException("usage: print [sort] [offset] [count]");
+                }
+                YarnSortKey sortKey = args.isEmpty() ? YarnSortKey.ID : YarnSortKey.parse(args.get(0));
+                int offset = args.size() > 1 ? Integer.parseInt(args.get(1)) : 0;
+                int count = args.size() > 2 ? positive(args.get(2)) : Integer.MAX_VALUE;
+                printYarns(inv.getPage(sortKey, offset, count));
+            }
+            case "export" -> {
+                if (args.isEmpty() || args.size() > 2) {
+                    throw new IllegalArgumentException("usage: export <file> [sort]");
+                }
+                try {
+                    inv.exportInventory(Path.of(args.get(0)), args.size() > 1 ? YarnSortKey.parse(args.get(1)) : YarnSortKey.ID);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("cannot write the file: " + e.getMessage());
+                }
+            }
+            case "filter" -> {
+                expectArgs(args, 2, "filter colour|brand|weight <value>");
+                YarnQuery query = switch (args.get(0).toLowerCase()) {
+                    case "colour", "color" -> new YarnQuery().color(args.get(1));
+                    case "brand" -> new YarnQuery().brand(args.get(1));
+                    case "weight" -> new YarnQuery().weight(weight(args.get(1)).getName());
+                    default -> throw new IllegalArgumentException("unknown filter " + args.get(0));
+                };
+                printYarns(inv.find(query));
+            }
+            case "query" -> printYarns(query(args).find(inv));
+            case "explain" -> out.println(query(args).explain(inv));
+            case "needle", "hook" -> {
+                expectArgs(args, 1, name + " <mm>");
+                double size = Double.parseDouble(args.get(0));
+                if (size <= 0) {
+                    throw new IllegalArgumentException("the size has to be positive");
+                }
+                ToolSizeIndex.Tool tool = ToolSizeIndex.Tool.parse(name);
+                List<YarnWeight> weights = ToolSizeIndex.getDefault(tool).weightsFor(size);
+                if (!weights.isEmpty()) {
+                    out.println("Yarn weights for a " + size + " mm " + tool + ": "
+                            + String.join(", ", weights.stream().map(YarnWeight::getName).toList()));
+                }
+                printYarns(inv.findForTool(tool, size));
+            }
+            case "top" -> {
+                if (args.size() < 2) {
+                    throw new IllegalArgumentException("usage: top <count> <sort> [asc|desc] [colour|brand|weight <value>]...");
+                }
+                int count = positive(args.get(0));
+                YarnSortKey sortKey = YarnSortKey.parse(args.get(1));
+                boolean descending = true;
+                YarnQuery query = new YarnQuery();
+                for (int i = 2; i < args.size(); i++) {
+                    switch (args.get(i)) {
+                        case "asc" -> descending = false;
+                        case "desc" -> descending = true;
+                        case "colour", "color" -> query.color(value(args, ++i));
+                        case "brand" -> query.brand(value(args, ++i));
+                        case "weight" -> query.weight(weight(value(args, ++i)).getName());
+                        default -> throw new IllegalArgumentException("unknown option " + args.get(i));
+                    }
+                }
+                printYarns(inv.top(query, sortKey, descending, count));
+            }
+            case "totals" -> {
+                if (args.isEmpty() || args.size() > 2) {
+                    throw new IllegalArgumentException("usage: totals brand|colour|weight [count]");
+                }
+                YarnGroupKey groupKey = YarnGroupKey.parse(args.get(0));
+                List<GroupTotal> totals = args.size() > 1
+                        ? inv.topTotals(groupKey, positive(args.get(1)))
+                        : inv.totalLengthBy(groupKey);
+                for (GroupTotal total : totals) {
+                    out.println(total);
+                }
+                if (totals.isEmpty()) {
+                    out.println("Nothing found.");
+                }
+            }
+            case "stock" -> {
+                if (args.isEmpty()) {
+                    inv.printStockReport(out, 10);
+                } else {
+                    expectArgs(args, 2, "stock [brand|colour|weight <name>]");
+                    YarnGroupKey groupKey = YarnGroupKey.parse(args.get(0));
+                    String groupName = groupKey == YarnGroupKey.WEIGHT ? weight(args.get(1)).getName() : args.get(1);
+                    out.println(inv.getTotal(groupKey, groupName));
+                }
+            }
+            case "estimate" -> {
+                expectArgs(args, 2, "estimate <project> <weight>");
+                YarnWeight yw = weight(args.get(1));
+                Map<String, Integer> yarnData = calculator().getYarnRequirement(args.get(0), yw.getName());
+                if (yarnData == null) {
+                    out.println("No data available for this combination.");
+                } else {
+                    out.println("Min: " + (yarnData.containsKey("min") ? yarnData.get("min") + " meters" : "unknown"));
+                    out.println("Max: " + (yarnData.containsKey("max") ? yarnData.get("max") + " meters" : "unknown"));
+                    out.println(Feasibility.of(new Project(args.get(0), yw, yarnData), inv));
+                }
+            }
+            case "feasible" -> {
+                expectArgs(args, 0, "feasible");
+                new FeasibilityMatrix(calculator().getYarnRequirements(), inv).print(out);
+            }
+            case "plan" -> {
+                if (args.size() != 2 && args.size() != 3) {
+                    throw new IllegalArgumentException("usage: plan <project> <weight> [min|max]");
+                }
+                String weightName = weight(args.get(1)).getName();
+                Map<String, Integer> yarnData = calculator().getYarnRequirement(args.get(0), weightName);
+                if (yarnData == null) {
+                    throw new IllegalArgumentException("no data available for this combination");
+                }
+                boolean useMax = args.size() == 3 && args.get(2).equalsIgnoreCase("max");
+                Integer required = yarnData.get(useMax ? "max" : "min");
+                if (required == null) {
+                    throw new IllegalArgumentException("no " + (useMax ? "max" : "min") + " length available for this combination");
+                }
+                YarnSelection selection = new YarnSelectionSolver().solve(required, inv.find(new YarnQuery().weight(weightName)));
+                if (selection == null) {
+                    out.println("Not enough " + weightName + " yarn for " + required + " meters.");
+                } else {
+                    out.println(required + " meters needed, " + selection.getTotalLength() + " meters selected, "
+                            + selection.getWaste() + " meters left over:");
+                    printYarns(selection.getYarns());
+                }
+            }
+            case "plan-batch" -> {
+                expectArgs(args, 1, "plan-batch <requests.json>");
+                try {
+                    BatchPlan plan = new BatchPlanner().plan(BatchPlanner.readRequests(Path.of(args.get(0))), inv.getInventory());
+                    plan.print(out);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("cannot read requests: " + e.getMessage());
+                }
+            }
+            case "memory" -> out.println(inv.getMemoryReport());
+            case "save" -> inv.saveInventory();
+            case "help" -> out.println(HELP);
+            default -> throw new IllegalArgumentException("unknown command, try 'help'");
+        }
+    }
+
+    /**
+     * Splits a line into words. Words in double quotes may contain spaces and everything after # is ignored.
+     * @param line: the line
+     * @return the words of the line
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                inToken = true;
+            } else if (!quoted && c == '#') {
+                break;
+            } else if (!quoted && Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                current.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quote");
+        }
+        if (inToken) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private void printYarns(List<Yarn> yarns) {
+        for (Yarn yarn : yarns) {
+            out.print(yarn.getId());
+            out.print(": ");
+            out.println(yarn);
+        }
+        if (yarns.isEmpty()) {
+            out.println("Nothing found.");
+        }
+    }
+
+    /**
+     * Joins the words of a command back into a query. Words that had spaces are quoted again.
+     */
+    private static InventoryQuery query(List<String> args) {
+        if (args.isEmpty()) {
+            throw new IllegalArgumentException("usage: query <query>");
+        }
+        StringBuilder text = new StringBuilder();
+        for (String arg : args) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            boolean quote = arg.isEmpty() || arg.chars().anyMatch(Character::isWhitespace);
+            text.append(quote ? '"' + arg + '"' : arg);
+        }
+        return InventoryQuery.parse(text.toString());
+    }
+
+    private Calculator calculator() {
+        if (calculator == null) {
+            calculator = new Calculator();
+        }
+        return calculator;
+    }
+
+    private static String value(List<String> args, int index) {
+        if (index >= args.size()) {
+            throw new IllegalArgumentException("missing value after " + args.get(index - 1));
+        }
+        return args.get(index);
+    }
+
+    private static void expectArgs(List<String> args, int count, String usage) {
+        if (args.size() != count) {
+            throw new IllegalArgumentException("usage: " + usage);
+        }
+    }
+
+    private static int positive(String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number > 0) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("not a positive number: " + value);
+    }
+
+    private static YarnWeight weight(String name) {
+        YarnWeight weight = UserInputValidator.findYarnWeight(name);
+        if (weight == null) {
+            throw new IllegalArgumentException("unknown yarn weight: " + name);
+        }
+        return weight;
+    }
+}
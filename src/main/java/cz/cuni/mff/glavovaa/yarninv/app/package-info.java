@@ -5,6 +5,7 @@
  * <p>Key classes:</p>
  * <ul>
  *     <li>{@link cz.cuni.mff.glavovaa.yarninv.app.App} - The main class for running the application</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.app.CommandRunner} - Runs commands from the command line or a script without the menu</li>
  * </ul>
  */
 package cz.cuni.mff.glavovaa.yarninv.app;
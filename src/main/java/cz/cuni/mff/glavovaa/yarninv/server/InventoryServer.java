@@ -0,0 +1,405 @@
+package cz.cuni.mff.glavovaa.yarninv.server;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import cz.cuni.mff.glavovaa.yarninv.app.App;
+import cz.cuni.mff.glavovaa.yarninv.utils.UserInputValidator;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnJsonStream;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnQuery;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.YarnRequirements;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded HTTP server exposing the inventory and the project estimates as JSON, for terminals that cannot run the
+ * console application. Listens on localhost only. Endpoints:
+ *
+ * <pre>
+ * GET    /yarns[?colour=&amp;brand=&amp;weight=]   lists (matching) yarns with their ids
+ * POST   /yarns                            adds a yarn: {"brand", "color", "lengthMeters", "weight" (name or alias)}
+ * DELETE /yarns/{id}                       removes a yarn
+ * POST   /yarns/{id}/use                   reduces the length of a yarn: {"amount"}
+ * POST   /merge                            merges duplicate yarns
+ * GET    /estimate?project=&amp;weight=        min and max length needed for a project
+ * </pre>
+ *
+ * Every request is handled on its own virtual thread when the Java runtime has them (Java 21 and newer), otherwise
+ * on a cached thread pool. The inventory is guarded by a read-write lock: reads run in parallel, changes one at a time.
+ */
+public class InventoryServer {
+    /**
+     * Default port of the server
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    private final YarnInventory inv;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates the server. It does not accept requests until it is started.
+     * @param inv: the inventory served
+     * @param port: port on localhost, 0 for any free port
+     * @throws IOException if the port cannot be used
+     */
+    public InventoryServer(YarnInventory inv, int port) throws IOException {
+        this.inv = inv;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/yarns", this::handleYarns);
+        server.createContext("/merge", this::handleMerge);
+        server.createContext("/estimate", this::handleEstimate);
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting at most a second for running requests
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the port the server listens on
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Runs the server until the process is stopped
+     * @param args: optionally --port n and --inventory file
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        Path inventoryPath = App.INVENTORY_PATH;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--inventory" -> inventoryPath = Path.of(args[i + 1]);
+                default -> {
+                    System.out.println("Usage: InventoryServer [--port n] [--inventory file]");
+                    return;
+                }
+            }
+        }
+
+        YarnInventory inv = new YarnInventory(inventoryPath, true);
+        try {
+            InventoryServer server = new InventoryServer(inv, port);
+            // every change is already in the journal, so stopping the process loses nothing
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                inv.close();
+            }));
+            server.start();
+            System.out.println("Serving the inventory on http://localhost:" + server.getPort() + "/yarns");
+        } catch (IOException e) {
+            System.out.println("Failed to start the server: " + e.getMessage());
+            inv.close();
+        }
+    }
+
+    /**
+     * Creates an executor with one virtual thread per task if the runtime supports virtual threads
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            // looked up by reflection because the project is compiled for Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private void handleYarns(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                String[] path = exchange.getRequestURI().getPath().split("/");
+                String method = exchange.getRequestMethod();
+                if (path.length == 2 && method.equals("GET")) {
+                    listYarns(exchange);
+                } else if (path.length == 2 && method.equals("POST")) {
+                    addYarn(exchange);
+                } else if (path.length == 3 && method.equals("DELETE")) {
+                    removeYarn(exchange, parseId(path[2]));
+                } else if (path.length == 4 && path[3].equals("use") && method.equals("POST")) {
+                    useYarn(exchange, parseId(path[2]));
+                } else {
+                    sendError(exchange, 404, "Unknown endpoint");
+                }
+            } catch (IllegalArgumentException | IllegalStateException | MalformedJsonException | EOFException e) {
+                sendError(exchange, 400, "Invalid request: " + e.getMessage());
+            }
+        }
+    }
+
+    private void listYarns(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        YarnQuery query = new YarnQuery();
+        if (params.containsKey("colour")) query.color(params.get("colour"));
+        if (params.containsKey("color")) query.color(params.get("color"));
+        if (params.containsKey("brand")) query.brand(params.get("brand"));
+        if (params.containsKey("weight")) query.weight(weight(params.get("weight")).getName());
+
+        // the found yarns are the stored ones, so they are copied while writers are still locked out
+        List<Yarn> yarns = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Yarn yarn : inv.find(query)) {
+                Yarn copy = new Yarn(yarn.getBrand(), yarn.getColor(), yarn.getLengthMeters(), yarn.getWeight());
+                copy.setId(yarn.getId());
+                yarns.add(copy);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // the lock is not held while the response is sent, so a slow client does not block changes
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0); // streamed, the length is not known in advance
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 16))) {
+            YarnJsonStream.writeYarns(writer, yarns);
+        }
+    }
+
+    private void addYarn(HttpExchange exchange) throws IOException {
+        String brand = null;
+        String color = null;
+        int length = 0;
+        String weightName = null;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "brand" -> brand = reader.nextString();
+                    case "color", "colour" -> color = reader.nextString();
+                    case "lengthMeters", "length" -> length = reader.nextInt();
+                    case "weight" -> weightName = reader.nextString();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        if (brand == null || brand.isBlank() || color == null || color.isBlank() || length <= 0 || weightName == null) {
+            throw new IllegalArgumentException("brand, color, a positive lengthMeters and weight are required");
+        }
+        Yarn yarn = new Yarn(brand, color, length, weight(weightName));
+
+        long id;
+        lock.writeLock().lock();
+        try {
+            inv.addItem(yarn);
+            // with merging on add, the length goes to the stored duplicate and its id is returned
+            id = inv.getStored(yarn).getId();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        sendJson(exchange, 201, "id", id);
+    }
+
+    private void removeYarn(HttpExchange exchange, long id) throws IOException {
+        boolean found;
+        lock.writeLock().lock();
+        try {
+            found = inv.containsId(id);
+            if (found) {
+                inv.removeById(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!found) {
+            sendError(exchange, 404, "No yarn with id " + id);
+            return;
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void useYarn(HttpExchange exchange, long id) throws IOException {
+        int amount = 0;
+        try (JsonReader reader = new JsonReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("amount")) {
+                    amount = reader.nextInt();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        if (amount <= 0) {
+            throw new IllegalArgumentException("a positive amount is required");
+        }
+
+        int left = -1;
+        lock.writeLock().lock();
+        try {
+            Yarn yarn = inv.getById(id);
+            if (yarn != null) {
+                inv.changeLengthById(id, amount);
+                left = Math.max(0, yarn.getLengthMeters());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (left < 0) {
+            sendError(exchange, 404, "No yarn with id " + id);
+            return;
+        }
+        sendJson(exchange, 200, "lengthMeters", left);
+    }
+
+    private void handleMerge(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                sendError(exchange, 405, "Use POST");
+                return;
+            }
+            int count;
+            lock.writeLock().lock();
+            try {
+                inv.mergeDuplicateYarns();
+                count = inv.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            sendJson(exchange, 200, "count", count);
+        }
+    }
+
+    private void handleEstimate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                estimate(exchange);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            }
+        }
+    }
+
+    private void estimate(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        String project = params.get("project");
+        if (project == null || !params.containsKey("weight")) {
+            sendError(exchange, 400, "project and weight are required");
+            return;
+        }
+        String weightName = weight(params.get("weight")).getName();
+
+        YarnRequirements requirements = YarnRequirements.current();
+        int p = requirements.indexOfProject(project);
+        int w = requirements.indexOfWeight(weightName);
+        int min = p < 0 || w < 0 ? YarnRequirements.MISSING : requirements.getMin(p, w);
+        int max = p < 0 || w < 0 ? YarnRequirements.MISSING : requirements.getMax(p, w);
+        if (min == YarnRequirements.MISSING && max == YarnRequirements.MISSING) {
+            sendError(exchange, 404, "No data available for this combination");
+            return;
+        }
+
+        StringWriter body = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(body)) {
+            writer.beginObject();
+            writer.name("project").value(requirements.getProject(p));
+            writer.name("weight").value(requirements.getWeight(w));
+            // an unknown length is left out
+            if (min != YarnRequirements.MISSING) {
+                writer.name("min").value(min);
+            }
+            if (max != YarnRequirements.MISSING) {
+                writer.name("max").value(max);
+            }
+            writer.endObject();
+        }
+        send(exchange, 200, body.toString());
+    }
+
+    private static YarnWeight weight(String name) {
+        YarnWeight weight = UserInputValidator.findYarnWeight(name);
+        if (weight == null) {
+            throw new IllegalArgumentException("Unknown yarn weight: " + name);
+        }
+        return weight;
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid yarn id: " + value);
+        }
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String name, long value) throws IOException {
+        send(exchange, status, "{\"" + name + "\":" + value + "}");
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringWriter body = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(body)) {
+            writer.beginObject();
+            writer.name("error").value(message);
+            writer.endObject();
+        }
+        send(exchange, status, body.toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
@@ -0,0 +1,241 @@
+package cz.cuni.mff.glavovaa.yarninv.server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Load-test client for {@link InventoryServer}. Runs many concurrent clients, each sending a number of requests
+ * (mostly filtered listings and estimates, and a share of additions and length changes), and reports the throughput
+ * and the latency percentiles. Requests answered with a 4xx status (e.g. a length change of a missing yarn) are
+ * counted separately from the successful ones and the failures.
+ * <pre>
+ * java cz.cuni.mff.glavovaa.yarninv.server.LoadTestClient [url] [--clients n] [--requests n] [--writes ratio]
+ * </pre>
+ * Additions made by the test stay in the inventory, so it should be run against a test inventory.
+ */
+public class LoadTestClient {
+    private static final String[] WEIGHTS = {"Lace", "Fine", "Medium", "Bulky"};
+    private static final String[] COLOURS = {"red", "blue", "green", "white"};
+    private static final String[] PROJECTS = {"baby hat", "adult hat", "baby sweater"};
+    private static final long FAILED = -1;
+    private static final long CLIENT_ERROR = -2;
+
+    /**
+     * Default constructor.
+     */
+    public LoadTestClient() {
+
+    }
+
+    /**
+     * Runs the load test
+     * @param base: address of the server, e.g. http://localhost:8080
+     * @param clients: number of concurrent clients
+     * @param requestsPerClient: number of requests each client sends
+     * @param writeRatio: share of requests that change the inventory, between 0 and 1
+     * @return the measured results
+     * @throws InterruptedException if the test is interrupted
+     */
+    public static Result run(URI base, int clients, int requestsPerClient, double writeRatio) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder().executor(InventoryServer.newRequestExecutor()).build();
+        ExecutorService executor = InventoryServer.newRequestExecutor();
+        List<Future<long[]>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            long seed = c;
+            futures.add(executor.submit(() -> runClient(http, base, requestsPerClient, writeRatio, seed)));
+        }
+
+        long[] latencies = new long[clients * requestsPerClient];
+        int count = 0;
+        int errors = 0;
+        int clientErrors = 0;
+        for (Future<long[]> future : futures) {
+            try {
+                for (long latency : future.get()) {
+                    if (latency == CLIENT_ERROR) {
+                        clientErrors++;
+                    } else if (latency == FAILED) {
+                        errors++;
+                    } else {
+                        latencies[count++] = latency;
+                    }
+                }
+            } catch (ExecutionException e) {
+                errors += requestsPerClient;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        long[] measured = Arrays.copyOf(latencies, count);
+        Arrays.sort(measured);
+        return new Result(measured, clientErrors, errors, elapsed);
+    }
+
+    /**
+     * Sends the requests of one client and returns their latencies in nanoseconds (FAILED for a failed request,
+     * CLIENT_ERROR for a request answered with a 4xx status)
+     */
+    private static long[] runClient(HttpClient http, URI base, int requests, double writeRatio, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] latencies = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request;
+            double kind = random.nextDouble();
+            if (kind < writeRatio / 2) {
+                String body = "{\"brand\":\"load test\",\"color\":\"" + COLOURS[random.nextInt(COLOURS.length)]
+                        + "\",\"lengthMeters\":" + (50 + random.nextInt(200)) + ",\"weight\":\""
+                        + WEIGHTS[random.nextInt(WEIGHTS.length)] + "\"}";
+                request = HttpRequest.newBuilder(base.resolve("/yarns")).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            } else if (kind < writeRatio) {
+                request = HttpRequest.newBuilder(base.resolve("/yarns/" + (1 + random.nextInt(1000)) + "/use"))
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1}")).build();
+            } else if (kind < writeRatio + (1 - writeRatio) / 4) {
+                String project = PROJECTS[random.nextInt(PROJECTS.length)].replace(" ", "%20");
+                request = HttpRequest.newBuilder(base.resolve("/estimate?project=" + project + "&weight="
+                        + WEIGHTS[random.nextInt(WEIGHTS.length)])).GET().build();
+            } else {
+                request = HttpRequest.newBuilder(base.resolve("/yarns?colour=" + COLOURS[random.nextInt(COLOURS.length)]
+                        + "&weight=" + WEIGHTS[random.nextInt(WEIGHTS.length)])).GET().build();
+            }
+
+            long start = System.nanoTime();
+            try {
+                int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 500) {
+                    latencies[i] = FAILED;
+                } else if (status >= 400) {
+                    latencies[i] = CLIENT_ERROR;
+                } else {
+                    latencies[i] = System.nanoTime() - start;
+                }
+            } catch (IOException e) {
+                latencies[i] = FAILED;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Arrays.fill(latencies, i, requests, FAILED);
+                break;
+            }
+        }
+        return latencies;
+    }
+
+    /**
+     * Command line load test
+     * @param args: optionally the url of the server, --clients n, --requests n and --writes ratio
+     */
+    public static void main(String[] args) {
+        URI base = URI.create("http://localhost:" + InventoryServer.DEFAULT_PORT);
+        int clients = 64;
+        int requests = 200;
+        double writes = 0.1;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--clients" -> clients = Integer.parseInt(args[++i]);
+                    case "--requests" -> requests = Integer.parseInt(args[++i]);
+                    case "--writes" -> writes = Double.parseDouble(args[++i]);
+                    default -> base = URI.create(args[i]);
+                }
+            }
+            System.out.println(run(base, clients, requests, writes));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.out.println("Usage: LoadTestClient [url] [--clients n] [--requests n] [--writes ratio]");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Results of a load test
+     */
+    public static class Result {
+        private final long[] latencies;
+        private final int clientErrors;
+        private final int errors;
+        private final long elapsedNanos;
+
+        /**
+         * Constructor of the results.
+         * @param latencies: sorted latencies of the successful requests in nanoseconds
+         * @param clientErrors: number of requests answered with a 4xx status
+         * @param errors: number of failed requests
+         * @param elapsedNanos: duration of the whole test
+         */
+        public Result(long[] latencies, int clientErrors, int errors, long elapsedNanos) {
+            this.latencies = latencies;
+            this.clientErrors = clientErrors;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the number of successful requests
+         * @return the number of requests
+         */
+        public int getRequests() {
+            return latencies.length;
+        }
+
+        /**
+         * Returns the number of requests answered with a 4xx status
+         * @return the number of client errors
+         */
+        public int getClientErrors() {
+            return clientErrors;
+        }
+
+        /**
+         * Returns the number of failed requests
+         * @return the number of errors
+         */
+        public int getErrors() {
+            return errors;
+        }
+
+        /**
+         * Returns the number of successful requests per second
+         * @return the throughput
+         */
+        public double getThroughput() {
+            return latencies.length / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Returns a latency percentile
+         * @param percentile: the percentile between 0 and 100
+         * @return the latency in milliseconds
+         */
+        public double getLatencyMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))] / 1e6;
+        }
+
+        /**
+         * Overrides toString with a report of the results
+         * @return the report
+         */
+        @Override
+        public String toString() {
+            return String.format("%d requests (%d answered with 4xx, %d failed) in %.2f s, %.0f requests/s%n"
+                            + "latency p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms",
+                    latencies.length, clientErrors, errors, elapsedNanos / 1e9, getThroughput(),
+                    getLatencyMillis(50), getLatencyMillis(95), getLatencyMillis(99), getLatencyMillis(100));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * This package contains the HTTP/JSON service that exposes the yarn inventory to other terminals,
+ * and a load-test client for measuring it.
+ *
+ * <p>Key classes:</p>
+ * <ul>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.server.InventoryServer} - Embedded HTTP server with the inventory endpoints</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.server.LoadTestClient} - Measures the throughput and latency of the server</li>
+ * </ul>
+ */
+package cz.cuni.mff.glavovaa.yarninv.server;
@@ -1,7 +1,10 @@
 package cz.cuni.mff.glavovaa.yarninv.utils;
 
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightLoader;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightResolver;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -11,7 +14,6 @@ import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
 
-import static cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightLoader.loadYarnWeights;
 
 /**
  * Validates user input from standard input. Once the input is validated, it returns it back to main as a value.
@@ -19,13 +21,12 @@ import static cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightLoader.loadYarnW
 public class UserInputValidator {
     static Scanner scanner = new Scanner(System.in);
     static final Path CONFIG_DIR = Paths.get(System.getProperty("user.dir"), "config");
-    static final Path FILE_PATH = CONFIG_DIR.resolve("yarn_weights.json");
     static Map<String, YarnWeight> yarnWeights;
 
     static {
         try {
             Files.createDirectories(CONFIG_DIR); // ensures that the directory exists
-            yarnWeights = loadYarnWeights(FILE_PATH);
+            yarnWeights = YarnWeightLoader.getDefaultWeights();
             if (yarnWeights.isEmpty()) {
                 System.out.println("Warning: Yarn weights file is empty or not found.");
             } else {
@@ -37,6 +38,24 @@ public class UserInputValidator {
         }
     }
 
+    /**
+     * Replaces the scanner used for repeated prompts, so that the validator and the app read from the same input
+     * @param newScanner: scanner to read user input from
+     */
+    public static void setScanner(Scanner newScanner){
+        scanner = newScanner;
+    }
+
+    /**
+     * Finds a yarn weight by its name or alias without asking the user (case-insensitive), e.g. "worsted" is Medium.
+     * See {@link YarnWeightResolver} for how aliases of several weights are resolved.
+     * @param name: name or alias of the yarn weight
+     * @return the yarn weight or null if there is no such weight
+     */
+    public static YarnWeight findYarnWeight(String name){
+        return YarnWeightResolver.getDefault().resolve(name);
+    }
+
     /**
      * Combines all functions of UIV to validate all parameters of Yarn
      * Used when adding a new yarn to inventory.
@@ -44,9 +63,9 @@ public class UserInputValidator {
      */
     public static Yarn validateYarn(){
         System.out.print("Enter brand name: ");
-        String brandName = validateNonEmptyStr(scanner.nextLine());
+        String brandName = validateNonEmptyText(scanner.nextLine());
         System.out.print("Enter colour: ");
-        String color = validateNonEmptyStr(scanner.nextLine());
+        String color = validateNonEmptyText(scanner.nextLine());
         System.out.print("Enter the length (in metres): ");
         int length = validatePositiveInteger(scanner.nextLine());
         System.out.print("Enter the yarn weight (name or alias): ");
@@ -73,6 +92,24 @@ public class UserInputValidator {
         return num;
     }
 
+    /**
+     * Repeatedly validates the yarn id until there is a yarn with the id in the inventory.
+     * Used when the user chooses a yarn from the printed inventory.
+     * @param input: user input
+     * @param inv: the inventory
+     * @return the correct id
+     */
+    public static long validateYarnId(String input, YarnInventory inv){
+        long id = validatePositiveInteger(input);
+
+        while (!inv.containsId(id)){
+            System.out.println("There is no yarn with this id. Try again");
+            id = validatePositiveInteger(scanner.nextLine());
+        }
+
+        return id;
+    }
+
     /**
      * Repeatedly checks if the item is in list.
      * @param choice the user's choice
@@ -96,12 +133,22 @@ public class UserInputValidator {
      * @return validated string
      */
     public static String validateNonEmptyStr(String str){
+        return validateNonEmptyText(str).toLowerCase();
+    }
+
+    /**
+     * Repeatedly checks if input is not empty, keeping the case the user typed.
+     * Used for brands and colours, which are stored as they were entered.
+     * @param str: user input
+     * @return validated string
+     */
+    public static String validateNonEmptyText(String str){
         while (str.isEmpty()){
             System.out.print("Input cannot be empty. Enter here: ");
             str = scanner.nextLine();
         }
 
-        return str.toLowerCase();
+        return str;
     }
 
     /**
@@ -132,17 +179,41 @@ public class UserInputValidator {
     }
 
     /**
-     * Checks if the yarn weight name submitted by user is in the list of valid yarn weights
+     * Checks if user input is a positive number, e.g. a needle size like 4.5
+     * @param input: user input
+     * @return validated number
+     */
+    public static double validatePositiveNumber(String input){
+        while (true){
+            try{
+                double num = Double.parseDouble(input.replace(',', '.'));
+
+                if (num > 0 && Double.isFinite(num)){
+                    return num;
+                }
+            }
+            catch (NumberFormatException ex){
+                // asks again below
+            }
+            System.out.println("Incorrect number.");
+
+            System.out.print("Enter number here: ");
+            input = scanner.nextLine();
+        }
+    }
+
+    /**
+     * Checks if the yarn weight name or alias submitted by user belongs to one of the valid yarn weights
      * @return correct yarn weight
      */
     public static YarnWeight validateYarnWeight(){
         printYarnWeightOptions();
         String input = scanner.nextLine();
 
-        YarnWeight yw = yarnWeights.get(input);
+        YarnWeight yw = findYarnWeight(input);
         while (yw == null){
             System.out.print("Incorrect yarn weight. Try again: ");
-            yw = yarnWeights.get(scanner.nextLine());
+            yw = findYarnWeight(scanner.nextLine());
         }
 
         return yw;
@@ -174,6 +245,6 @@ public class UserInputValidator {
                 System.out.print(", " + yw);
             }
         }
-        System.out.print("\n");
+        System.out.print(" (or an alias such as DK or Worsted)\n");
     }
 }
@@ -0,0 +1,297 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compact binary format of the inventory snapshot. The file starts with the magic bytes {@code YINV} and a version,
+ * followed by a table of the yarn weights used in the inventory, a dictionary of all brand and colour strings, and
+ * fixed-size yarn records that refer to both by number:
+ *
+ * <pre>
+ * magic "YINV", short version
+ * int weightCount, weightCount x (string name, double minNeedle, maxNeedle, minHook, maxHook,
+ *                                 int categoryCount, categoryCount x string)
+ * int stringCount, stringCount x string
+ * long yarnCount, yarnCount x (int brandId, int colorId, short weightId, int lengthMeters, long yarnId)
+ * </pre>
+ *
+ * Strings are stored as an int byte length and UTF-8 bytes. Every yarn must have a brand, a colour and a weight, the
+ * same as in the JSON snapshot. Each weight is stored once by
+ * name (as it is defined in {@code config/yarn_weights.json}), and every yarn read from the file shares the single
+ * weight instance of its id. The file is read through a memory-mapped {@link FileChannel}.
+ */
+public class BinarySnapshot {
+    private static final byte[] MAGIC = {'Y', 'I', 'N', 'V'};
+    private static final short VERSION = 2;
+    private static final int RECORD_SIZE = 4 + 4 + 2 + 4 + 8;
+    // the smallest possible weight (empty name, four doubles, no categories) and string
+    private static final int MIN_WEIGHT_SIZE = 4 + 4 * 8 + 4;
+    private static final int MIN_STRING_SIZE = 4;
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+
+    /**
+     * Default constructor.
+     */
+    public BinarySnapshot() {
+
+    }
+
+    /**
+     * Checks whether a file starts with the magic bytes of the binary format
+     * @param file: path to the file
+     * @return true if the file is a binary snapshot
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinary(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] head = in.readNBytes(MAGIC.length);
+            return Arrays.equals(head, MAGIC);
+        }
+    }
+
+    /**
+     * Writes the yarns into a binary snapshot
+     * @param file: path to the file
+     * @param yarns: the yarns to be written
+     * @throws IOException if writing fails
+     */
+    public static void write(Path file, Collection<Yarn> yarns) throws IOException {
+        // First pass collects the dictionaries
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        Map<String, Integer> weightIds = new LinkedHashMap<>();
+        List<YarnWeight> weights = new ArrayList<>();
+        for (Yarn yarn : yarns) {
+            YarnWeight weight = yarn.getWeight();
+            if (yarn.getBrand() == null || yarn.getColor() == null || weight == null) {
+                throw new IOException("Yarn " + yarn.getId() + " has no brand, colour or weight");
+            }
+            strings.putIfAbsent(yarn.getBrand(), strings.size());
+            strings.putIfAbsent(yarn.getColor(), strings.size());
+            if (!weightIds.containsKey(weight.getName())) {
+                weightIds.put(weight.getName(), weights.size());
+                weights.add(weight);
+            }
+        }
+        if (weights.size() > Short.MAX_VALUE) {
+            throw new IOException("Too many yarn weights for the binary format: " + weights.size());
+        }
+
+        // Second pass writes the records
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            writeHeader(out, weights, strings.keySet(), yarns.size());
+            for (Yarn yarn : yarns) {
+                out.writeInt(strings.get(yarn.getBrand()));
+                out.writeInt(strings.get(yarn.getColor()));
+                out.writeShort(weightIds.get(yarn.getWeight().getName()));
+                out.writeInt(yarn.getLengthMeters());
+                out.writeLong(yarn.getId());
+            }
+        }
+    }
+
+    /**
+     * Reads a binary snapshot and passes every yarn to the consumer in file order
+     * @param file: path to the file
+     * @param sink: receives the yarns
+     * @throws IOException if the file cannot be read or is not a valid binary snapshot
+     */
+    public static void read(Path file, Consumer<Yarn> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedInput in = new MappedInput(channel);
+
+            byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a binary inventory snapshot");
+            }
+            short version = in.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported binary snapshot version " + version);
+            }
+
+            YarnWeight[] weights = new YarnWeight[in.getCount(MIN_WEIGHT_SIZE, "weight")];
+            for (int i = 0; i < weights.length; i++) {
+                String name = in.getString();
+                double minNeedle = in.getDouble();
+                double maxNeedle = in.getDouble();
+                double minHook = in.getDouble();
+                double maxHook = in.getDouble();
+                List<String> categories = new ArrayList<>();
+                int categoryCount = in.getCount(MIN_STRING_SIZE, "category");
+                for (int c = 0; c < categoryCount; c++) {
+                    categories.add(in.getString());
+                }
+                weights[i] = new YarnWeight(name, minNeedle, maxNeedle, minHook, maxHook, categories);
+            }
+
+            String[] strings = new String[in.getCount(MIN_STRING_SIZE, "string")];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = in.getString();
+            }
+
+            long count = in.getLong();
+            if (count < 0 || count > in.remaining() / RECORD_SIZE) {
+                throw new IOException("Invalid yarn count in binary snapshot: " + count);
+            }
+            for (long i = 0; i < count; i++) {
+                in.ensure(RECORD_SIZE);
+                int brand = in.getInt();
+                int color = in.getInt();
+                short weight = in.getShort();
+                int length = in.getInt();
+                if (brand < 0 || color < 0 || weight < 0) {
+                    throw new IOException("Invalid yarn " + i + " in binary snapshot: missing brand, colour or weight");
+                }
+                Yarn yarn = new Yarn(strings[brand], strings[color], length, weights[weight]);
+                yarn.setId(in.getLong());
+                sink.accept(yarn);
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted binary snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the header of the binary format (weights, string dictionary and number of yarns).
+     * The yarn records have to follow in the same order as the count promises.
+     * @param out: the output stream
+     * @param weights: the weights, their positions are the weight ids
+     * @param strings: the brand and colour strings, their positions are the string ids
+     * @param yarnCount: number of yarn records that follow
+     * @throws IOException if writing fails
+     */
+    static void writeHeader(DataOutputStream out, List<YarnWeight> weights, Collection<String> strings, long yarnCount)
+            throws IOException {
+        out.write(MAGIC);
+        out.writeShort(VERSION);
+
+        out.writeInt(weights.size());
+        for (YarnWeight weight : weights) {
+            writeString(out, weight.getName());
+            out.writeDouble(weight.getMinNeedleSizeMetric());
+            out.writeDouble(weight.getMaxNeedleSizeMetric());
+            out.writeDouble(weight.getMinHookSizeMetric());
+            out.writeDouble(weight.getMaxHookSizeMetric());
+            List<String> categories = weight.getCategories() == null ? List.of() : weight.getCategories();
+            out.writeInt(categories.size());
+            for (String category : categories) {
+                writeString(out, category);
+            }
+        }
+
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            writeString(out, string);
+        }
+
+        out.writeLong(yarnCount);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a file through a memory-mapped window that moves forward as the file is read,
+     * so files larger than a single mapping can be read as well.
+     */
+    private static class MappedInput {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart = 0;
+        private MappedByteBuffer buffer;
+
+        MappedInput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0);
+        }
+
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                long position = windowStart + buffer.position();
+                if (size - position < bytes) {
+                    throw new IOException("Unexpected end of binary snapshot");
+                }
+                map(position);
+            }
+        }
+
+        void get(byte[] target) throws IOException {
+            ensure(target.length);
+            buffer.get(target);
+        }
+
+        short getShort() throws IOException {
+            ensure(Short.BYTES);
+            return buffer.getShort();
+        }
+
+        int getInt() throws IOException {
+            ensure(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            ensure(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        double getDouble() throws IOException {
+            ensure(Double.BYTES);
+            return buffer.getDouble();
+        }
+
+        /**
+         * Reads the number of the entries of a table and checks that so many entries can fit into the rest of the file
+         */
+        int getCount(int minEntrySize, String entry) throws IOException {
+            int count = getInt();
+            if (count < 0 || (long) count * minEntrySize > remaining()) {
+                throw new IOException("Invalid " + entry + " count in binary snapshot: " + count);
+            }
+            return count;
+        }
+
+        long remaining() {
+            return size - (windowStart + buffer.position());
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0 || length > MAP_WINDOW) {
+                throw new IOException("Invalid string length in binary snapshot: " + length);
+            }
+            byte[] bytes = new byte[length];
+            get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void map(long position) throws IOException {
+            windowStart = position;
+            long length = Math.min(MAP_WINDOW, size - position);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightLoader;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Yarn inventory stored by columns instead of yarn objects. Brands, colours and yarn weights are dictionary-encoded:
+ * every distinct value is stored once and the rows hold its {@code int} code. The codes, the lengths and the ids are
+ * kept in primitive arrays, one per property, so scanning a property reads one contiguous array and no objects.
+ *
+ * <p>Conditions are {@link RowPredicate}s over the codes. {@link #count}, {@link #sumLength} and
+ * {@link #sumLengthByWeight} evaluate them on the columns and allocate nothing per row. Yarn objects are only
+ * created when yarns are returned, e.g. by {@link #filter} or {@link #get}.</p>
+ *
+ * <p>Rows keep the order in which the yarns were added, so the index of {@link #removeAt(int)} is the same as in
+ * {@link YarnInventory}. Removing a row shifts the following rows, and finding a row by id scans the id column.</p>
+ */
+public class ColumnarYarnInventory implements Inventory {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Path filePath;
+    private SnapshotFormat snapshotFormat = SnapshotFormat.PRETTY_JSON;
+    private boolean loadFailed = false;
+
+    private final List<String> brands = new ArrayList<>();
+    private final Map<String, Integer> brandCodes = new HashMap<>();
+    private final List<String> colours = new ArrayList<>();
+    private final Map<String, Integer> colourCodes = new HashMap<>();
+    private final List<YarnWeight> weights = new ArrayList<>();
+    private final Map<String, Integer> weightCodes = new HashMap<>();
+    private final Map<String, YarnWeight> sharedWeights = YarnWeightLoader.getDefaultWeights();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] brandColumn = new int[INITIAL_CAPACITY];
+    private int[] colourColumn = new int[INITIAL_CAPACITY];
+    private int[] weightColumn = new int[INITIAL_CAPACITY];
+    private int[] lengthColumn = new int[INITIAL_CAPACITY];
+    private int size;
+    private long nextId = 1;
+
+    /**
+     * Creates the inventory and loads the yarns from its file
+     * @param filePath: path to the save file of the inventory
+     */
+    public ColumnarYarnInventory(Path filePath) {
+        this.filePath = filePath;
+        loadInventory();
+    }
+
+    /**
+     * Method for adding yarn. The yarn is copied into the columns and gets the next id, unless it already has an
+     * id that is greater than all ids in the inventory.
+     * @param item: yarn to be added
+     */
+    @Override
+    public <T> void addItem(T item) {
+        add((Yarn) item);
+    }
+
+    /**
+     * Adds a yarn and returns its id
+     * @param yarn: yarn to be added
+     * @return the id of the added yarn
+     */
+    public long add(Yarn yarn) {
+        long id = yarn.getId() >= nextId ? yarn.getId() : nextId;
+        append(id, code(brands, brandCodes, yarn.getBrand()), code(colours, colourCodes, yarn.getColor()),
+                weightCode(yarn.getWeight()), yarn.getLengthMeters());
+        nextId = id + 1;
+        return id;
+    }
+
+    private void append(long id, int brand, int colour, int weight, int length) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            brandColumn = Arrays.copyOf(brandColumn, capacity);
+            colourColumn = Arrays.copyOf(colourColumn, capacity);
+            weightColumn = Arrays.copyOf(weightColumn, capacity);
+            lengthColumn = Arrays.copyOf(lengthColumn, capacity);
+        }
+        ids[size] = id;
+        brandColumn[size] = brand;
+        colourColumn[size] = colour;
+        weightColumn[size] = weight;
+        lengthColumn[size] = length;
+        size++;
+    }
+
+    private static int code(List<String> values, Map<String, Integer> codes, String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private int weightCode(YarnWeight weight) {
+        Integer code = weightCodes.get(weight.getName());
+        if (code == null) {
+            code = weights.size();
+            weights.add(sharedWeights.getOrDefault(weight.getName(), weight));
+            weightCodes.put(weight.getName(), code);
+        }
+        return code;
+    }
+
+    /**
+     * Removes the yarn in a row. The following rows move up by one.
+     * @param index: the row, in the order the yarns were added
+     */
+    @Override
+    public void removeAt(int index) {
+        Objects.checkIndex(index, size);
+        int moved = size - index - 1;
+        System.arraycopy(ids, index + 1, ids, index, moved);
+        System.arraycopy(brandColumn, index + 1, brandColumn, index, moved);
+        System.arraycopy(colourColumn, index + 1, colourColumn, index, moved);
+        System.arraycopy(weightColumn, index + 1, weightColumn, index, moved);
+        System.arraycopy(lengthColumn, index + 1, lengthColumn, index, moved);
+        size--;
+    }
+
+    /**
+     * Removes the yarn with the id
+     * @param id: id of the yarn
+     * @return true if the yarn was removed, false if there is no yarn with the id
+     */
+    public boolean removeById(long id) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        removeAt(row);
+        return true;
+    }
+
+    /**
+     * Decreases the length of the yarn with the id. The yarn is removed when no length is left.
+     * @param id: id of the yarn
+     * @param amount: meters to be taken away
+     * @return false if there is no yarn with the id
+     */
+    public boolean changeLengthById(long id, int amount) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        lengthColumn[row] -= amount;
+        if (lengthColumn[row] <= 0) {
+            removeAt(row);
+        }
+        return true;
+    }
+
+    private int rowOf(long id) {
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == id) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of yarns
+     * @return the number of yarns
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the yarn in a row as a new yarn object
+     * @param row: the row, in the order the yarns were added
+     * @return the yarn
+     */
+    public Yarn get(int row) {
+        Objects.checkIndex(row, size);
+        Yarn yarn = new Yarn(brands.get(brandColumn[row]), colours.get(colourColumn[row]), lengthColumn[row],
+                weights.get(weightColumn[row]));
+        yarn.setId(ids[row]);
+        return yarn;
+    }
+
+    /**
+     * Returns a condition matching a brand, ignoring case. The condition can be kept and reused, brands added
+     * to the inventory later are matched too.
+     * @param brand: the brand
+     * @return the condition
+     */
+    public RowPredicate brandIs(String brand) {
+        CodeMatcher match = new CodeMatcher(code -> brands.get(code).equalsIgnoreCase(brand));
+        return (b, c, w, l) -> match.test(b);
+    }
+
+    /**
+     * Returns a condition matching a colour, ignoring case. The condition can be kept and reused, colours added
+     * to the inventory later are matched too.
+     * @param colour: the colour
+     * @return the condition
+     */
+    public RowPredicate colourIs(String colour) {
+        CodeMatcher match = new CodeMatcher(code -> colours.get(code).equalsIgnoreCase(colour));
+        return (b, c, w, l) -> match.test(c);
+    }
+
+    /**
+     * Returns a condition matching a yarn weight name, ignoring case. The condition can be kept and reused,
+     * yarn weights added to the inventory later are matched too.
+     * @param weightName: name of the yarn weight
+     * @return the condition
+     */
+    public RowPredicate weightIs(String weightName) {
+        CodeMatcher match = new CodeMatcher(code -> weights.get(code).getName().equalsIgnoreCase(weightName));
+        return (b, c, w, l) -> match.test(w);
+    }
+
+    /**
+     * Returns a condition matching yarns of at least a length
+     * @param meters: the shortest matching length
+     * @return the condition
+     */
+    public static RowPredicate lengthAtLeast(int meters) {
+        return (b, c, w, l) -> l >= meters;
+    }
+
+    /**
+     * Remembers which dictionary codes match a condition. A code is compared with the dictionary value the first
+     * time it is tested, so codes added after the condition was created are resolved too. The dictionaries only
+     * grow, so a resolved code never changes.
+     */
+    private static final class CodeMatcher {
+        private final IntPredicate matchesValue;
+        private boolean[] match = new boolean[0];
+        private int resolved;
+
+        CodeMatcher(IntPredicate matchesValue) {
+            this.matchesValue = matchesValue;
+        }
+
+        boolean test(int code) {
+            if (code >= resolved) {
+                if (code >= match.length) {
+                    match = Arrays.copyOf(match, Math.max(code + 1, match.length * 2));
+                }
+                for (; resolved <= code; resolved++) {
+                    match[resolved] = matchesValue.test(resolved);
+                }
+            }
+            return match[code];
+        }
+    }
+
+    /**
+     * Counts the yarns matching a condition
+     * @param condition: the condition
+     * @return the number of matching yarns
+     */
+    public int count(RowPredicate condition) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (condition.test(brandColumn[row], colourColumn[row], weightColumn[row], lengthColumn[row])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sums the lengths of the yarns matching a condition
+     * @param condition: the condition
+     * @return the total length in meters
+     */
+    public long sumLength(RowPredicate condition) {
+        long sum = 0;
+        for (int row = 0; row < size; row++) {
+            if (condition.test(brandColumn[row], colourColumn[row], weightColumn[row], lengthColumn[row])) {
+                sum += lengthColumn[row];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the lengths of the yarns matching a condition by yarn weight
+     * @param condition: the condition
+     * @return total meters by yarn weight name, only weights with matching yarns are included
+     */
+    public Map<String, Long> sumLengthByWeight(RowPredicate condition) {
+        long[] sums = new long[weights.size()];
+        boolean[] found = new boolean[weights.size()];
+        for (int row = 0; row < size; row++) {
+            if (condition.test(brandColumn[row], colourColumn[row], weightColumn[row], lengthColumn[row])) {
+                sums[weightColumn[row]] += lengthColumn[row];
+                found[weightColumn[row]] = true;
+            }
+        }
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < sums.length; code++) {
+            if (found[code]) {
+                result.put(weights.get(code).getName(), sums[code]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rows matching a condition
+     * @param condition: the condition
+     * @return the matching rows in ascending order
+     */
+    public int[] filterRows(RowPredicate condition) {
+        int[] rows = new int[Math.min(size, 16)];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (condition.test(brandColumn[row], colourColumn[row], weightColumn[row], lengthColumn[row])) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                }
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Method for filtering the yarns
+     * @param condition: the condition
+     * @return new yarn objects of the matching yarns, in the order they were added
+     */
+    public List<Yarn> filter(RowPredicate condition) {
+        int[] rows = filterRows(condition);
+        List<Yarn> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(get(row));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the yarns as a read-only collection. The yarn objects are created while iterating.
+     * @return the yarns in the order they were added
+     */
+    public Collection<Yarn> asYarns() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Yarn> iterator() {
+                return new Iterator<>() {
+                    private int row;
+
+                    @Override
+                    public boolean hasNext() {
+                        return row < size;
+                    }
+
+                    @Override
+                    public Yarn next() {
+                        if (row >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        return get(row++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Sets the format used by saveInventory
+     * @param snapshotFormat: pretty JSON, compact JSON or binary
+     */
+    public void setSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+    }
+
+    /**
+     * Prints all yarns with their ids
+     */
+    @Override
+    public void printInventory() {
+        InventoryPrinter printer = InventoryPrinter.to(System.out);
+        try {
+            for (Yarn yarn : asYarns()) {
+                printer.print(yarn);
+            }
+            printer.flush();
+        } catch (IOException e) {
+            System.out.println("Failed to print the inventory: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the yarns from the JSON or binary save file into the columns. The yarns are added as they are read,
+     * no list of yarn objects is built. Later saves keep the format of the file.
+     * @return an empty list, the yarns are only stored in the columns
+     */
+    @Override
+    public <T> List<T> loadInventory() {
+        if (Files.exists(filePath)) {
+            try {
+                InventorySnapshots.read(filePath, this::add);
+                snapshotFormat = InventorySnapshots.detectFormat(filePath);
+            } catch (IOException e) {
+                loadFailed = true;
+                System.out.println("Failed to load the inventory from a file: " + e.getMessage());
+                System.out.println("Changes will not be saved until the file is fixed, so it is not overwritten.");
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Writes all yarns into the save file. Nothing is written if the file could not be loaded.
+     */
+    @Override
+    public void saveInventory() {
+        if (loadFailed) {
+            System.out.println("The inventory was not saved, because its file could not be loaded and would be overwritten: " + filePath);
+            return;
+        }
+        try {
+            Path tempFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+            InventorySnapshots.write(tempFile, asYarns(), snapshotFormat);
+            try {
+                Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to save the inventory: " + e.getMessage());
+        }
+    }
+}
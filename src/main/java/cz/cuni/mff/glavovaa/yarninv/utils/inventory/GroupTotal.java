@@ -0,0 +1,67 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import java.util.Comparator;
+
+/**
+ * Number of yarns and their total length for one brand, colour or yarn weight
+ */
+public class GroupTotal {
+    /**
+     * Orders the totals from the most meters to the fewest, equal totals by name
+     */
+    public static final Comparator<GroupTotal> MOST_METERS_FIRST = Comparator.comparingLong(GroupTotal::getTotalMeters)
+            .reversed().thenComparing(GroupTotal::getName, String.CASE_INSENSITIVE_ORDER);
+
+    private final String name;
+    private int yarnCount;
+    private long totalMeters;
+
+    /**
+     * Constructor of the total.
+     * @param name: the brand, colour or yarn weight name
+     * @param yarnCount: number of yarns (skeins)
+     * @param totalMeters: total length of the yarns
+     */
+    public GroupTotal(String name, int yarnCount, long totalMeters) {
+        this.name = name;
+        this.yarnCount = yarnCount;
+        this.totalMeters = totalMeters;
+    }
+
+    /**
+     * Returns the brand, colour or yarn weight name of the group
+     * @return the name
+     */
+    public String getName() { return name; }
+
+    /**
+     * Returns the number of yarns (skeins) in the group
+     * @return the number of yarns
+     */
+    public int getYarnCount() { return yarnCount; }
+
+    /**
+     * Returns the total length of the yarns in the group
+     * @return the length in meters
+     */
+    public long getTotalMeters() { return totalMeters; }
+
+    /**
+     * Adds yarns to the total
+     * @param yarns: number of yarns, negative to take yarns away
+     * @param meters: their length, negative to take it away
+     */
+    void add(int yarns, long meters) {
+        yarnCount += yarns;
+        totalMeters += meters;
+    }
+
+    /**
+     * Overrides toString with the name, number of yarns and total length
+     * @return the overriden string
+     */
+    @Override
+    public String toString() {
+        return name + ": " + totalMeters + "m in " + yarnCount + (yarnCount == 1 ? " skein" : " skeins");
+    }
+}
@@ -0,0 +1,324 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import com.google.gson.stream.JsonWriter;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.YarnRequirements;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightLoader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Generates large synthetic inventories for load testing. The yarns use the given yarn weights (the real ones from
+ * {@code config/yarn_weights.json} by default), brands and colours are named {@code brand N} and {@code colour N}
+ * with a configurable number of each, and a configurable share of the yarns repeats the brand, colour and weight of
+ * an earlier yarn, so that they can be merged. The yarns get the ids 1 to count. The same seed always gives the same
+ * inventory.
+ *
+ * <p>The yarns are written to the file as they are generated, so the size of the inventory is not limited by the
+ * heap. Duplicates are taken from the last {@value #RECENT_KEYS} generated yarns. Also usable from the command line:</p>
+ * <pre>
+ * java cz.cuni.mff.glavovaa.yarninv.utils.inventory.InventoryGenerator output count [pretty|compact|binary]
+ *      [--brands n] [--colours n] [--duplicates ratio] [--seed n] [--requests file count]
+ * </pre>
+ */
+public class InventoryGenerator {
+    private static final int RECENT_KEYS = 4096;
+
+    private final List<YarnWeight> weights;
+    private int brands = 200;
+    private int colours = 100;
+    private double duplicateRatio = 0.1;
+    private long seed = 42;
+    private int minLength = 20;
+    private int maxLength = 500;
+
+    /**
+     * Creates a generator using the yarn weights from config/yarn_weights.json
+     */
+    public InventoryGenerator() {
+        this(YarnWeightLoader.getDefaultWeights().values());
+    }
+
+    /**
+     * Creates a generator
+     * @param weights: yarn weights of the generated yarns
+     */
+    public InventoryGenerator(Collection<YarnWeight> weights) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("At least one yarn weight is needed");
+        }
+        this.weights = new ArrayList<>(weights);
+    }
+
+    /**
+     * Sets the number of different brands
+     * @param brands: number of brands
+     * @return this generator
+     */
+    public InventoryGenerator brands(int brands) {
+        this.brands = requirePositive(brands, "brands");
+        return this;
+    }
+
+    /**
+     * Sets the number of different colours
+     * @param colours: number of colours
+     * @return this generator
+     */
+    public InventoryGenerator colours(int colours) {
+        this.colours = requirePositive(colours, "colours");
+        return this;
+    }
+
+    /**
+     * Sets the share of yarns that repeat the brand, colour and weight of an earlier yarn
+     * @param duplicateRatio: share between 0 and 1
+     * @return this generator
+     */
+    public InventoryGenerator duplicateRatio(double duplicateRatio) {
+        if (duplicateRatio < 0 || duplicateRatio > 1) {
+            throw new IllegalArgumentException("The duplicate ratio must be between 0 and 1");
+        }
+        this.duplicateRatio = duplicateRatio;
+        return this;
+    }
+
+    /**
+     * Sets the seed of the random generator
+     * @param seed: the seed
+     * @return this generator
+     */
+    public InventoryGenerator seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Sets the range of the yarn lengths
+     * @param minLength: shortest yarn in meters
+     * @param maxLength: longest yarn in meters
+     * @return this generator
+     */
+    public InventoryGenerator lengths(int minLength, int maxLength) {
+        if (requirePositive(minLength, "minLength") > maxLength) {
+            throw new IllegalArgumentException("The shortest length is greater than the longest one");
+        }
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        return this;
+    }
+
+    /**
+     * Generates yarns and passes them to the consumer one by one
+     * @param count: number of yarns
+     * @param sink: receives the yarns
+     */
+    public void forEach(long count, Consumer<Yarn> sink) {
+        String[] brandNames = names("brand ", brands);
+        String[] colourNames = names("colour ", colours);
+        try {
+            generate(count, (id, brand, colour, weight, length) ->
+                    sink.accept(yarn(id, brandNames[brand], colourNames[colour], length, weights.get(weight))));
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // the consumer cannot throw IOException
+        }
+    }
+
+    /**
+     * Generates yarns and streams them into an inventory file
+     * @param file: path to the file
+     * @param count: number of yarns
+     * @param format: format of the file
+     * @throws IOException if writing fails
+     */
+    public void write(Path file, long count, SnapshotFormat format) throws IOException {
+        String[] brandNames = names("brand ", brands);
+        String[] colourNames = names("colour ", colours);
+
+        if (format == SnapshotFormat.BINARY) {
+            if (weights.size() > Short.MAX_VALUE) {
+                throw new IOException("Too many yarn weights for the binary format: " + weights.size());
+            }
+            // The dictionary holds the brands followed by the colours, so the ids are known without a first pass
+            List<String> strings = new ArrayList<>(brands + colours);
+            strings.addAll(Arrays.asList(brandNames));
+            strings.addAll(Arrays.asList(colourNames));
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+                BinarySnapshot.writeHeader(out, weights, strings, count);
+                generate(count, (id, brand, colour, weight, length) -> {
+                    out.writeInt(brand);
+                    out.writeInt(brands + colour);
+                    out.writeShort(weight);
+                    out.writeInt(length);
+                    out.writeLong(id);
+                });
+            }
+            return;
+        }
+
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(file))) {
+            if (format == SnapshotFormat.PRETTY_JSON) {
+                writer.setIndent("  ");
+            }
+            writer.setSerializeNulls(false);
+            writer.beginArray();
+            generate(count, (id, brand, colour, weight, length) ->
+                    YarnJsonStream.writeYarn(writer, yarn(id, brandNames[brand], colourNames[colour], length, weights.get(weight))));
+            writer.endArray();
+        }
+    }
+
+    /**
+     * Writes a file of project requests for the batch planner, choosing projects and yarn weights that have
+     * known requirements
+     * @param file: path to the file
+     * @param count: number of requests
+     * @param requirements: the yarn requirements of the projects
+     * @throws IOException if writing fails or there are no requirements
+     */
+    public void writeRequests(Path file, int count, YarnRequirements requirements) throws IOException {
+        List<int[]> known = new ArrayList<>();
+        for (int p = 0; p < requirements.getProjectCount(); p++) {
+            for (int w = 0; w < requirements.getWeightCount(); w++) {
+                if (requirements.getMin(p, w) != YarnRequirements.MISSING) {
+                    known.add(new int[]{p, w});
+                }
+            }
+        }
+        if (known.isEmpty()) {
+            throw new IOException("There are no yarn requirements to generate requests from");
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(file))) {
+            writer.setIndent("  ");
+            writer.beginArray();
+            for (int i = 0; i < count; i++) {
+                int[] pair = known.get(random.nextInt(known.size()));
+                writer.beginObject();
+                writer.name("project").value(requirements.getProject(pair[0]));
+                writer.name("weight").value(requirements.getWeight(pair[1]));
+                writer.name("length").value(random.nextBoolean() ? "max" : "min");
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+    }
+
+    /**
+     * Command line generator
+     * @param args: output file, number of yarns, format and options
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: InventoryGenerator <output> <count> [pretty|compact|binary] [--brands n] "
+                    + "[--colours n] [--duplicates ratio] [--seed n] [--requests file count]");
+            return;
+        }
+
+        try {
+            InventoryGenerator generator = new InventoryGenerator();
+            Path output = Path.of(args[0]);
+            long count = Long.parseLong(args[1]);
+            SnapshotFormat format = SnapshotFormat.COMPACT_JSON;
+            Path requestFile = null;
+            int requestCount = 0;
+
+            for (int i = 2; i < args.length; i++) {
+                switch (args[i]) {
+                    case "pretty" -> format = SnapshotFormat.PRETTY_JSON;
+                    case "compact" -> format = SnapshotFormat.COMPACT_JSON;
+                    case "binary" -> format = SnapshotFormat.BINARY;
+                    case "--brands" -> generator.brands(Integer.parseInt(args[++i]));
+                    case "--colours" -> generator.colours(Integer.parseInt(args[++i]));
+                    case "--duplicates" -> generator.duplicateRatio(Double.parseDouble(args[++i]));
+                    case "--seed" -> generator.seed(Long.parseLong(args[++i]));
+                    case "--requests" -> {
+                        requestFile = Path.of(args[++i]);
+                        requestCount = Integer.parseInt(args[++i]);
+                    }
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+
+            long start = System.nanoTime();
+            generator.write(output, count, format);
+            System.out.println("Generated " + count + " yarns into " + output + " in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+            if (requestFile != null) {
+                generator.writeRequests(requestFile, requestCount, YarnRequirements.current());
+                System.out.println("Generated " + requestCount + " project requests into " + requestFile);
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to generate the inventory: " + e.getMessage());
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates the yarns as their id, numbers of their brand, colour and weight and their length
+     */
+    private void generate(long count, RecordSink sink) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] recent = new int[RECENT_KEYS * 3];
+        long stored = 0;
+
+        for (long i = 0; i < count; i++) {
+            int brand;
+            int colour;
+            int weight;
+            if (stored > 0 && random.nextDouble() < duplicateRatio) {
+                int slot = 3 * random.nextInt((int) Math.min(stored, RECENT_KEYS));
+                brand = recent[slot];
+                colour = recent[slot + 1];
+                weight = recent[slot + 2];
+            } else {
+                brand = random.nextInt(brands);
+                colour = random.nextInt(colours);
+                weight = random.nextInt(weights.size());
+                int slot = 3 * (int) (stored++ % RECENT_KEYS);
+                recent[slot] = brand;
+                recent[slot + 1] = colour;
+                recent[slot + 2] = weight;
+            }
+            sink.accept(i + 1, brand, colour, weight, minLength + random.nextInt(maxLength - minLength + 1));
+        }
+    }
+
+    private static Yarn yarn(long id, String brand, String colour, int length, YarnWeight weight) {
+        Yarn yarn = new Yarn(brand, colour, length, weight);
+        yarn.setId(id);
+        return yarn;
+    }
+
+    private static String[] names(String prefix, int count) {
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = prefix + i;
+        }
+        return names;
+    }
+
+    private static int requirePositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    private interface RecordSink {
+        void accept(long id, int brand, int colour, int weight, int length) throws IOException;
+    }
+}
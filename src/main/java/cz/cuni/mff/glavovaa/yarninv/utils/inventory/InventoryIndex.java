@@ -0,0 +1,103 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary indexes of the yarn inventory. Maps normalized (lower case) colours, brands and yarn weight names
+ * to the yarns that have them, so lookups do not need to scan the whole inventory.
+ * The indexes are kept in sync by {@link YarnInventory}.
+ */
+class InventoryIndex {
+    private final Map<String, Set<Yarn>> byColor = new HashMap<>();
+    private final Map<String, Set<Yarn>> byBrand = new HashMap<>();
+    private final Map<String, Set<Yarn>> byWeight = new HashMap<>();
+
+    /**
+     * Normalizes a value so that lookups are case-insensitive
+     * @param value: colour, brand or weight name
+     * @return the normalized value
+     */
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds a yarn to all indexes
+     * @param yarn: yarn to be indexed
+     */
+    void add(Yarn yarn) {
+        byColor.computeIfAbsent(normalize(yarn.getColor()), k -> new LinkedHashSet<>()).add(yarn);
+        byBrand.computeIfAbsent(normalize(yarn.getBrand()), k -> new LinkedHashSet<>()).add(yarn);
+        byWeight.computeIfAbsent(normalize(yarn.getWeight().getName()), k -> new LinkedHashSet<>()).add(yarn);
+    }
+
+    /**
+     * Removes a yarn from all indexes
+     * @param yarn: yarn to be removed
+     */
+    void remove(Yarn yarn) {
+        removeFrom(byColor, normalize(yarn.getColor()), yarn);
+        removeFrom(byBrand, normalize(yarn.getBrand()), yarn);
+        removeFrom(byWeight, normalize(yarn.getWeight().getName()), yarn);
+    }
+
+    /**
+     * Drops all indexes and indexes the given yarns again
+     * @param yarns: all yarns of the inventory
+     */
+    void rebuild(Collection<Yarn> yarns) {
+        byColor.clear();
+        byBrand.clear();
+        byWeight.clear();
+        for (Yarn yarn : yarns) {
+            add(yarn);
+        }
+    }
+
+    /**
+     * Finds yarns of a colour
+     * @param color: the colour (case-insensitive)
+     * @return yarns of the colour, an empty set if there are none
+     */
+    Set<Yarn> byColor(String color) {
+        return lookup(byColor, color);
+    }
+
+    /**
+     * Finds yarns of a brand
+     * @param brand: the brand (case-insensitive)
+     * @return yarns of the brand, an empty set if there are none
+     */
+    Set<Yarn> byBrand(String brand) {
+        return lookup(byBrand, brand);
+    }
+
+    /**
+     * Finds yarns of a yarn weight
+     * @param weightName: name of the yarn weight (case-insensitive)
+     * @return yarns of the weight, an empty set if there are none
+     */
+    Set<Yarn> byWeight(String weightName) {
+        return lookup(byWeight, weightName);
+    }
+
+    private static Set<Yarn> lookup(Map<String, Set<Yarn>> index, String value) {
+        Set<Yarn> yarns = index.get(normalize(value));
+        return yarns == null ? Collections.emptySet() : Collections.unmodifiableSet(yarns);
+    }
+
+    private static void removeFrom(Map<String, Set<Yarn>> index, String key, Yarn yarn) {
+        Set<Yarn> yarns = index.get(key);
+        if (yarns != null && yarns.remove(yarn) && yarns.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Append-only log of inventory mutations (add, remove, change length, merge), one compact JSON object per line.
+ * Every operation is written and forced to the disk before the change is made, so a crash, even a power loss, loses
+ * nothing that was already confirmed to the user. If an entry cannot be written, the failure is passed on to the
+ * inventory, which turns journaling off and saves the whole file instead. The journal belongs to one version of the snapshot file: its first line records the size
+ * and modification time of the snapshot it extends, and a journal whose header does not match the snapshot on disk
+ * is stale (the snapshot was rewritten after it) and is not replayed.
+ */
+class InventoryJournal implements AutoCloseable {
+    private final Path journalPath;
+    private final Path snapshotPath;
+    private FileChannel channel;
+    private BufferedWriter writer;
+    private int entryCount;
+
+    private InventoryJournal(Path snapshotPath) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = pathFor(snapshotPath);
+    }
+
+    /**
+     * Returns the path of the journal that belongs to a snapshot file
+     * @param snapshotPath: path to the inventory snapshot
+     * @return path to the journal next to the snapshot
+     */
+    static Path pathFor(Path snapshotPath) {
+        return snapshotPath.resolveSibling(snapshotPath.getFileName() + ".journal");
+    }
+
+    /**
+     * Outcome of replaying a journal
+     * @param entries: number of operations that were applied
+     * @param damaged: true if the replay stopped at an entry that could not be read or applied
+     */
+    record Replay(int entries, boolean damaged) {
+    }
+
+    /**
+     * Replays a journal on top of an inventory that has just been loaded from its snapshot.
+     * Stale journals are ignored, and a torn last line left by a crash ends the replay.
+     * @param snapshotPath: path to the inventory snapshot
+     * @param target: inventory the operations are applied to (it must not have a journal attached yet)
+     * @return the number of replayed operations and whether the journal was damaged
+     */
+    static Replay replay(Path snapshotPath, YarnInventory target) {
+        Path journalPath = pathFor(snapshotPath);
+        if (!Files.exists(journalPath)) {
+            return new Replay(0, false);
+        }
+
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalPath)) {
+            String header = reader.readLine();
+            if (header == null || !header.equals(headerFor(snapshotPath))) {
+                return new Replay(0, false);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    apply(line, target);
+                    replayed++;
+                } catch (IOException | IllegalStateException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                    System.out.println("Stopped replaying the inventory journal at a damaged entry: " + e.getMessage());
+                    return new Replay(replayed, true);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to read the inventory journal: " + e.getMessage());
+            return new Replay(replayed, true);
+        }
+        return new Replay(replayed, false);
+    }
+
+    /**
+     * Opens the journal of a snapshot for appending. A journal that was replayed completely is continued,
+     * otherwise a new one is started.
+     * @param snapshotPath: path to the inventory snapshot
+     * @param replay: the result of replaying the existing journal
+     * @return the opened journal
+     * @throws IOException if the journal cannot be opened
+     */
+    static InventoryJournal open(Path snapshotPath, Replay replay) throws IOException {
+        InventoryJournal journal = new InventoryJournal(snapshotPath);
+        if (replay.entries() > 0 && !replay.damaged()) {
+            journal.openWriter(StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            journal.entryCount = replay.entries();
+        } else {
+            journal.reset();
+        }
+        return journal;
+    }
+
+    /**
+     * Starts an empty journal for the current snapshot file. Called after the snapshot has been rewritten.
+     * @throws IOException if the journal cannot be written
+     */
+    void reset() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+        openWriter(StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        writer.write(headerFor(snapshotPath));
+        writer.newLine();
+        sync();
+        entryCount = 0;
+    }
+
+    private void openWriter(StandardOpenOption... options) throws IOException {
+        channel = FileChannel.open(journalPath, options);
+        writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the buffered text to the file and waits until it is on the disk
+     */
+    private void sync() throws IOException {
+        writer.flush();
+        channel.force(false);
+    }
+
+    /**
+     * Records an added yarn
+     * @param yarn: the added yarn
+     * @throws IOException if the entry cannot be written
+     */
+    void logAdd(Yarn yarn) throws IOException {
+        append(w -> {
+            w.name("yarn");
+            YarnJsonStream.writeYarn(w, yarn);
+        }, "add");
+    }
+
+    /**
+     * Records a removal
+     * @param id: id of the removed yarn
+     * @throws IOException if the entry cannot be written
+     */
+    void logRemove(long id) throws IOException {
+        append(w -> w.name("id").value(id), "remove");
+    }
+
+    /**
+     * Records a length change
+     * @param id: id of the changed yarn
+     * @param amount: amount the length was reduced by
+     * @throws IOException if the entry cannot be written
+     */
+    void logChangeLength(long id, int amount) throws IOException {
+        append(w -> {
+            w.name("id").value(id);
+            w.name("amount").value(amount);
+        }, "change");
+    }
+
+    /**
+     * Records a merge of duplicate yarns
+     * @throws IOException if the entry cannot be written
+     */
+    void logMerge() throws IOException {
+        append(w -> { }, "merge");
+    }
+
+    /**
+     * Records turning incremental merging on or off
+     * @param mergeOnAdd: the new setting
+     * @throws IOException if the entry cannot be written
+     */
+    void logMergeOnAdd(boolean mergeOnAdd) throws IOException {
+        append(w -> w.name("value").value(mergeOnAdd), "mergeOnAdd");
+    }
+
+    /**
+     * Returns the number of operations recorded since the last snapshot
+     * @return the number of journal entries
+     */
+    int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Closes the journal file
+     */
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close the inventory journal: " + e.getMessage());
+        }
+    }
+
+    private interface EntryBody {
+        void write(JsonWriter writer) throws IOException;
+    }
+
+    private void append(EntryBody body, String op) throws IOException {
+        StringWriter line = new StringWriter();
+        JsonWriter json = new JsonWriter(line);
+        json.beginObject();
+        json.name("op").value(op);
+        body.write(json);
+        json.endObject();
+        json.close();
+
+        writer.write(line.toString());
+        writer.newLine();
+        sync();
+        entryCount++;
+    }
+
+    private static void apply(String line, YarnInventory target) throws IOException {
+        String op = null;
+        Yarn yarn = null;
+        long id = 0;
+        int amount = 0;
+        boolean value = false;
+
+        try (JsonReader reader = new JsonReader(new StringReader(line))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "op" -> op = reader.nextString();
+                    case "yarn" -> yarn = YarnJsonStream.readYarn(reader);
+                    case "id" -> id = reader.nextLong();
+                    case "amount" -> amount = reader.nextInt();
+                    case "value" -> value = reader.nextBoolean();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        if (op == null) {
+            throw new IOException("missing operation");
+        }
+        switch (op) {
+            case "add" -> {
+                if (yarn == null) throw new IOException("missing yarn");
+                target.addItem(yarn);
+            }
+            case "remove" -> target.removeById(id);
+            case "change" -> target.changeLengthById(id, amount);
+            case "merge" -> target.mergeDuplicateYarns();
+            case "mergeOnAdd" -> target.setMergeOnAdd(value);
+            default -> throw new IOException("unknown operation " + op);
+        }
+    }
+
+    private static String headerFor(Path snapshotPath) throws IOException {
+        long size = -1;
+        long modified = -1;
+        String fileKey = "";
+        if (Files.exists(snapshotPath)) {
+            BasicFileAttributes attributes = Files.readAttributes(snapshotPath, BasicFileAttributes.class);
+            size = attributes.size();
+            modified = attributes.lastModifiedTime().toMillis();
+            // the snapshot is replaced by moving a new file over it, so the file key changes with every save
+            fileKey = String.valueOf(attributes.fileKey());
+        }
+
+        StringWriter header = new StringWriter();
+        try (JsonWriter json = new JsonWriter(header)) {
+            json.beginObject();
+            json.name("op").value("base");
+            json.name("size").value(size);
+            json.name("modified").value(modified);
+            json.name("file").value(fileKey);
+            json.endObject();
+        }
+        return header.toString();
+    }
+}
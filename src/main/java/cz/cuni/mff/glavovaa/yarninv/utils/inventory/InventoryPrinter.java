@@ -0,0 +1,86 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Writes yarns as lines of the form {@code id: yarn} into a writer. Every line is rendered into the same
+ * {@link StringBuilder} and copied into the writer through the same character array, so printing a yarn creates no
+ * temporary strings. The output is only flushed when {@link #flush()} is called, not after every line.
+ */
+public class InventoryPrinter implements Flushable {
+    /**
+     * Number of yarns shown on one page by default
+     */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(128);
+    private char[] chars = new char[128];
+
+    /**
+     * Creates a printer writing into the writer. The writer should be buffered.
+     * @param out: the writer
+     */
+    public InventoryPrinter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Creates a printer writing through a single buffered writer into the stream. Closing the printer is not
+     * needed, the stream stays open.
+     * @param stream: the stream, e.g. System.out
+     * @return the printer
+     */
+    public static InventoryPrinter to(PrintStream stream) {
+        return new InventoryPrinter(new BufferedWriter(new OutputStreamWriter(stream, Charset.defaultCharset()), 1 << 16));
+    }
+
+    /**
+     * Writes a yarn with its id
+     * @param yarn: the yarn
+     * @throws IOException if writing fails
+     */
+    public void print(Yarn yarn) throws IOException {
+        line.setLength(0);
+        line.append(yarn.getId()).append(": ");
+        yarn.appendTo(line).append(System.lineSeparator());
+        writeLine();
+    }
+
+    /**
+     * Writes a line of text
+     * @param text: the text
+     * @throws IOException if writing fails
+     */
+    public void println(CharSequence text) throws IOException {
+        line.setLength(0);
+        line.append(text).append(System.lineSeparator());
+        writeLine();
+    }
+
+    private void writeLine() throws IOException {
+        int length = line.length();
+        if (length > chars.length) {
+            chars = new char[Math.max(length, 2 * chars.length)];
+        }
+        line.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+    }
+
+    /**
+     * Flushes the written yarns into the underlying writer
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+}
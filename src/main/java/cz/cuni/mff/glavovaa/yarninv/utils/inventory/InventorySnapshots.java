@@ -0,0 +1,139 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes inventory snapshot files in any {@link SnapshotFormat}. Reading detects the format from the
+ * content of the file, so binary and JSON snapshots can be loaded interchangeably. Also usable from the command line
+ * to convert a snapshot between formats:
+ * <pre>
+ * java cz.cuni.mff.glavovaa.yarninv.utils.inventory.InventorySnapshots input output pretty|compact|binary
+ * </pre>
+ */
+public class InventorySnapshots {
+    /**
+     * Default constructor.
+     */
+    public InventorySnapshots() {
+
+    }
+
+    /**
+     * Reads a snapshot of any format and passes every yarn to the consumer in file order
+     * @param file: path to the snapshot
+     * @param sink: receives the yarns
+     * @throws IOException if the file cannot be read or is not valid
+     */
+    public static void read(Path file, Consumer<Yarn> sink) throws IOException {
+        if (BinarySnapshot.isBinary(file)) {
+            BinarySnapshot.read(file, sink);
+            return;
+        }
+
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file))) {
+            YarnJsonStream.readYarns(reader, sink);
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Detects the format of an existing snapshot, so that it can be written back in the same format.
+     * A JSON snapshot is compact if its first yarn starts before any line break. A snapshot without yarns
+     * (e.g. {@code []}) cannot tell and counts as pretty, the default format.
+     * @param file: path to the snapshot
+     * @return the format of the snapshot
+     * @throws IOException if the file cannot be read
+     */
+    public static SnapshotFormat detectFormat(Path file) throws IOException {
+        if (BinarySnapshot.isBinary(file)) {
+            return SnapshotFormat.BINARY;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            for (byte b : in.readNBytes(64)) {
+                if (b == '\n') {
+                    return SnapshotFormat.PRETTY_JSON;
+                }
+                if (b == '{') {
+                    return SnapshotFormat.COMPACT_JSON;
+                }
+            }
+        }
+        return SnapshotFormat.PRETTY_JSON;
+    }
+
+    /**
+     * Writes a snapshot in the given format
+     * @param file: path to the snapshot
+     * @param yarns: the yarns to be written
+     * @param format: format of the snapshot
+     * @throws IOException if writing fails
+     */
+    public static void write(Path file, Collection<Yarn> yarns, SnapshotFormat format) throws IOException {
+        if (format == SnapshotFormat.BINARY) {
+            BinarySnapshot.write(file, yarns);
+            return;
+        }
+
+        try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(file))) {
+            if (format == SnapshotFormat.PRETTY_JSON) {
+                writer.setIndent("  ");
+            }
+            writer.setSerializeNulls(false);
+            YarnJsonStream.writeYarns(writer, yarns);
+        }
+    }
+
+    /**
+     * Converts a snapshot to another format
+     * @param input: the existing snapshot (of any format)
+     * @param output: path of the converted snapshot
+     * @param format: format of the converted snapshot
+     * @throws IOException if reading or writing fails
+     */
+    public static void convert(Path input, Path output, SnapshotFormat format) throws IOException {
+        List<Yarn> yarns = new ArrayList<>();
+        read(input, yarns::add);
+        write(output, yarns, format);
+    }
+
+    /**
+     * Command line converter between the snapshot formats
+     * @param args: input file, output file and the target format (pretty, compact or binary)
+     */
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.out.println("Usage: InventorySnapshots <input> <output> <pretty|compact|binary>");
+            return;
+        }
+
+        SnapshotFormat format;
+        switch (args[2]) {
+            case "pretty" -> format = SnapshotFormat.PRETTY_JSON;
+            case "compact" -> format = SnapshotFormat.COMPACT_JSON;
+            case "binary" -> format = SnapshotFormat.BINARY;
+            default -> {
+                System.out.println("Unknown format: " + args[2]);
+                return;
+            }
+        }
+
+        try {
+            convert(Path.of(args[0]), Path.of(args[1]), format);
+            System.out.println("Converted " + args[0] + " to " + args[1]);
+        } catch (IOException e) {
+            System.out.println("Failed to convert the inventory: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Running totals of the yarn inventory. Keeps the number of yarns and their total length for every yarn weight,
+ * brand and colour (names that differ only in case are one group), so stock levels are known without summing the
+ * inventory. Every change updates one entry per group key, so it takes constant time.
+ * The totals are kept in sync by {@link YarnInventory}.
+ */
+class InventoryTotals {
+    private final Map<YarnGroupKey, Map<String, GroupTotal>> totals = new EnumMap<>(YarnGroupKey.class);
+    private long totalMeters;
+
+    InventoryTotals() {
+        for (YarnGroupKey key : YarnGroupKey.values()) {
+            totals.put(key, new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds a yarn to the totals
+     * @param yarn: the added yarn
+     */
+    void add(Yarn yarn) {
+        update(yarn, 1, yarn.getLengthMeters());
+    }
+
+    /**
+     * Removes a yarn from the totals
+     * @param yarn: the removed yarn with its current length
+     */
+    void remove(Yarn yarn) {
+        update(yarn, -1, -yarn.getLengthMeters());
+    }
+
+    /**
+     * Changes the length of a yarn in the totals
+     * @param yarn: the changed yarn
+     * @param meters: the change of its length, negative if it got shorter
+     */
+    void addLength(Yarn yarn, int meters) {
+        update(yarn, 0, meters);
+    }
+
+    /**
+     * Drops all totals and sums the given yarns again
+     * @param yarns: all yarns of the inventory
+     */
+    void rebuild(Collection<Yarn> yarns) {
+        for (Map<String, GroupTotal> groups : totals.values()) {
+            groups.clear();
+        }
+        totalMeters = 0;
+        for (Yarn yarn : yarns) {
+            add(yarn);
+        }
+    }
+
+    private void update(Yarn yarn, int yarns, long meters) {
+        totalMeters += meters;
+        for (Map.Entry<YarnGroupKey, Map<String, GroupTotal>> entry : totals.entrySet()) {
+            String name = entry.getKey().of(yarn);
+            String key = InventoryIndex.normalize(name);
+            Map<String, GroupTotal> groups = entry.getValue();
+            GroupTotal total = groups.get(key);
+            if (total == null) {
+                total = new GroupTotal(name, 0, 0);
+                groups.put(key, total);
+            }
+            total.add(yarns, meters);
+            if (total.getYarnCount() <= 0) {
+                groups.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the total of one brand, colour or yarn weight
+     * @param groupKey: the property
+     * @param name: the brand, colour or weight name, in any case
+     * @return the total, or null if there is no yarn with the name
+     */
+    GroupTotal get(YarnGroupKey groupKey, String name) {
+        return totals.get(groupKey).get(InventoryIndex.normalize(name));
+    }
+
+    /**
+     * Returns copies of the totals of all brands, colours or yarn weights
+     * @param groupKey: the property
+     * @return the totals in no particular order
+     */
+    List<GroupTotal> all(YarnGroupKey groupKey) {
+        List<GroupTotal> copies = new ArrayList<>();
+        for (GroupTotal total : totals.get(groupKey).values()) {
+            copies.add(new GroupTotal(total.getName(), total.getYarnCount(), total.getTotalMeters()));
+        }
+        return copies;
+    }
+
+    /**
+     * Returns the total length of all yarns
+     * @return the length in meters
+     */
+    long getTotalMeters() {
+        return totalMeters;
+    }
+}
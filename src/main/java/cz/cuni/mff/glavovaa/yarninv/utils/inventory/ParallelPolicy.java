@@ -0,0 +1,101 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Decides when {@link YarnInventory} filters and sums the yarns in parallel. Below the threshold the work is done
+ * on the calling thread, because splitting a small inventory costs more than it saves. Above it the work runs in
+ * the policy's own fork-join pool, not the common pool, so that a long report does not take every core from the
+ * rest of the program. The calling thread waits for the result.
+ */
+public class ParallelPolicy {
+    /**
+     * Number of yarns from which the default policy works in parallel
+     */
+    public static final int DEFAULT_THRESHOLD = 100_000;
+
+    /**
+     * Policy that never works in parallel
+     */
+    public static final ParallelPolicy SEQUENTIAL = new ParallelPolicy(Integer.MAX_VALUE, null);
+
+    private static ParallelPolicy defaultPolicy;
+
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a policy
+     * @param threshold: number of yarns from which the work is done in parallel
+     * @param pool: pool the parallel work runs in, null to always work on the calling thread
+     */
+    public ParallelPolicy(int threshold, ForkJoinPool pool) {
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates a policy with a new pool
+     * @param threshold: number of yarns from which the work is done in parallel
+     * @param parallelism: number of threads of the pool, 1 or less to always work on the calling thread
+     * @return the policy
+     */
+    public static ParallelPolicy adaptive(int threshold, int parallelism) {
+        if (parallelism <= 1) {
+            return SEQUENTIAL;
+        }
+        return new ParallelPolicy(threshold, new ForkJoinPool(parallelism));
+    }
+
+    /**
+     * Returns the policy used by new inventories. Its pool leaves one core free for the interactive thread.
+     * The pool threads are daemon threads, so they do not keep the program running.
+     * @return the default policy
+     */
+    public static synchronized ParallelPolicy getDefault() {
+        if (defaultPolicy == null) {
+            defaultPolicy = adaptive(DEFAULT_THRESHOLD, Runtime.getRuntime().availableProcessors() - 1);
+        }
+        return defaultPolicy;
+    }
+
+    /**
+     * Returns the number of yarns from which the work is done in parallel
+     * @return the threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns the number of threads of the pool
+     * @return the parallelism, 1 if the policy never works in parallel
+     */
+    public int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * Tells if work over a number of yarns should be done in parallel
+     * @param size: the number of yarns
+     * @return true if the work should be run by {@link #run}
+     */
+    public boolean isParallel(int size) {
+        return pool != null && size >= threshold;
+    }
+
+    /**
+     * Runs a task in the pool and waits for its result. Parallel streams started by the task are split between
+     * the threads of the pool.
+     * @param task: the task
+     * @return the result of the task
+     */
+    public <T> T run(Supplier<T> task) {
+        if (pool == null || ForkJoinTask.getPool() == pool) {
+            return task.get();
+        }
+        return pool.submit(task::get).join();
+    }
+}
@@ -0,0 +1,50 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+/**
+ * Condition on one row of a {@link ColumnarYarnInventory}. The brand, colour and yarn weight are given as their
+ * dictionary codes, so the condition is evaluated on the columns without creating any yarn objects.
+ * Conditions are created by the inventory, e.g. {@link ColumnarYarnInventory#colourIs(String)}.
+ */
+@FunctionalInterface
+public interface RowPredicate {
+    /**
+     * Condition that matches every row
+     */
+    RowPredicate ALL = (brand, colour, weight, length) -> true;
+
+    /**
+     * Tests a row
+     * @param brand: dictionary code of the brand
+     * @param colour: dictionary code of the colour
+     * @param weight: dictionary code of the yarn weight
+     * @param length: length in meters
+     * @return true if the row matches
+     */
+    boolean test(int brand, int colour, int weight, int length);
+
+    /**
+     * Combines two conditions, both have to match
+     * @param other: the other condition
+     * @return the combined condition
+     */
+    default RowPredicate and(RowPredicate other) {
+        return (brand, colour, weight, length) -> test(brand, colour, weight, length) && other.test(brand, colour, weight, length);
+    }
+
+    /**
+     * Combines two conditions, at least one has to match
+     * @param other: the other condition
+     * @return the combined condition
+     */
+    default RowPredicate or(RowPredicate other) {
+        return (brand, colour, weight, length) -> test(brand, colour, weight, length) || other.test(brand, colour, weight, length);
+    }
+
+    /**
+     * Negates the condition
+     * @return the negated condition
+     */
+    default RowPredicate negate() {
+        return (brand, colour, weight, length) -> !test(brand, colour, weight, length);
+    }
+}
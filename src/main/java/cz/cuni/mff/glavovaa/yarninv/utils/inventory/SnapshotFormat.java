@@ -0,0 +1,19 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+/**
+ * Formats in which the inventory snapshot file can be written.
+ */
+public enum SnapshotFormat {
+    /**
+     * Indented JSON, easy to read and edit by hand (default)
+     */
+    PRETTY_JSON,
+    /**
+     * JSON without any whitespace, smaller and faster to write
+     */
+    COMPACT_JSON,
+    /**
+     * Binary format with a string dictionary and a table of yarn weights, fastest to load (see {@link BinarySnapshot})
+     */
+    BINARY
+}
@@ -0,0 +1,56 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.util.function.Function;
+
+/**
+ * Properties the yarns of an inventory can be grouped by when their lengths are summed
+ */
+public enum YarnGroupKey {
+    /**
+     * By brand
+     */
+    BRAND(Yarn::getBrand),
+    /**
+     * By colour
+     */
+    COLOUR(Yarn::getColor),
+    /**
+     * By yarn weight name
+     */
+    WEIGHT(yarn -> yarn.getWeight().getName());
+
+    private final Function<Yarn, String> property;
+
+    YarnGroupKey(Function<Yarn, String> property) {
+        this.property = property;
+    }
+
+    /**
+     * Returns the value of the property of a yarn
+     * @param yarn: the yarn
+     * @return the brand, colour or weight name of the yarn
+     */
+    public String of(Yarn yarn) {
+        return property.apply(yarn);
+    }
+
+    /**
+     * Finds the group key by its name (e.g. "brand"), ignoring case. "color" is accepted for the colour.
+     * @param name: name of the group key
+     * @return the group key
+     * @throws IllegalArgumentException if there is no group key with the name
+     */
+    public static YarnGroupKey parse(String name) {
+        for (YarnGroupKey key : values()) {
+            if (key.name().equalsIgnoreCase(name)) {
+                return key;
+            }
+        }
+        if (name.equalsIgnoreCase("color")) {
+            return COLOUR;
+        }
+        throw new IllegalArgumentException("Unknown group: " + name + " (use brand, colour or weight)");
+    }
+}
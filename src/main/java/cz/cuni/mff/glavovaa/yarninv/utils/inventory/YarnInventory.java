@@ -1,16 +1,29 @@
 package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.ToolSizeIndex;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnInterner;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
 
 import java.io.*;
-import java.lang.reflect.Type;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -18,18 +31,49 @@ import java.util.stream.Collectors;
  * Class representing the yarn inventory. Implements the Inventory interface and contains methods for
  * adding, removing and adjusting yarn.
  * Loads and saves the inventory to/from s JSON file.
+ * Every yarn gets an id when it is added. The id is saved with the yarn and never changes, and the yarns are stored in
+ * a map by id (in the order they were added), so removing or changing a yarn by id does not shift the other yarns.
+ * When journaling is turned on, every mutation is also appended to a journal next to the save file, so changes are
+ * durable as soon as they are made and the full file only needs to be rewritten when the journal grows too long.
+ * The inventory also keeps running totals of meters and skeins per yarn weight, brand and colour.
  */
-public class YarnInventory implements Inventory{
-    private ArrayList<Yarn> inventory;
+public class YarnInventory implements Inventory, AutoCloseable{
+    private final LinkedHashMap<Long, Yarn> inventory = new LinkedHashMap<>();
+    private long nextId = 1;
     private final Path FILE_PATH;
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private SnapshotFormat snapshotFormat = SnapshotFormat.PRETTY_JSON;
+    private final Map<YarnKey, Yarn> mergeIndex = new HashMap<>();
+    private final InventoryIndex index = new InventoryIndex();
+    private final InventoryTotals totals = new InventoryTotals();
+    private final YarnInterner interner = new YarnInterner();
+    private boolean mergeOnAdd = false;
+    private InventoryJournal journal;
+    private boolean journalFailed = false;
+    private boolean loadFailed = false;
+    private int compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private ParallelPolicy parallelPolicy = ParallelPolicy.getDefault();
 
     /**
-     * Constructor for initializing fields in yarn inventory
+     * Number of journal entries after which the journal is compacted into the save file by default
+     */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+
+    /**
+     * Constructor for initializing fields in yarn inventory. Journaling is turned off, the inventory is only
+     * written when saveInventory is called.
      * @param filePath: path to the save file of the inventory
      */
     public YarnInventory(Path filePath){
-        inventory = new ArrayList<>();
+        this(filePath, false);
+    }
+
+    /**
+     * Constructor for initializing fields in yarn inventory. Loads the save file and replays the journal of changes
+     * made after it was written.
+     * @param filePath: path to the save file of the inventory
+     * @param journaled: true to record every change in the journal
+     */
+    public YarnInventory(Path filePath, boolean journaled){
         FILE_PATH = filePath;
 
         // creates parent directories if they do not exist yet
@@ -38,31 +82,213 @@ public class YarnInventory implements Inventory{
         } catch (IOException e) {
             System.out.println("Error creating directory for inventory: " + e.getMessage());
         }
-        inventory = loadInventory();
+        ArrayList<Yarn> loaded = loadInventory();
+        for (Yarn yarn : loaded) {
+            nextId = Math.max(nextId, yarn.getId() + 1);
+        }
+        Set<Long> usedIds = new HashSet<>();
+        for (Yarn yarn : loaded) {
+            // files written before yarns had ids (or edited by hand) get new ids
+            if (yarn.getId() <= 0 || !usedIds.add(yarn.getId())) {
+                yarn.setId(nextId++);
+            }
+        }
+        // the map has to be in the order of the ids, also for files edited by hand
+        loaded.sort(Comparator.comparingLong(Yarn::getId));
+        for (Yarn yarn : loaded) {
+            inventory.put(yarn.getId(), yarn);
+        }
+        index.rebuild(inventory.values());
+        totals.rebuild(inventory.values());
+
+        if (loadFailed) {
+            // the journal extends a file that could not be read, so it is neither replayed nor continued
+            return;
+        }
+        InventoryJournal.Replay replay = InventoryJournal.replay(FILE_PATH, this);
+        if (journaled) {
+            try {
+                // a damaged journal cannot be continued, so the replayed changes are saved before starting a new one
+                if (replay.damaged() && replay.entries() > 0) {
+                    writeSnapshot();
+                }
+                journal = InventoryJournal.open(FILE_PATH, replay);
+                if (journal.getEntryCount() == 0) {
+                    relogSettings();
+                }
+            } catch (IOException e) {
+                System.out.println("Failed to open the inventory journal: " + e.getMessage());
+            }
+        }
     }
 
     /**
-     * Method for serializing the inventory into a JSON file using GSON.
+     * Method for serializing the inventory into a file. Yarns are streamed to the file one by one, as pretty or
+     * compact JSON or in the binary format depending on the snapshot format. The file is replaced atomically and the journal
+     * is emptied afterwards. Nothing is written if the file could not be loaded, so it is never replaced by a partial
+     * inventory.
      */
     public void saveInventory() {
-        try (Writer writer = Files.newBufferedWriter(FILE_PATH)) {
-            gson.toJson(this.inventory, writer);
+        if (loadFailed) {
+            System.out.println("The inventory was not saved, because its file could not be loaded and would be overwritten: " + FILE_PATH);
+            return;
+        }
+        try {
+            writeSnapshot();
+            if (journal != null) {
+                journal.reset();
+                relogSettings();
+            }
             //System.out.println("Inventory saved to " + FILE_PATH);
         } catch (IOException e) {
             System.out.println("Failed to save the inventory to a JSON file" + e.getMessage());
         }
     }
 
+    private void writeSnapshot() throws IOException {
+        Path tempFile = FILE_PATH.resolveSibling(FILE_PATH.getFileName() + ".tmp");
+        InventorySnapshots.write(tempFile, inventory.values(), snapshotFormat);
+
+        try {
+            Files.move(tempFile, FILE_PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, FILE_PATH, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Closes the inventory. With journaling all changes are already on disk, so only the journal is closed;
+     * without it the inventory is saved.
+     */
+    @Override
+    public void close() {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        } else {
+            saveInventory();
+        }
+    }
+
+    /**
+     * Checks whether changes are recorded in the journal
+     * @return true if journaling is turned on
+     */
+    public boolean isJournaled() {
+        return journal != null;
+    }
+
+    /**
+     * Sets after how many journal entries the journal is compacted into the save file
+     * @param compactionThreshold: maximum number of journal entries
+     */
+    public void setCompactionThreshold(int compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    private void compactIfNeeded() {
+        // after a failed journal write the change is only in memory, so the whole file is saved
+        if (journalFailed || (journal != null && journal.getEntryCount() >= compactionThreshold)) {
+            journalFailed = false;
+            saveInventory();
+        }
+    }
+
+    /**
+     * Records the settings in a fresh journal, because the snapshot only contains the yarns
+     */
+    private void relogSettings() {
+        if (mergeOnAdd) {
+            record(j -> j.logMergeOnAdd(true));
+        }
+    }
+
+    private interface JournalEntry {
+        void write(InventoryJournal journal) throws IOException;
+    }
+
+    /**
+     * Records a change in the journal before it is made. If the journal cannot be written, journaling is turned
+     * off and the inventory is saved in full after the change and when it is closed.
+     */
+    private void record(JournalEntry entry) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            entry.write(journal);
+        } catch (IOException e) {
+            System.out.println("Failed to write to the inventory journal, journaling is turned off and the inventory"
+                    + " will be saved in full instead: " + e.getMessage());
+            journal.close();
+            journal = null;
+            journalFailed = true;
+        }
+    }
+
+    /**
+     * Returns a report of how much memory is saved by sharing yarn weights, brands and colours among the yarns
+     * @return the memory report
+     */
+    public String getMemoryReport() {
+        return interner.report();
+    }
+
+    /**
+     * Sets the format used by saveInventory
+     * @param snapshotFormat: pretty JSON, compact JSON or binary
+     */
+    public void setSnapshotFormat(SnapshotFormat snapshotFormat) {
+        this.snapshotFormat = snapshotFormat;
+    }
+
     /**
-     * Method for testing purposes
+     * Returns the format used by saveInventory
+     * @return the snapshot format
+     */
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+
+    /**
+     * Returns the yarns in the order they were added. The list is a copy, changing it does not change the inventory.
      * @return the inventory
      */
     public List<Yarn> getInventory(){
-        return inventory;
+        return new ArrayList<>(inventory.values());
+    }
+
+    /**
+     * Returns the number of yarns in the inventory
+     * @return the number of yarns
+     */
+    public int size(){
+        return inventory.size();
+    }
+
+    /**
+     * Returns the yarn with the id
+     * @param id: id of the yarn
+     * @return the yarn or null if there is no yarn with the id
+     */
+    public Yarn getById(long id){
+        return inventory.get(id);
+    }
+
+    /**
+     * Checks whether there is a yarn with the id
+     * @param id: id of the yarn
+     * @return true if the yarn exists
+     */
+    public boolean containsId(long id){
+        return inventory.containsKey(id);
     }
 
     /**
-     * Method for loading inventory from a JSON file using GSON.
+     * Method for loading inventory from a JSON or binary file (the format is detected automatically and later saves
+     * use the same format).
+     * The file is streamed and every yarn is added to the returned list as soon as it is parsed,
+     * without building an intermediate list. Yarn weights, brands and colours are shared among the loaded yarns.
      * @return the list of yarns in the inventory
      */
     public ArrayList<Yarn> loadInventory() {
@@ -71,97 +297,618 @@ public class YarnInventory implements Inventory{
             return new ArrayList<>();
         }
 
-        try (Reader reader = Files.newBufferedReader(FILE_PATH)) {
+        ArrayList<Yarn> yarnList = new ArrayList<>();
+        try {
             System.out.println("Loading inventory...");
-            Type listType = new TypeToken<List<Yarn>>() {}.getType();
-            List<Yarn> yarnList = gson.fromJson(reader, listType);
-            return (yarnList != null) ? new ArrayList<>(yarnList) : new ArrayList<>();
+            InventorySnapshots.read(FILE_PATH, yarn -> yarnList.add(interner.intern(yarn)));
+            snapshotFormat = InventorySnapshots.detectFormat(FILE_PATH);  // saves keep the format of the file
+            return yarnList;
         } catch (IOException e) {
-            System.out.println("Failed to load the inventory from a JSON file: " + e.getMessage());
+            loadFailed = true;
+            System.out.println("Failed to load the inventory from a file: " + e.getMessage());
+            System.out.println("Changes will not be saved until the file is fixed, so it is not overwritten.");
             return new ArrayList<>();
         }
     }
 
     /**
-     * Method for adding yarn
+     * Checks whether the save file could not be loaded. Such an inventory starts empty and is never saved.
+     * @return true if loading the save file failed
+     */
+    public boolean hasLoadFailed() {
+        return loadFailed;
+    }
+
+    /**
+     * Method for adding yarn. The yarn gets the next free id, unless it already has an id at least as large
+     * (e.g. when the journal is replayed). Smaller ids are replaced, so the yarns stay in the order of their ids.
      * @param y: yarn to be added
+     * @throws IllegalArgumentException if the yarn has no brand, colour or weight
      */
     public <Yarn> void addItem(Yarn y){
-        inventory.add((cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn) y);
+        cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn yarn = (cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn) y;
+        // checked before the yarn is journaled, so a yarn that cannot be stored is never recorded
+        if (yarn.getBrand() == null || yarn.getColor() == null || yarn.getWeight() == null){
+            throw new IllegalArgumentException("A yarn needs a brand, a colour and a weight");
+        }
+        if (inventory.get(yarn.getId()) == yarn){
+            // the same object is added again, it is stored as a separate yarn
+            yarn = new cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn(yarn.getBrand(), yarn.getColor(), yarn.getLengthMeters(), yarn.getWeight());
+        }
+        if (yarn.getId() < nextId){
+            yarn.setId(nextId++);
+        } else {
+            nextId = yarn.getId() + 1;
+        }
+        var added = yarn;
+        record(j -> j.logAdd(added));
+        addInternal(yarn);
+        compactIfNeeded();
+    }
+
+    private void addInternal(Yarn yarn){
+        interner.intern(yarn);
+        if (mergeOnAdd){
+            // Adds the length to an already stored duplicate instead of storing a new entry
+            cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn existing = mergeIndex.get(yarn.getKey());
+            if (existing != null){
+                existing.changeLength(-yarn.getLengthMeters());
+                totals.addLength(existing, yarn.getLengthMeters());
+                return;
+            }
+            mergeIndex.put(yarn.getKey(), yarn);
+        }
+        inventory.put(yarn.getId(), yarn);
+        index.add(yarn);
+        totals.add(yarn);
+    }
+
+    /**
+     * Method for removing yarn by its id
+     * @param id: the id of yarn to be removed
+     * @throws IllegalArgumentException if there is no yarn with the id
+     */
+    public void removeById(long id){
+        Yarn yarn = require(id);
+        record(j -> j.logRemove(id));
+        removeInternal(yarn);
+        compactIfNeeded();
     }
 
     /**
-     * Method for removing yarn at an index within the list of yarns
+     * Method for removing yarn at an index within the list of yarns (in the order they were added).
+     * Finding the position takes linear time, removeById should be used where the id is known.
      * @param index: the index of yarn to be removed
      */
     public void removeAt(int index){
-        inventory.remove(index);
+        removeById(idAt(index));
+    }
+
+    private void removeInternal(Yarn removed){
+        inventory.remove(removed.getId());
+        this.index.remove(removed);
+        totals.remove(removed);
+        if (mergeOnAdd){
+            mergeIndex.remove(removed.getKey(), removed);
+        }
     }
 
     /**
-     * Method for decreasing length of yarn. Useful if the user only used e.g. half of the yarn in a project
-     * @param index: index of yarn to be modified
-     * @param amount:
+     * Method for decreasing length of yarn. Useful if the user only used e.g. half of the yarn in a project.
+     * The yarn is removed when no length is left.
+     * @param id: id of yarn to be modified
+     * @param amount: amount of yarn to be decreased
+     * @throws IllegalArgumentException if there is no yarn with the id
      */
-    public void changeLength(int index, int amount){
-        Yarn y = inventory.get(index);
+    public void changeLengthById(long id, int amount){
+        Yarn y = require(id);
+        record(j -> j.logChangeLength(id, amount));
         y.changeLength(amount);
+        totals.addLength(y, -amount);
         if (y.getLengthMeters() <= 0){
-            inventory.remove(index);
+            removeInternal(y);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Method for decreasing length of yarn at an index within the list of yarns (in the order they were added)
+     * @param index: index of yarn to be modified
+     * @param amount: amount of yarn to be decreased
+     */
+    public void changeLength(int index, int amount){
+        changeLengthById(idAt(index), amount);
+    }
+
+    private Yarn require(long id){
+        Yarn yarn = inventory.get(id);
+        if (yarn == null){
+            throw new IllegalArgumentException("No yarn with id " + id);
+        }
+        return yarn;
+    }
+
+    private long idAt(int index){
+        Objects.checkIndex(index, inventory.size());
+        Iterator<Yarn> yarns = inventory.values().iterator();
+        for (int i = 0; i < index; i++){
+            yarns.next();
         }
+        return yarns.next().getId();
     }
 
     /**
-     * Prints the inventory items with a distinct index
+     * Prints the inventory items with their ids
      */
     public void printInventory(){
-        int index = 1;
-        for (Yarn yarn : inventory){
-            System.out.println(index + ": " + yarn);
-            index++;
+        printInventory(YarnSortKey.ID, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Prints one page of the inventory items with their ids. The page is written through a single buffered writer
+     * and flushed once.
+     * @param sortKey: order of the yarns
+     * @param offset: number of yarns skipped before the page
+     * @param pageSize: maximum number of yarns on the page
+     * @return the number of printed yarns
+     */
+    public int printInventory(YarnSortKey sortKey, int offset, int pageSize){
+        InventoryPrinter printer = InventoryPrinter.to(System.out);
+        try {
+            int printed = printInventory(printer, sortKey, offset, pageSize);
+            printer.flush();
+            return printed;
+        } catch (IOException e) {
+            System.out.println("Failed to print the inventory: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Writes one page of the inventory items with their ids
+     * @param printer: where the yarns are written
+     * @param sortKey: order of the yarns
+     * @param offset: number of yarns skipped before the page
+     * @param pageSize: maximum number of yarns on the page
+     * @return the number of written yarns
+     * @throws IOException if writing fails
+     */
+    public int printInventory(InventoryPrinter printer, YarnSortKey sortKey, int offset, int pageSize) throws IOException {
+        List<Yarn> page = getPage(sortKey, offset, pageSize);
+        for (Yarn yarn : page){
+            printer.print(yarn);
+        }
+        return page.size();
+    }
+
+    /**
+     * Writes all inventory items with their ids into a text file
+     * @param file: path to the file
+     * @param sortKey: order of the yarns
+     * @throws IOException if writing fails
+     */
+    public void exportInventory(Path file, YarnSortKey sortKey) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            InventoryPrinter printer = new InventoryPrinter(writer);
+            printInventory(printer, sortKey, 0, Integer.MAX_VALUE);
+            printer.flush();
         }
     }
 
     /**
-     * Filters yarn based on a condition
+     * Returns one page of the yarns in the given order. In the order of ids the skipped yarns are only passed over,
+     * other orders sort a copy of the inventory.
+     * @param sortKey: order of the yarns
+     * @param offset: number of yarns skipped before the page
+     * @param pageSize: maximum number of yarns on the page
+     * @return the yarns on the page
+     */
+    public List<Yarn> getPage(YarnSortKey sortKey, int offset, int pageSize){
+        if (offset < 0 || pageSize < 0){
+            throw new IllegalArgumentException("The offset and the page size cannot be negative");
+        }
+        int end = (int) Math.min(inventory.size(), (long) offset + pageSize);
+        if (offset >= end){
+            return new ArrayList<>();
+        }
+        List<Yarn> page = new ArrayList<>(end - offset);
+        if (sortKey == YarnSortKey.ID){
+            // the map keeps the yarns in the order they were added, which is the order of their ids
+            Iterator<Yarn> yarns = inventory.values().iterator();
+            for (int i = 0; i < end; i++){
+                Yarn yarn = yarns.next();
+                if (i >= offset){
+                    page.add(yarn);
+                }
+            }
+            return page;
+        }
+        if ((long) end * 4 < inventory.size()){
+            // the first pages only need the smallest yarns, not the whole inventory sorted
+            page.addAll(smallest(inventory.values(), sortKey.comparator(), end).subList(offset, end));
+            return page;
+        }
+        Yarn[] sorted = inventory.values().toArray(new Yarn[0]);
+        Arrays.sort(sorted, sortKey.comparator());
+        page.addAll(Arrays.asList(sorted).subList(offset, end));
+        return page;
+    }
+
+    /**
+     * Returns the yarns matching a query, sorted
+     * @param query: colour, brand and/or yarn weight to look for
+     * @param sortKey: order of the yarns
+     * @param descending: true to sort from the greatest to the smallest
+     * @return the sorted yarns
+     */
+    public List<Yarn> sorted(YarnQuery query, YarnSortKey sortKey, boolean descending){
+        List<Yarn> result = find(query);
+        result.sort(order(sortKey, descending));
+        return result;
+    }
+
+    /**
+     * Returns the first yarns matching a query in the given order, e.g. the 20 longest skeins of Medium weight.
+     * Only the requested number of yarns is kept in a bounded heap while the matching yarns are scanned, so the
+     * matching yarns are never sorted as a whole.
+     * @param query: colour, brand and/or yarn weight to look for
+     * @param sortKey: order of the yarns
+     * @param descending: true to return the greatest yarns (e.g. the longest ones)
+     * @param limit: maximum number of returned yarns
+     * @return at most limit yarns, sorted
+     */
+    public List<Yarn> top(YarnQuery query, YarnSortKey sortKey, boolean descending, int limit){
+        return smallest(candidates(query), order(sortKey, descending), limit);
+    }
+
+    /**
+     * Returns the number of yarns and their total length by brand, colour or yarn weight. Names that differ only
+     * in case are one group. The totals are kept up to date on every change, the inventory is not summed again.
+     * @param groupKey: the property the yarns are grouped by
+     * @return the totals, from the most meters to the fewest
+     */
+    public List<GroupTotal> totalLengthBy(YarnGroupKey groupKey){
+        List<GroupTotal> totals = new ArrayList<>(groupTotals(groupKey));
+        totals.sort(GroupTotal.MOST_METERS_FIRST);
+        return totals;
+    }
+
+    /**
+     * Returns the brands, colours or yarn weights with the most meters of yarn, e.g. the 5 colours with the most
+     * total meters. Only the requested number of groups is kept in a bounded heap.
+     * @param groupKey: the property the yarns are grouped by
+     * @param limit: maximum number of returned groups
+     * @return at most limit totals, from the most meters to the fewest
+     */
+    public List<GroupTotal> topTotals(YarnGroupKey groupKey, int limit){
+        return smallest(groupTotals(groupKey), GroupTotal.MOST_METERS_FIRST, limit);
+    }
+
+    private Collection<GroupTotal> groupTotals(YarnGroupKey groupKey){
+        return totals.all(groupKey);
+    }
+
+    /**
+     * Returns the number of yarns and their total length for one brand, colour or yarn weight, e.g. how many meters
+     * of Bulky yarn there are. The totals are kept up to date on every change, so this takes constant time.
+     * @param groupKey: the property
+     * @param name: the brand, colour or yarn weight name, in any case
+     * @return the total, with no yarns if there is no yarn with the name
+     */
+    public GroupTotal getTotal(YarnGroupKey groupKey, String name){
+        GroupTotal total = totals.get(groupKey, name);
+        if (total == null){
+            return new GroupTotal(name, 0, 0);
+        }
+        return new GroupTotal(total.getName(), total.getYarnCount(), total.getTotalMeters());
+    }
+
+    /**
+     * Returns the total length of all yarns in the inventory, in constant time
+     * @return the length in meters
+     */
+    public long getTotalMeters(){
+        return totals.getTotalMeters();
+    }
+
+    /**
+     * Prints the stock report: the total length of the inventory, the totals of every yarn weight and of the
+     * brands and colours with the most meters
+     * @param out: where the report is printed
+     * @param limit: maximum number of brands and colours printed
+     */
+    public void printStockReport(PrintStream out, int limit){
+        out.println("Total: " + getTotalMeters() + "m in " + size() + (size() == 1 ? " skein" : " skeins"));
+        printTotals(out, "By yarn weight:", totalLengthBy(YarnGroupKey.WEIGHT));
+        printTotals(out, "Top brands:", topTotals(YarnGroupKey.BRAND, limit));
+        printTotals(out, "Top colours:", topTotals(YarnGroupKey.COLOUR, limit));
+    }
+
+    private static void printTotals(PrintStream out, String title, List<GroupTotal> groupTotals){
+        if (groupTotals.isEmpty()){
+            return;
+        }
+        out.println(title);
+        for (GroupTotal total : groupTotals){
+            out.println("  " + total);
+        }
+    }
+
+    private Collection<Yarn> candidates(YarnQuery query){
+        if (query.getColor() == null && query.getBrand() == null && query.getWeightName() == null){
+            return inventory.values();
+        }
+        return find(query);
+    }
+
+    private static Comparator<Yarn> order(YarnSortKey sortKey, boolean descending){
+        return descending ? sortKey.comparator().reversed() : sortKey.comparator();
+    }
+
+    /**
+     * Selects the limit smallest items in the order with a bounded max-heap: the heap holds the smallest items seen
+     * so far and its greatest item is replaced whenever a smaller one is found
+     */
+    private static <T> List<T> smallest(Collection<T> items, Comparator<T> order, int limit){
+        if (limit < 0){
+            throw new IllegalArgumentException("The limit cannot be negative");
+        }
+        int size = Math.min(limit, items.size());
+        if (size == 0){
+            return new ArrayList<>();
+        }
+        PriorityQueue<T> heap = new PriorityQueue<>(size, order.reversed());
+        for (T item : items){
+            if (heap.size() < size){
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0){
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    /**
+     * Filters yarn based on a condition. When the inventory has at least as many yarns as the threshold of its
+     * {@link ParallelPolicy}, the yarns are split between the threads of the policy's pool. The order of the
+     * yarns is kept either way.
      * @param condition accepts a lambda expression which is a condition that it filters by
      * @return the list of filtered yarns
      */
     public List<Yarn> filter(Predicate<Yarn> condition) {
-        return inventory.stream()
+        if (parallelPolicy.isParallel(inventory.size())) {
+            List<Yarn> yarns = Arrays.asList(inventory.values().toArray(new Yarn[0]));
+            return parallelPolicy.run(() -> yarns.parallelStream()
+                    .filter(condition)
+                    .collect(Collectors.toList()));
+        }
+        return inventory.values().stream()
                 .filter(condition) // Apply the passed lambda function
                 .collect(Collectors.toList());
 
     }
 
     /**
-     * Method for merging yarns with the same name, brand and yarn weight. Traverses the entire inventory and merges
-     * all possible yarns.
+     * Counts the yarns matching a condition. Large inventories are counted in parallel, see {@link #filter}.
+     * @param condition: the condition
+     * @return the number of matching yarns
      */
-    public void mergeDuplicateYarns() {
-        List<Yarn> mergedList = new ArrayList<>();
-
-        for (Yarn yarn : inventory) {
-            boolean merged = false;
+    public long count(Predicate<Yarn> condition) {
+        if (parallelPolicy.isParallel(inventory.size())) {
+            List<Yarn> yarns = Arrays.asList(inventory.values().toArray(new Yarn[0]));
+            return parallelPolicy.run(() -> yarns.parallelStream().filter(condition).count());
+        }
+        long count = 0;
+        for (Yarn yarn : inventory.values()) {
+            if (condition.test(yarn)) {
+                count++;
+            }
+        }
+        return count;
+    }
 
-            // Check if this yarn matches an existing one in mergedList
-            for (Yarn existingYarn : mergedList) {
-                if (existingYarn.compare(yarn)) {
-                    existingYarn.changeLength(-yarn.getLengthMeters());
-                    merged = true;
-                    break;
+    /**
+     * Returns the number of matching yarns and their total length by brand, colour or yarn weight, e.g. the meters
+     * of red yarn per yarn weight. Unlike {@link #totalLengthBy(YarnGroupKey)} the inventory is summed again, so
+     * large inventories are summed in parallel, see {@link #filter}.
+     * @param groupKey: the property the yarns are grouped by
+     * @param condition: the condition
+     * @return the totals, from the most meters to the fewest
+     */
+    public List<GroupTotal> totalLengthBy(YarnGroupKey groupKey, Predicate<Yarn> condition) {
+        Map<String, GroupTotal> groups;
+        if (parallelPolicy.isParallel(inventory.size())) {
+            List<Yarn> yarns = Arrays.asList(inventory.values().toArray(new Yarn[0]));
+            groups = parallelPolicy.run(() -> yarns.parallelStream()
+                    .filter(condition)
+                    .collect(HashMap::new, (map, yarn) -> addTo(map, groupKey.of(yarn), 1, yarn.getLengthMeters()),
+                            (map, other) -> other.values().forEach(total ->
+                                    addTo(map, total.getName(), total.getYarnCount(), total.getTotalMeters()))));
+        } else {
+            groups = new HashMap<>();
+            for (Yarn yarn : inventory.values()) {
+                if (condition.test(yarn)) {
+                    addTo(groups, groupKey.of(yarn), 1, yarn.getLengthMeters());
                 }
             }
+        }
+        List<GroupTotal> result = new ArrayList<>(groups.values());
+        result.sort(GroupTotal.MOST_METERS_FIRST);
+        return result;
+    }
+
+    private static void addTo(Map<String, GroupTotal> groups, String name, int yarns, long meters) {
+        groups.computeIfAbsent(InventoryIndex.normalize(name), key -> new GroupTotal(name, 0, 0)).add(yarns, meters);
+    }
+
+    /**
+     * Sets when filter, count and the filtered totals work in parallel. The conditions passed to them must then be
+     * safe to call from several threads.
+     * @param parallelPolicy: the policy, {@link ParallelPolicy#SEQUENTIAL} to always work on the calling thread
+     */
+    public void setParallelPolicy(ParallelPolicy parallelPolicy) {
+        this.parallelPolicy = parallelPolicy;
+    }
+
+    /**
+     * Returns when filter, count and the filtered totals work in parallel
+     * @return the policy
+     */
+    public ParallelPolicy getParallelPolicy() {
+        return parallelPolicy;
+    }
+
+    /**
+     * Finds yarns matching a typed query using the colour, brand and yarn weight indexes. Only the smallest
+     * matching index bucket is checked against the remaining conditions, so the whole inventory is not scanned.
+     * @param query: colour, brand and/or yarn weight to look for
+     * @return the list of matching yarns
+     */
+    public List<Yarn> find(YarnQuery query) {
+        Collection<Yarn> candidates = inventory.values();
+        if (query.getColor() != null) {
+            candidates = smaller(candidates, index.byColor(query.getColor()));
+        }
+        if (query.getBrand() != null) {
+            candidates = smaller(candidates, index.byBrand(query.getBrand()));
+        }
+        if (query.getWeightName() != null) {
+            candidates = smaller(candidates, index.byWeight(query.getWeightName()));
+        }
+
+        List<Yarn> result = new ArrayList<>(candidates.size());
+        for (Yarn yarn : candidates) {
+            if (matches(query.getColor(), yarn.getColor()) && matches(query.getBrand(), yarn.getBrand())
+                    && matches(query.getWeightName(), yarn.getWeight().getName())) {
+                result.add(yarn);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the yarns that can be worked with a needle or hook of a size, e.g. all yarn for 5 mm needles.
+     * The matching yarn weights are looked up in the {@link ToolSizeIndex} of the configured weights and only the
+     * yarns of those weights are read from the weight index, so the inventory is not scanned.
+     * @param tool: needle or hook
+     * @param sizeMetric: the size in millimetres
+     * @return the matching yarns, in the order they were added
+     */
+    public List<Yarn> findForTool(ToolSizeIndex.Tool tool, double sizeMetric) {
+        List<YarnWeight> weights = ToolSizeIndex.getDefault(tool).weightsFor(sizeMetric);
+        List<Yarn> result = new ArrayList<>();
+        for (YarnWeight weight : weights) {
+            result.addAll(index.byWeight(weight.getName()));
+        }
+        if (weights.size() > 1) {
+            result.sort(Comparator.comparingLong(Yarn::getId));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the yarns of one brand, colour or yarn weight straight from the index, without copying them.
+     * The returned set is read-only and changes with the inventory.
+     * @param groupKey: the indexed property
+     * @param name: the brand, colour or yarn weight name, in any case
+     * @return the yarns with the value, in the order they were added
+     */
+    public Set<Yarn> getIndexed(YarnGroupKey groupKey, String name) {
+        return switch (groupKey) {
+            case BRAND -> index.byBrand(name);
+            case COLOUR -> index.byColor(name);
+            case WEIGHT -> index.byWeight(name);
+        };
+    }
+
+    private static Collection<Yarn> smaller(Collection<Yarn> a, Collection<Yarn> b) {
+        return b.size() < a.size() ? b : a;
+    }
+
+    private static boolean matches(String wanted, String actual) {
+        return wanted == null || wanted.equalsIgnoreCase(actual);
+    }
+
+    /**
+     * Method for merging yarns with the same name, brand and yarn weight. Traverses the entire inventory once and
+     * merges all possible yarns, using the yarn key to find duplicates in a hash map. The merged yarn keeps the id
+     * of the first of its duplicates.
+     */
+    public void mergeDuplicateYarns() {
+        record(InventoryJournal::logMerge);
+        mergeInternal();
+        compactIfNeeded();
+    }
+
+    private void mergeInternal() {
+        Map<YarnKey, Yarn> merged = new LinkedHashMap<>();
+
+        for (Yarn yarn : inventory.values()) {
+            Yarn existingYarn = merged.get(yarn.getKey());
 
-            // Adds as a new entry if no matches were found
-            if (!merged) {
-                mergedList.add(new Yarn(yarn.getBrand(), yarn.getColor(), yarn.getLengthMeters(), yarn.getWeight()));
+            if (existingYarn != null) {
+                existingYarn.changeLength(-yarn.getLengthMeters());
+            } else {
+                // Adds as a new entry if no matches were found
+                Yarn copy = new Yarn(yarn.getBrand(), yarn.getColor(), yarn.getLengthMeters(), yarn.getWeight());
+                copy.setId(yarn.getId());
+                merged.put(yarn.getKey(), copy);
             }
         }
 
-        // Replaces the inventory with the new mergedList
-        inventory = new ArrayList<>(mergedList);
+        // Replaces the inventory with the merged yarns
+        inventory.clear();
+        for (Yarn yarn : merged.values()) {
+            inventory.put(yarn.getId(), yarn);
+        }
+        index.rebuild(inventory.values());
+        totals.rebuild(inventory.values());
+        if (mergeOnAdd) {
+            mergeIndex.clear();
+            mergeIndex.putAll(merged);
+        }
+    }
+
+    /**
+     * Turns incremental merging on or off. When turned on, the inventory is merged once and every added yarn is
+     * then merged into its stored duplicate, so duplicates never accumulate.
+     * @param mergeOnAdd: true to merge yarns as they are added
+     */
+    public void setMergeOnAdd(boolean mergeOnAdd) {
+        if (mergeOnAdd != this.mergeOnAdd) {
+            record(j -> j.logMergeOnAdd(mergeOnAdd));
+        }
+        if (mergeOnAdd && !this.mergeOnAdd) {
+            this.mergeOnAdd = true;
+            mergeInternal();
+        } else if (!mergeOnAdd) {
+            this.mergeOnAdd = false;
+            mergeIndex.clear();
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Checks whether yarns are merged as they are added
+     * @return true if incremental merging is turned on
+     */
+    public boolean isMergeOnAdd() {
+        return mergeOnAdd;
+    }
 
-        System.out.println("Merged duplicate yarns successfully.");
+    /**
+     * Finds the stored yarn an added yarn ended up in. With merging on add, a duplicate is not stored itself,
+     * its length is added to the stored yarn with the same brand, colour and weight.
+     * @param added: the yarn passed to addItem
+     * @return the stored yarn, or null if it is not in the inventory
+     */
+    public Yarn getStored(Yarn added) {
+        if (inventory.get(added.getId()) == added) {
+            return added;
+        }
+        return mergeOnAdd ? mergeIndex.get(added.getKey()) : null;
     }
 }
@@ -0,0 +1,199 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes the inventory JSON format one yarn at a time using Gson's streaming API,
+ * so the whole inventory never has to be held in an intermediate list or tree.
+ * The format is the same array of yarns that Gson produces for {@code List<Yarn>}.
+ */
+public class YarnJsonStream {
+    /**
+     * Default constructor.
+     */
+    public YarnJsonStream() {
+
+    }
+
+    /**
+     * Reads a JSON array of yarns and passes every yarn to the consumer as soon as it is parsed.
+     * An empty input or a JSON null is read as an empty inventory.
+     * @param reader: reader positioned at the start of the array
+     * @param sink: receives the parsed yarns in file order
+     * @throws IOException if the input cannot be read or is not valid JSON
+     */
+    public static void readYarns(JsonReader reader, Consumer<Yarn> sink) throws IOException {
+        JsonToken first;
+        try {
+            first = reader.peek();
+        } catch (EOFException e) {
+            return; // empty document
+        }
+        if (first == JsonToken.NULL) {
+            reader.nextNull();
+            return;
+        }
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            sink.accept(readYarn(reader));
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Writes the yarns as a JSON array, one element at a time.
+     * @param writer: the JSON writer (its indentation decides between pretty and compact output)
+     * @param yarns: the yarns to be written
+     * @throws IOException if writing fails
+     */
+    public static void writeYarns(JsonWriter writer, Iterable<Yarn> yarns) throws IOException {
+        writer.beginArray();
+        for (Yarn yarn : yarns) {
+            writeYarn(writer, yarn);
+        }
+        writer.endArray();
+    }
+
+    /**
+     * Reads a single yarn object. Unknown fields are skipped.
+     * @param reader: reader positioned at the start of the yarn object
+     * @return the parsed yarn
+     * @throws IOException if the input cannot be read, is not valid JSON, or the yarn has no brand, colour, weight
+     * or whole-number length; the message names the position of the yarn
+     */
+    public static Yarn readYarn(JsonReader reader) throws IOException {
+        String position = reader.getPath();
+        String brand = null;
+        String color = null;
+        Integer length = null;
+        long id = 0;
+        YarnWeight weight = null;
+
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "brand" -> brand = nextStringOrNull(reader);
+                    case "color" -> color = nextStringOrNull(reader);
+                    case "lengthMeters" -> {
+                        try {
+                            length = reader.nextInt();
+                        } catch (NumberFormatException | IllegalStateException e) {
+                            throw new IOException("Invalid yarn at " + position + ": lengthMeters is not a whole number");
+                        }
+                    }
+                    case "weight" -> weight = readWeight(reader);
+                    case "id" -> id = reader.nextLong();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (NumberFormatException | IllegalStateException e) {
+            // a value of the wrong type, e.g. a text id or needle size
+            throw new IOException("Invalid yarn at " + position + ": " + e.getMessage());
+        }
+
+        if (brand == null || color == null || weight == null || length == null) {
+            String missing = brand == null ? "brand" : color == null ? "color" : weight == null ? "weight" : "lengthMeters";
+            throw new IOException("Invalid yarn at " + position + ": missing " + missing);
+        }
+        Yarn yarn = new Yarn(brand, color, length, weight);
+        yarn.setId(id);
+        return yarn;
+    }
+
+    /**
+     * Writes a single yarn object.
+     * @param writer: the JSON writer
+     * @param yarn: the yarn to be written
+     * @throws IOException if writing fails
+     */
+    public static void writeYarn(JsonWriter writer, Yarn yarn) throws IOException {
+        writer.beginObject();
+        if (yarn.getId() > 0) {
+            writer.name("id").value(yarn.getId());
+        }
+        writer.name("brand").value(yarn.getBrand());
+        writer.name("color").value(yarn.getColor());
+        writer.name("lengthMeters").value(yarn.getLengthMeters());
+        writer.name("weight");
+        writeWeight(writer, yarn.getWeight());
+        writer.endObject();
+    }
+
+    private static YarnWeight readWeight(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        String name = null;
+        double minNeedle = 0, maxNeedle = 0, minHook = 0, maxHook = 0;
+        List<String> categories = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> name = nextStringOrNull(reader);
+                case "minNeedleSizeMetric" -> minNeedle = reader.nextDouble();
+                case "maxNeedleSizeMetric" -> maxNeedle = reader.nextDouble();
+                case "minHookSizeMetric" -> minHook = reader.nextDouble();
+                case "maxHookSizeMetric" -> maxHook = reader.nextDouble();
+                case "categories" -> {
+                    categories = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        categories.add(reader.nextString());
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new YarnWeight(name, minNeedle, maxNeedle, minHook, maxHook, categories);
+    }
+
+    private static void writeWeight(JsonWriter writer, YarnWeight weight) throws IOException {
+        if (weight == null) {
+            writer.nullValue();
+            return;
+        }
+
+        writer.beginObject();
+        writer.name("name").value(weight.getName());
+        writer.name("minNeedleSizeMetric").value(weight.getMinNeedleSizeMetric());
+        writer.name("maxNeedleSizeMetric").value(weight.getMaxNeedleSizeMetric());
+        writer.name("minHookSizeMetric").value(weight.getMinHookSizeMetric());
+        writer.name("maxHookSizeMetric").value(weight.getMaxHookSizeMetric());
+        if (weight.getCategories() != null) {
+            writer.name("categories");
+            writer.beginArray();
+            for (String category : weight.getCategories()) {
+                writer.value(category);
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
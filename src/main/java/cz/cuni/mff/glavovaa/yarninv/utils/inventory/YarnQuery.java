@@ -0,0 +1,67 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+/**
+ * Typed query over the indexed properties of yarn (colour, brand and yarn weight name).
+ * All comparisons are case-insensitive; properties that are not set match any yarn.
+ * Used by {@link YarnInventory#find(YarnQuery)}.
+ */
+public class YarnQuery {
+    private String color;
+    private String brand;
+    private String weightName;
+
+    /**
+     * Default constructor. Creates a query that matches every yarn.
+     */
+    public YarnQuery() {
+
+    }
+
+    /**
+     * Restricts the query to a colour
+     * @param color: the colour
+     * @return this query
+     */
+    public YarnQuery color(String color) {
+        this.color = color;
+        return this;
+    }
+
+    /**
+     * Restricts the query to a brand
+     * @param brand: the brand
+     * @return this query
+     */
+    public YarnQuery brand(String brand) {
+        this.brand = brand;
+        return this;
+    }
+
+    /**
+     * Restricts the query to a yarn weight
+     * @param weightName: name of the yarn weight
+     * @return this query
+     */
+    public YarnQuery weight(String weightName) {
+        this.weightName = weightName;
+        return this;
+    }
+
+    /**
+     * Returns the colour the query is restricted to
+     * @return the colour or null if any colour matches
+     */
+    public String getColor() { return color; }
+
+    /**
+     * Returns the brand the query is restricted to
+     * @return the brand or null if any brand matches
+     */
+    public String getBrand() { return brand; }
+
+    /**
+     * Returns the yarn weight name the query is restricted to
+     * @return the weight name or null if any weight matches
+     */
+    public String getWeightName() { return weightName; }
+}
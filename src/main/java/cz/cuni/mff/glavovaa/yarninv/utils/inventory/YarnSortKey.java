@@ -0,0 +1,66 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+
+import java.util.Comparator;
+
+/**
+ * Orders in which the yarns of an inventory can be listed. Yarns that are equal in the sorted property are ordered
+ * by their id, so every order is total and pages never overlap.
+ */
+public enum YarnSortKey {
+    /**
+     * By id, i.e. in the order the yarns were added
+     */
+    ID(Comparator.comparingLong(Yarn::getId)),
+    /**
+     * By brand, ignoring case
+     */
+    BRAND(Comparator.comparing(Yarn::getBrand, String.CASE_INSENSITIVE_ORDER)),
+    /**
+     * By colour, ignoring case
+     */
+    COLOUR(Comparator.comparing(Yarn::getColor, String.CASE_INSENSITIVE_ORDER)),
+    /**
+     * By yarn weight from the thinnest to the thickest (by the smallest needle size)
+     */
+    WEIGHT(Comparator.comparing(Yarn::getWeight, Comparator.nullsLast(
+            Comparator.comparingDouble(YarnWeight::getMinNeedleSizeMetric).thenComparing(YarnWeight::getName)))),
+    /**
+     * By length from the shortest to the longest
+     */
+    LENGTH(Comparator.comparingInt(Yarn::getLengthMeters));
+
+    private final Comparator<Yarn> comparator;
+
+    YarnSortKey(Comparator<Yarn> comparator) {
+        this.comparator = comparator.thenComparingLong(Yarn::getId);
+    }
+
+    /**
+     * Returns the comparator of the order
+     * @return the comparator
+     */
+    public Comparator<Yarn> comparator() {
+        return comparator;
+    }
+
+    /**
+     * Finds the sort key by its name (e.g. "length"), ignoring case. "color" is accepted for the colour.
+     * @param name: name of the sort key
+     * @return the sort key
+     * @throws IllegalArgumentException if there is no sort key with the name
+     */
+    public static YarnSortKey parse(String name) {
+        for (YarnSortKey key : values()) {
+            if (key.name().equalsIgnoreCase(name)) {
+                return key;
+            }
+        }
+        if (name.equalsIgnoreCase("color")) {
+            return COLOUR;
+        }
+        throw new IllegalArgumentException("Unknown sort key: " + name + " (use id, brand, colour, weight or length)");
+    }
+}
@@ -7,6 +7,13 @@
  * <ul>
  *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory} - Handles inventory operations</li>
  *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.Inventory} - Interface defining inventory methods</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnQuery} - Typed query answered by the inventory indexes</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.InventoryGenerator} - Generates large synthetic inventories for load testing</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.InventoryPrinter} - Writes yarns through one buffered writer, page by page</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnSortKey} - Orders in which the yarns can be listed</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.GroupTotal} - Number of yarns and meters per brand, colour or yarn weight</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.ColumnarYarnInventory} - Inventory stored in primitive columns with dictionary-encoded values</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.inventory.ParallelPolicy} - Decides when large inventories are filtered and summed in parallel</li>
  * </ul>
  *
  */
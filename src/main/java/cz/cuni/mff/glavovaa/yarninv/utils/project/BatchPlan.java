@@ -0,0 +1,126 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Result of planning many projects at once with {@link BatchPlanner}. Contains one entry per requested project,
+ * in the order of the requests.
+ */
+public class BatchPlan {
+    private final List<Entry> entries;
+
+    /**
+     * Constructor of a batch plan.
+     * @param entries: planned projects in the order of the requests
+     */
+    public BatchPlan(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns all planned projects
+     * @return the entries in the order of the requests
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the number of projects that have enough yarn
+     * @return the number of fulfilled projects
+     */
+    public int getFulfilledCount() {
+        int count = 0;
+        for (Entry entry : entries) {
+            if (entry.isFulfilled()) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Prints which projects can be made and with which yarns
+     * @param out: where to print the report
+     */
+    public void print(PrintStream out) {
+        for (Entry entry : entries) {
+            if (entry.isFulfilled()) {
+                YarnSelection selection = entry.getSelection();
+                out.println("[OK] " + entry.getRequest() + ": " + entry.getRequiredLength() + " m needed, "
+                        + selection.getSkeinCount() + " skeins, " + selection.getWaste() + " m left over");
+                for (Yarn yarn : selection.getYarns()) {
+                    out.println("    - " + yarn.getBrand() + " (" + yarn.getColor() + ", " + yarn.getLengthMeters() + "m)");
+                }
+            } else {
+                out.println("[--] " + entry.getRequest() + ": " + entry.getReason());
+            }
+        }
+        out.println(getFulfilledCount() + " of " + entries.size() + " projects can be made.");
+    }
+
+    /**
+     * One planned project: the request, the required length and the allocated yarns (or why it cannot be made)
+     */
+    public static class Entry {
+        private final ProjectRequest request;
+        private final int requiredLength;
+        private final YarnSelection selection;
+        private final String reason;
+
+        /**
+         * Constructor of a planned project.
+         * @param request: the requested project
+         * @param requiredLength: length needed for the project
+         * @param selection: allocated yarns, or null if the project cannot be made
+         * @param reason: why the project cannot be made, or null if it can
+         */
+        public Entry(ProjectRequest request, int requiredLength, YarnSelection selection, String reason) {
+            this.request = request;
+            this.requiredLength = requiredLength;
+            this.selection = selection;
+            this.reason = reason;
+        }
+
+        /**
+         * Returns the requested project
+         * @return the request
+         */
+        public ProjectRequest getRequest() {
+            return request;
+        }
+
+        /**
+         * Returns the length needed for the project
+         * @return the length in meters
+         */
+        public int getRequiredLength() {
+            return requiredLength;
+        }
+
+        /**
+         * Returns the yarns allocated to the project
+         * @return the selection or null if the project cannot be made
+         */
+        public YarnSelection getSelection() {
+            return selection;
+        }
+
+        /**
+         * Returns why the project cannot be made
+         * @return the reason or null if the project can be made
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Checks whether the project has enough yarn
+         * @return true if yarns were allocated
+         */
+        public boolean isFulfilled() {
+            return selection != null;
+        }
+    }
+}
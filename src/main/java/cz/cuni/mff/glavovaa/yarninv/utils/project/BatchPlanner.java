@@ -0,0 +1,159 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import com.google.gson.stream.JsonReader;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightResolver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plans many projects against one inventory at once. Every skein is allocated to at most one project, so the
+ * plan never counts the same yarn twice. Projects are planned in the order of the requests (earlier requests have
+ * priority), each with the yarns of its own weight that are still free, using {@link YarnSelectionSolver}.
+ *
+ * <p>Projects of different yarn weights never compete for the same skeins, so each weight is planned
+ * independently. When there are many requests the weights are planned in parallel on all cores.</p>
+ */
+public class BatchPlanner {
+    /**
+     * Number of requests from which the yarn weights are planned in parallel
+     */
+    public static final int PARALLEL_THRESHOLD = 64;
+
+    private final YarnRequirements requirements;
+    private final YarnSelectionSolver solver;
+
+    /**
+     * Creates a planner using the cached yarn requirements and a solver minimising waste
+     */
+    public BatchPlanner() {
+        this(YarnRequirements.current(), new YarnSelectionSolver());
+    }
+
+    /**
+     * Creates a planner
+     * @param requirements: lengths needed for the projects
+     * @param solver: solver choosing the yarns of each project
+     */
+    public BatchPlanner(YarnRequirements requirements, YarnSelectionSolver solver) {
+        this.requirements = requirements;
+        this.solver = solver;
+    }
+
+    /**
+     * Plans all requested projects. The yarns are only allocated in the plan, the inventory is not changed.
+     * @param requests: projects to be planned, in order of priority
+     * @param yarns: all yarns that can be used
+     * @return which projects can be made and with which yarns
+     */
+    public BatchPlan plan(List<ProjectRequest> requests, List<Yarn> yarns) {
+        // Groups the requests and the yarns by the name of their yarn weight
+        Map<String, List<Integer>> requestsByWeight = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            requestsByWeight.computeIfAbsent(weightName(requests.get(i).getWeightName()), k -> new ArrayList<>()).add(i);
+        }
+        Map<String, List<Yarn>> yarnsByWeight = new LinkedHashMap<>();
+        for (Yarn yarn : yarns) {
+            String weight = weightName(yarn.getWeight().getName());
+            if (requestsByWeight.containsKey(weight)) {
+                yarnsByWeight.computeIfAbsent(weight, k -> new ArrayList<>()).add(yarn);
+            }
+        }
+
+        BatchPlan.Entry[] entries = new BatchPlan.Entry[requests.size()];
+        var groups = requestsByWeight.entrySet().stream();
+        if (requests.size() >= PARALLEL_THRESHOLD && requestsByWeight.size() > 1) {
+            groups = groups.parallel();
+        }
+        // every group writes only the entries of its own requests
+        groups.forEach(group -> planWeight(group.getKey(), group.getValue(), requests,
+                yarnsByWeight.getOrDefault(group.getKey(), List.of()), entries));
+
+        return new BatchPlan(List.of(entries));
+    }
+
+    /**
+     * Reads project requests from a JSON file containing an array of objects with the fields
+     * {@code project}, {@code weight} and {@code length} ("min" or "max", min by default)
+     * @param file: path to the file
+     * @return the requests in the order of the file
+     * @throws IOException if the file cannot be read or is not valid
+     */
+    public static List<ProjectRequest> readRequests(Path file) throws IOException {
+        List<ProjectRequest> requests = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                String project = null;
+                String weight = null;
+                boolean useMax = false;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "project" -> project = reader.nextString();
+                        case "weight" -> weight = reader.nextString();
+                        case "length" -> useMax = reader.nextString().equalsIgnoreCase("max");
+                        default -> reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                if (project == null || weight == null) {
+                    throw new IOException("Project request without a project or yarn weight");
+                }
+                requests.add(new ProjectRequest(project, weight, useMax));
+            }
+            reader.endArray();
+        } catch (IllegalStateException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        return requests;
+    }
+
+    private void planWeight(String weightName, List<Integer> requestIndices, List<ProjectRequest> requests,
+                            List<Yarn> yarns, BatchPlan.Entry[] entries) {
+        List<Yarn> free = new ArrayList<>(yarns);
+        int weight = requirements.indexOfWeight(weightName);
+
+        for (int index : requestIndices) {
+            ProjectRequest request = requests.get(index);
+            int project = requirements.indexOfProject(request.getProjectName());
+            int required = project < 0 || weight < 0 ? YarnRequirements.MISSING
+                    : request.isUseMax() ? requirements.getMax(project, weight) : requirements.getMin(project, weight);
+            if (required == YarnRequirements.MISSING) {
+                entries[index] = new BatchPlan.Entry(request, 0, null,
+                        "no " + (request.isUseMax() ? "max" : "min") + " length for this project and weight");
+                continue;
+            }
+
+            YarnSelection selection = solver.solve(required, free);
+            if (selection == null) {
+                entries[index] = new BatchPlan.Entry(request, required, null, "not enough free yarn of this weight");
+                continue;
+            }
+
+            // Allocates the chosen skeins so that later projects cannot use them
+            Set<Yarn> allocated = Collections.newSetFromMap(new IdentityHashMap<>());
+            allocated.addAll(selection.getYarns());
+            free.removeIf(allocated::contains);
+            entries[index] = new BatchPlan.Entry(request, required, selection, null);
+        }
+    }
+
+    /**
+     * Replaces a yarn weight name or alias with the name of the weight, e.g. "worsted" with "Medium"
+     */
+    private static String weightName(String nameOrAlias) {
+        YarnWeight weight = YarnWeightResolver.getDefault().resolve(nameOrAlias);
+        return weight == null ? nameOrAlias : weight.getName();
+    }
+}
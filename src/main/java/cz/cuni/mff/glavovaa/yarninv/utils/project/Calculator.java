@@ -1,45 +1,51 @@
 package cz.cuni.mff.glavovaa.yarninv.utils.project;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-
-import java.io.FileReader;
-import java.io.IOException;
-import java.io.Reader;
-import java.lang.reflect.Type;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Returns minimum and maximum needed yarn length for a project based on yarn_requirements.json file.
+ * The file is parsed only once per process (and again when it changes), see {@link YarnRequirements}.
  */
 public class Calculator {
-    private static final Path FILE_PATH = Path.of(System.getProperty("user.dir"), "config", "yarn_requirements.json");
-    private static final Gson gson = new Gson(); // for parsing json files
-    private Map<String, Map<String, Map<String, Integer>>> yarnRequirements;
+    private final YarnRequirements yarnRequirements;
 
     /**
-     * Constructor that loads yarn requirements from a JSON file.
+     * Constructor that uses the cached yarn requirements from the JSON file.
      */
     public Calculator() {
-        loadYarnRequirements();
+        this(YarnRequirements.current());
+    }
+
+    /**
+     * Constructor for a calculator using a given table of requirements
+     * @param yarnRequirements: lengths needed for the projects
+     */
+    public Calculator(YarnRequirements yarnRequirements) {
+        this.yarnRequirements = yarnRequirements;
     }
 
     /**
      * Returns min and max length needed for a project
      * @param project: project type, e.g. a hat
      * @param ywName: name of yarn weight
-     * @return yarn weight and min and max length
+     * @return the min and max length, only the ones the file contains, or null if there is no data
      */
     public Map<String, Integer> getYarnRequirement(String project, String ywName){
-        if (yarnRequirements.containsKey(project) && yarnRequirements.get(project).containsKey(ywName)) {
-
-            return yarnRequirements.get(project).get(ywName);
+        int p = yarnRequirements.indexOfProject(project);
+        int w = yarnRequirements.indexOfWeight(ywName);
+        if (p < 0 || w < 0) {
+            return null;
         }
-        return null;
+        Map<String, Integer> lengths = new HashMap<>();
+        if (yarnRequirements.getMin(p, w) != YarnRequirements.MISSING) {
+            lengths.put("min", yarnRequirements.getMin(p, w));
+        }
+        if (yarnRequirements.getMax(p, w) != YarnRequirements.MISSING) {
+            lengths.put("max", yarnRequirements.getMax(p, w));
+        }
+        return lengths.isEmpty() ? null : lengths;
     }
 
     /**
@@ -48,33 +54,18 @@ public class Calculator {
      * @return the project name
      */
     public String getProjectByIndex(int index) {
-        if (index < 0 || index >= yarnRequirements.size()) {
+        if (index < 0 || index >= yarnRequirements.getProjectCount()) {
             return null;
         }
-        return new ArrayList<>(yarnRequirements.keySet()).get(index);
+        return yarnRequirements.getProject(index);
     }
 
     /**
-     * Loads JSON file containing length requirements for projects
+     * Returns the table of requirements this calculator uses, for lookups by project and weight index
+     * @return the yarn requirements
      */
-    private void loadYarnRequirements() {
-        if (!Files.exists(FILE_PATH)) {
-            System.out.println("Yarn requirements file not found. Using an empty dataset.");
-            yarnRequirements = Map.of();
-            return;
-        }
-
-        try (Reader reader = Files.newBufferedReader(FILE_PATH)) {
-            Type type = new TypeToken<Map<String, Map<String, Map<String, Integer>>>>() {}.getType();
-            yarnRequirements = gson.fromJson(reader, type);
-            System.out.println("Yarn requirements loaded.");
-        } catch (IOException e) {
-            System.out.println("Failed to read JSON file: " + e.getMessage());
-            yarnRequirements = Map.of();
-        } catch (Exception e) {
-            System.out.println("Error parsing yarn requirements JSON: " + e.getMessage());
-            yarnRequirements = Map.of();
-        }
+    public YarnRequirements getYarnRequirements() {
+        return yarnRequirements;
     }
 
     /**
@@ -82,10 +73,7 @@ public class Calculator {
      * @return a set of all projects
      */
     public Set<String> getAvailableProjects() {
-        if (yarnRequirements == null) {
-            return Set.of();
-        }
-        return yarnRequirements.keySet();
+        return yarnRequirements.getProjectNames();
     }
 
     /**
@@ -93,9 +81,6 @@ public class Calculator {
      * @return the total number of all projects
      */
     public int getProjectCount() {
-        if (yarnRequirements == null) {
-            return 0;
-        }
-        return yarnRequirements.size();
+        return yarnRequirements.getProjectCount();
     }
 }
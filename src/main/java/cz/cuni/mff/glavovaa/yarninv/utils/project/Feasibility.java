@@ -0,0 +1,156 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnGroupKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+
+import java.util.Map;
+
+/**
+ * Answers whether the inventory has enough yarn of the right weight for a project. The available length is read
+ * from the running totals of the inventory, so the check takes constant time however many yarns there are.
+ */
+public class Feasibility {
+    /**
+     * How much of a project the available yarn covers
+     */
+    public enum Status {
+        /**
+         * Enough yarn even for the maximum length (or the only known length)
+         */
+        ENOUGH,
+        /**
+         * Enough yarn for the minimum length, but not for the maximum
+         */
+        ENOUGH_FOR_MIN,
+        /**
+         * Not enough yarn even for the minimum length (or the only known length)
+         */
+        NOT_ENOUGH,
+        /**
+         * The requirements of the project in this yarn weight are not known
+         */
+        NO_DATA
+    }
+
+    private final String projectName;
+    private final String weightName;
+    private final int min;
+    private final int max;
+    private final long available;
+
+    /**
+     * Constructor of the result.
+     * @param projectName: name of the project
+     * @param weightName: name of the yarn weight
+     * @param min: minimum length needed or YarnRequirements.MISSING
+     * @param max: maximum length needed or YarnRequirements.MISSING
+     * @param available: meters of yarn of the weight in the inventory
+     */
+    public Feasibility(String projectName, String weightName, int min, int max, long available) {
+        this.projectName = projectName;
+        this.weightName = weightName;
+        this.min = min;
+        this.max = max;
+        this.available = available;
+    }
+
+    /**
+     * Checks whether the inventory has enough yarn of the project's weight
+     * @param project: the project with its yarn weight and requirements
+     * @param inv: the inventory
+     * @return the result of the check
+     */
+    public static Feasibility of(Project project, YarnInventory inv) {
+        String weightName = project.getYarnWeight().getName();
+        long available = inv.getTotal(YarnGroupKey.WEIGHT, weightName).getTotalMeters();
+        Map<String, Integer> yarnData = project.getYarnData();
+        if (yarnData == null) {
+            return new Feasibility(project.getProjectName(), weightName, YarnRequirements.MISSING, YarnRequirements.MISSING, available);
+        }
+        return new Feasibility(project.getProjectName(), weightName, yarnData.getOrDefault("min", YarnRequirements.MISSING),
+                yarnData.getOrDefault("max", YarnRequirements.MISSING), available);
+    }
+
+    /**
+     * Returns the name of the project
+     * @return the project name
+     */
+    public String getProjectName() { return projectName; }
+
+    /**
+     * Returns the name of the yarn weight
+     * @return the weight name
+     */
+    public String getWeightName() { return weightName; }
+
+    /**
+     * Returns the minimum length needed
+     * @return the length in meters or YarnRequirements.MISSING
+     */
+    public int getMin() { return min; }
+
+    /**
+     * Returns the maximum length needed
+     * @return the length in meters or YarnRequirements.MISSING
+     */
+    public int getMax() { return max; }
+
+    /**
+     * Returns the meters of yarn of the weight in the inventory
+     * @return the available length
+     */
+    public long getAvailable() { return available; }
+
+    /**
+     * Returns how much of the project the available yarn covers
+     * @return the status
+     */
+    public Status getStatus() {
+        return status(min, max, available);
+    }
+
+    /**
+     * Decides the status. When only one of the lengths is known, it is used as both the minimum and the maximum.
+     */
+    static Status status(int min, int max, long available) {
+        if (min == YarnRequirements.MISSING && max == YarnRequirements.MISSING) {
+            return Status.NO_DATA;
+        }
+        if (available >= upper(min, max)) {
+            return Status.ENOUGH;
+        }
+        return available >= lower(min, max) ? Status.ENOUGH_FOR_MIN : Status.NOT_ENOUGH;
+    }
+
+    private static int lower(int min, int max) {
+        return min == YarnRequirements.MISSING ? max : min;
+    }
+
+    private static int upper(int min, int max) {
+        return max == YarnRequirements.MISSING ? min : max;
+    }
+
+    /**
+     * Checks whether the available yarn covers a length
+     * @param requiredLength: the length in meters
+     * @return true if there is enough yarn
+     */
+    public boolean isEnough(int requiredLength) {
+        return available >= requiredLength;
+    }
+
+    /**
+     * Overrides toString with a sentence describing the result
+     * @return the overriden string
+     */
+    @Override
+    public String toString() {
+        String have = "You have " + available + " meters of " + weightName + " yarn: ";
+        return switch (getStatus()) {
+            case ENOUGH -> have + "enough for " + projectName + ".";
+            case ENOUGH_FOR_MIN -> have + "enough for the minimum, " + (upper(min, max) - available) + " meters short of the maximum.";
+            case NOT_ENOUGH -> have + "not enough, " + (lower(min, max) - available) + " meters short of the minimum.";
+            case NO_DATA -> have + "no data available for this combination.";
+        };
+    }
+}
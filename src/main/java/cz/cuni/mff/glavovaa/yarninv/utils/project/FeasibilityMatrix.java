@@ -0,0 +1,113 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnGroupKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+
+import java.io.PrintStream;
+
+/**
+ * Feasibility of every project in every yarn weight at once. The available length of each weight is read once from
+ * the running totals of the inventory, then every cell is two comparisons with the requirements table.
+ */
+public class FeasibilityMatrix {
+    private final YarnRequirements requirements;
+    private final long[] available;
+
+    /**
+     * Computes the matrix
+     * @param requirements: the yarn requirements of the projects
+     * @param inv: the inventory
+     */
+    public FeasibilityMatrix(YarnRequirements requirements, YarnInventory inv) {
+        this.requirements = requirements;
+        this.available = new long[requirements.getWeightCount()];
+        for (int w = 0; w < available.length; w++) {
+            available[w] = inv.getTotal(YarnGroupKey.WEIGHT, requirements.getWeight(w)).getTotalMeters();
+        }
+    }
+
+    /**
+     * Returns the feasibility of a project in a yarn weight
+     * @param project: index of the project in the requirements
+     * @param weight: index of the yarn weight in the requirements
+     * @return the feasibility
+     */
+    public Feasibility get(int project, int weight) {
+        return new Feasibility(requirements.getProject(project), requirements.getWeight(weight),
+                requirements.getMin(project, weight), requirements.getMax(project, weight), available[weight]);
+    }
+
+    /**
+     * Returns the status of a project in a yarn weight without creating a result object
+     * @param project: index of the project in the requirements
+     * @param weight: index of the yarn weight in the requirements
+     * @return the status
+     */
+    public Feasibility.Status getStatus(int project, int weight) {
+        return Feasibility.status(requirements.getMin(project, weight), requirements.getMax(project, weight), available[weight]);
+    }
+
+    /**
+     * Returns the requirements the matrix was computed from
+     * @return the yarn requirements
+     */
+    public YarnRequirements getRequirements() {
+        return requirements;
+    }
+
+    /**
+     * Prints the matrix as a table with a row per project and a column per yarn weight
+     * @param out: where the table is printed
+     */
+    public void print(PrintStream out) {
+        int nameWidth = "available (m)".length();
+        for (int p = 0; p < requirements.getProjectCount(); p++) {
+            nameWidth = Math.max(nameWidth, requirements.getProject(p).length());
+        }
+        int[] widths = new int[available.length];
+        StringBuilder line = new StringBuilder();
+
+        pad(line, "", nameWidth);
+        for (int w = 0; w < available.length; w++) {
+            widths[w] = Math.max(requirements.getWeight(w).length(), Long.toString(available[w]).length());
+            line.append("  ");
+            pad(line, requirements.getWeight(w), widths[w]);
+        }
+        out.println(line);
+
+        line.setLength(0);
+        pad(line, "available (m)", nameWidth);
+        for (int w = 0; w < available.length; w++) {
+            line.append("  ");
+            pad(line, Long.toString(available[w]), widths[w]);
+        }
+        out.println(line);
+
+        for (int p = 0; p < requirements.getProjectCount(); p++) {
+            line.setLength(0);
+            pad(line, requirements.getProject(p), nameWidth);
+            for (int w = 0; w < available.length; w++) {
+                line.append("  ");
+                pad(line, symbol(getStatus(p, w)), widths[w]);
+            }
+            out.println(line);
+        }
+        out.println("yes = enough for the maximum, min = enough for the minimum, no = not enough, - = no data");
+    }
+
+    private static String symbol(Feasibility.Status status) {
+        return switch (status) {
+            case ENOUGH -> "yes";
+            case ENOUGH_FOR_MIN -> "min";
+            case NOT_ENOUGH -> "no";
+            case NO_DATA -> "-";
+        };
+    }
+
+    private static void pad(StringBuilder line, String value, int width) {
+        line.append(value);
+        for (int i = value.length(); i < width; i++) {
+            line.append(' ');
+        }
+    }
+}
@@ -2,6 +2,7 @@ package cz.cuni.mff.glavovaa.yarninv.utils.project;
 
 import cz.cuni.mff.glavovaa.yarninv.utils.UserInputValidator;
 import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnQuery;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
 
@@ -61,14 +62,19 @@ public class ProjectHandler {
     }
 
     /**
-     * Gets the length required to finish a project
+     * Gets the length required to finish a project. If only one of the lengths is known, it is used without asking.
      * @param projectInfo: information containing name, min and max length and weight
      * @param scanner: for reading user input
      * @return returns the final length
      */
     public static int getLengthRequirement(Project projectInfo, Scanner scanner){
-        int minNeeded = projectInfo.getYarnData().get("min");
-        int maxNeeded = projectInfo.getYarnData().get("max");
+        Integer minNeeded = projectInfo.getYarnData().get("min");
+        Integer maxNeeded = projectInfo.getYarnData().get("max");
+        if (minNeeded == null || maxNeeded == null) {
+            int known = minNeeded == null ? maxNeeded : minNeeded;
+            System.out.println("Only the " + (minNeeded == null ? "maximum" : "minimum") + " length is known: " + known + " meters.");
+            return known;
+        }
 
         System.out.println("Do you want to use the minimum or maximum required length? (min/max)");
         String choice = UserInputValidator.validateIsInList(scanner.nextLine(), "min", "max");
@@ -95,7 +101,7 @@ public class ProjectHandler {
 
         if (answer.equals("y")){
             // Filters yarns based on yarn weight
-            return inv.filter(yarn -> yarn.getWeight().getName().equals(selectedWeight));
+            return inv.find(new YarnQuery().weight(selectedWeight));
         }
         else{
             // If user does not want to filter by weight, return all yarns in the inventory
@@ -116,27 +122,18 @@ public class ProjectHandler {
     }
 
     /**
-     * Saves yarns into a (text) file.
-     * @param filePath: path to the file
-     * @param projectInv: inventory of yarns
+     * Saves the project with the selected yarns into the project store.
+     * @param store: the project store
+     * @param projectInv: yarns selected for the project
      * @param project: info about project (name, weight, ...)
+     * @param requiredLength: length of yarn needed in meters
      */
-    public static void saveSelectedYarns(Path filePath, List<Yarn> projectInv, Project project) {
+    public static void saveSelectedYarns(ProjectStore store, List<Yarn> projectInv, Project project, int requiredLength) {
         try {
-            Files.createDirectories(filePath.getParent()); // Ensures the directory exists
-
-            try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-                writer.write(project.getProjectName() + "\n");
-                writer.write("Required yarn:\n");
-
-                for (Yarn y : projectInv) {
-                    writer.write(y.toString() + "\n");
-                }
-            }
-
-            System.out.println("The yarn required for this project was saved to " + filePath);
+            long id = store.add(project.getProjectName(), project.getYarnWeight().getName(), requiredLength, projectInv);
+            System.out.println("The project was saved with id " + id + ".");
         } catch (IOException e) {
-            System.out.println("Error writing to file: " + e.getMessage());
+            System.out.println("Error saving the project: " + e.getMessage());
         }
     }
 
@@ -186,75 +183,84 @@ public class ProjectHandler {
     }
 
     /**
-     * Goes through all files in the .resources/projects directory and prints the first line
+     * Lets the solver choose the yarns for a project. Asks the user whether to prefer fewer skeins and whether all
+     * yarns should have the same colour, then prints the leftover length of the chosen yarns.
+     * @param remainingLength: length needed to reach the end goal
+     * @param availableYarns: list of yarns that can be used
+     * @param scanner: for reading user's input
+     * @return the list of yarns used in the project, or null if there is not enough yarn
      */
-    public static void listProjects() {
-        File dir = PROJECTS_DIR.toFile();
-        File[] files = dir.listFiles();
+    public static List<Yarn> autoSelectYarnsForProject(int remainingLength, List<Yarn> availableYarns, Scanner scanner){
+        System.out.println("Would you like to use as few skeins as possible instead of wasting the least yarn? (y/n)");
+        boolean fewest = UserInputValidator.validateIsInList(scanner.nextLine(), "y", "n").equals("y");
+        System.out.println("Should all yarns have the same colour? (y/n)");
+        boolean singleColour = UserInputValidator.validateIsInList(scanner.nextLine(), "y", "n").equals("y");
+
+        YarnSelectionSolver solver = new YarnSelectionSolver(
+                fewest ? YarnSelectionSolver.Objective.FEWEST_SKEINS : YarnSelectionSolver.Objective.LEAST_WASTE,
+                singleColour, YarnSelectionSolver.DEFAULT_TIME_BUDGET_MILLIS);
+        YarnSelection selection = solver.solve(remainingLength, availableYarns);
+
+        if (selection == null) {
+            System.out.println("You do not have enough yarn for this project.");
+            return null;
+        }
+        System.out.println("Selected " + selection.getSkeinCount() + " skeins with " + selection.getTotalLength()
+                + " meters, " + selection.getWaste() + " meters will be left over"
+                + (selection.isOptimal() ? "." : " (best found within the time limit)."));
+        return selection.getYarns();
+    }
 
-        if (files == null || files.length == 0) {
+    /**
+     * Prints the id, name, yarn weight and date of all saved projects. Only the index of the store is read.
+     * @param store: the project store
+     */
+    public static void listProjects(ProjectStore store) {
+        if (store.size() == 0) {
             System.out.println("No saved projects found.");
             return;
         }
 
-        // Goes through files and attempts to read the first line (containing the project type)
         System.out.println("Saved Projects:");
-        for (int i = 0; i < files.length; i++) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(files[i]))) {
-                String firstLine = reader.readLine();
-                System.out.println((i + 1) + ". " + (firstLine != null ? firstLine : files[i].getName()));
-            } catch (IOException e) {
-                System.out.println("Error reading project: " + files[i].getName());
-            }
+        for (ProjectStore.Entry entry : store.list()) {
+            System.out.println(entry);
         }
     }
 
     /**
-     * Displays the full content of a project file (containing name, weight and yarns used).
-     * @param index The project index
+     * Displays a saved project (containing name, weight and yarns used).
+     * @param store: the project store
+     * @param id: the project id
      */
-    public static void viewProject(int index) {
-        File dir = PROJECTS_DIR.toFile();
-        File[] files = dir.listFiles();
-
-        if (files == null || index < 0 || index > files.length) {
-            System.out.println("Invalid project index.");
-            return;
-        }
-
-        File projectFile = files[index];
-
-        // Attempts to read and prints the contents of the file
-        System.out.println("\n--- " + projectFile.getName() + " ---");
-        try (BufferedReader reader = new BufferedReader(new FileReader(projectFile))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                System.out.println(line);
+    public static void viewProject(ProjectStore store, long id) {
+        try {
+            ProjectRecord project = store.get(id);
+            if (project == null) {
+                System.out.println("Invalid project id.");
+                return;
             }
+            project.print(System.out);
         } catch (IOException e) {
-            System.out.println("Error reading project file.");
+            System.out.println("Error reading project: " + e.getMessage());
         }
     }
 
     /**
-     * Deletes a project file. Gets the index of the file from a user and deletes the file on that index.
-     * @param index The project index
+     * Deletes a saved project.
+     * @param store: the project store
+     * @param id: the project id
      */
-    public static void deleteProject(int index) {
-        File dir = PROJECTS_DIR.toFile();
-        File[] files = dir.listFiles();
-
-        if (files == null || index < 0|| index > files.length) {
-            System.out.println("Invalid project index.");
+    public static void deleteProject(ProjectStore store, long id) {
+        ProjectStore.Entry entry = store.getEntry(id);
+        if (entry == null) {
+            System.out.println("Invalid project id.");
             return;
         }
-
-        File projectFile = files[index];
-
-        if (projectFile.delete()) {
-            System.out.println("Deleted project: " + projectFile.getName());
-        } else {
-            System.out.println("Failed to delete project.");
+        try {
+            store.delete(id);
+            System.out.println("Deleted project: " + entry.name());
+        } catch (IOException e) {
+            System.out.println("Failed to delete project: " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,105 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Saved project: its id in the {@link ProjectStore}, the project name, yarn weight, required length, when it was
+ * saved and the yarns selected for it.
+ */
+public class ProjectRecord {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+            .withZone(ZoneId.systemDefault());
+
+    private final long id;
+    private final String name;
+    private final String weightName;
+    private final int requiredLength;
+    private final long created;
+    private final List<Yarn> yarns;
+
+    /**
+     * Constructor of a saved project.
+     * @param id: id of the project in the store
+     * @param name: name of the project (e.g. baby hat)
+     * @param weightName: name of the yarn weight
+     * @param requiredLength: length of yarn needed in meters, 0 if not known
+     * @param created: when the project was saved, in milliseconds since the epoch
+     * @param yarns: yarns selected for the project
+     */
+    public ProjectRecord(long id, String name, String weightName, int requiredLength, long created, List<Yarn> yarns) {
+        this.id = id;
+        this.name = name;
+        this.weightName = weightName;
+        this.requiredLength = requiredLength;
+        this.created = created;
+        this.yarns = yarns;
+    }
+
+    /**
+     * Returns the id of the project in the store
+     * @return the id
+     */
+    public long getId() { return id; }
+
+    /**
+     * Returns the name of the project
+     * @return the project name
+     */
+    public String getName() { return name; }
+
+    /**
+     * Returns the name of the yarn weight
+     * @return the weight name
+     */
+    public String getWeightName() { return weightName; }
+
+    /**
+     * Returns the length of yarn needed
+     * @return the length in meters, 0 if not known
+     */
+    public int getRequiredLength() { return requiredLength; }
+
+    /**
+     * Returns when the project was saved
+     * @return milliseconds since the epoch
+     */
+    public long getCreated() { return created; }
+
+    /**
+     * Returns the yarns selected for the project
+     * @return the yarns
+     */
+    public List<Yarn> getYarns() { return yarns; }
+
+    /**
+     * Formats a time of the store for printing
+     * @param millis: milliseconds since the epoch
+     * @return the date and time in the local time zone
+     */
+    static String formatTime(long millis) {
+        return DATE_FORMAT.format(Instant.ofEpochMilli(millis));
+    }
+
+    /**
+     * Prints all details of the project
+     * @param out: where the project is printed
+     */
+    public void print(PrintStream out) {
+        out.println("--- " + id + ". " + name + " ---");
+        out.println("Yarn weight: " + weightName);
+        if (requiredLength > 0) {
+            out.println("Required length: " + requiredLength + " meters");
+        }
+        out.println("Saved: " + formatTime(created));
+        out.println("Required yarn:");
+        for (Yarn yarn : yarns) {
+            out.println("- " + yarn);
+        }
+    }
+}
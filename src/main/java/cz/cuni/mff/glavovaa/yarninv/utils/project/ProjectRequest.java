@@ -0,0 +1,56 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+/**
+ * One project to be planned in a batch: project name (e.g. hat), yarn weight and whether the minimum
+ * or maximum required length should be covered.
+ */
+public class ProjectRequest {
+    private final String projectName;
+    private final String weightName;
+    private final boolean useMax;
+
+    /**
+     * Constructor of a project request.
+     * @param projectName: name of the project as in yarn_requirements.json
+     * @param weightName: name of the yarn weight
+     * @param useMax: true to cover the maximum required length, false for the minimum
+     */
+    public ProjectRequest(String projectName, String weightName, boolean useMax) {
+        this.projectName = projectName;
+        this.weightName = weightName;
+        this.useMax = useMax;
+    }
+
+    /**
+     * Returns the name of the project
+     * @return the project name
+     */
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * Returns the name of the yarn weight
+     * @return the yarn weight name
+     */
+    public String getWeightName() {
+        return weightName;
+    }
+
+    /**
+     * Checks whether the maximum required length should be covered
+     * @return true for the maximum, false for the minimum
+     */
+    public boolean isUseMax() {
+        return useMax;
+    }
+
+    /**
+     * Overrides toString with the project, weight and length choice
+     * @return the overriden string
+     */
+    @Override
+    public String toString() {
+        return projectName + " (" + weightName + ", " + (useMax ? "max" : "min") + ")";
+    }
+}
@@ -0,0 +1,467 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnJsonStream;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightResolver;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Saved projects with stable ids. Every project is stored as one compact JSON line in {@value #DATA_FILE}, and the
+ * index file {@value #INDEX_FILE} records the id, name, yarn weight, position in the data file and the times of
+ * every project. The index is read once when the store is opened and kept in a map by id, so listing the projects
+ * opens no project files and a project is found by its id without searching.
+ *
+ * <p>Both files are only appended to: a saved project appends its record and then its index entry, a deleted
+ * project appends a deletion entry. Every append is forced to the disk before the next one is written, so an index
+ * entry never points to a record that could be lost in a crash. A torn index entry left by a crash is cut off when
+ * the store is opened.</p>
+ *
+ * <p>When deleted records take more space than the live ones, the live records are copied into a new data file
+ * of the next generation ({@code projects.1.jsonl}, {@code projects.2.jsonl}, ...) and a new index naming that
+ * file replaces the old index in one atomic rename. A crash before the rename leaves the old index and data file
+ * in use, a crash after it the new ones, so the index never points into the wrong data file.</p>
+ *
+ * <p>Projects saved as text files by earlier versions are imported when the store is opened for the first time.</p>
+ */
+public class ProjectStore {
+    /**
+     * Name of the file with the project records, until the store is compacted for the first time
+     */
+    public static final String DATA_FILE = "projects.jsonl";
+    /**
+     * Name of the index file
+     */
+    public static final String INDEX_FILE = "projects.idx";
+
+    private static final int MAGIC = 0x59505249; // "YPRI"
+    private static final int VERSION = 2;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final Pattern LEGACY_YARN = Pattern.compile("^-?\\s*(.*) \\((.*), (\\d+)m\\) - (.*?)( \\(.*\\))?$");
+
+    /**
+     * Index entry of a saved project
+     * @param id: id of the project
+     * @param name: name of the project
+     * @param weightName: name of the yarn weight
+     * @param offset: position of the record in the data file
+     * @param length: length of the record in bytes
+     * @param created: when the project was saved, in milliseconds since the epoch
+     * @param modified: when the project was last changed, in milliseconds since the epoch
+     */
+    public record Entry(long id, String name, String weightName, long offset, int length, long created, long modified) {
+        /**
+         * Overrides toString with the id, name, yarn weight and date of the project
+         * @return the overriden string
+         */
+        @Override
+        public String toString() {
+            return id + ". " + name + " (" + weightName + ", saved " + ProjectRecord.formatTime(created) + ")";
+        }
+    }
+
+    private final Path indexPath;
+    private long generation;
+    private Path dataPath;
+    private final Map<Long, Entry> entries = new LinkedHashMap<>();
+    private long nextId = 1;
+    private long deadBytes;
+
+    /**
+     * Opens the store in a directory, creating it if needed. When there is no index yet, the text files of
+     * projects saved by earlier versions are imported.
+     * @param dir: the projects directory
+     * @throws IOException if the directory or the index cannot be read
+     */
+    public ProjectStore(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        this.indexPath = dir.resolve(INDEX_FILE);
+        this.dataPath = dataPath(0);
+        if (Files.exists(indexPath)) {
+            readIndex();
+        } else {
+            writeIndex(indexPath, 0, List.of());
+            importLegacy(dir);
+        }
+    }
+
+    private void readIndex() throws IOException {
+        byte[] bytes = Files.readAllBytes(indexPath);
+        ByteArrayInputStream buffer = new ByteArrayInputStream(bytes);
+        DataInputStream in = new DataInputStream(buffer);
+        if (bytes.length < 16 || in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a project index: " + indexPath);
+        }
+        generation = in.readLong();
+        dataPath = dataPath(generation);
+        int complete = bytes.length - buffer.available();
+        while (buffer.available() > 0) {
+            try {
+                byte op = in.readByte();
+                long id = in.readLong();
+                if (op == PUT) {
+                    Entry entry = new Entry(id, in.readUTF(), in.readUTF(), in.readLong(), in.readInt(),
+                            in.readLong(), in.readLong());
+                    Entry old = entries.put(id, entry);
+                    if (old != null) {
+                        deadBytes += old.length();
+                    }
+                } else if (op == DELETE) {
+                    Entry old = entries.remove(id);
+                    if (old != null) {
+                        deadBytes += old.length();
+                    }
+                } else {
+                    throw new IOException("Unknown index entry " + op);
+                }
+                nextId = Math.max(nextId, id + 1);
+            } catch (EOFException e) {
+                // an entry torn by a crash, the project was not confirmed as saved. It is cut off, so the next
+                // entry is not appended after it.
+                try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.WRITE)) {
+                    channel.truncate(complete);
+                }
+                return;
+            }
+            complete = bytes.length - buffer.available();
+        }
+    }
+
+    /**
+     * Saves a project and returns its id
+     * @param name: name of the project
+     * @param weightName: name of the yarn weight
+     * @param requiredLength: length of yarn needed in meters, 0 if not known
+     * @param yarns: yarns selected for the project
+     * @return the id of the saved project
+     * @throws IOException if the project cannot be written
+     */
+    public long add(String name, String weightName, int requiredLength, List<Yarn> yarns) throws IOException {
+        return add(name, weightName, requiredLength, System.currentTimeMillis(), yarns);
+    }
+
+    private long add(String name, String weightName, int requiredLength, long created, List<Yarn> yarns) throws IOException {
+        long id = nextId;
+        byte[] record = encode(new ProjectRecord(id, name, weightName, requiredLength, created, yarns));
+        long offset = Files.exists(dataPath) ? Files.size(dataPath) : 0;
+        // the record has to be on the disk before the index entry that points to it
+        appendForced(dataPath, record);
+
+        Entry entry = new Entry(id, name, weightName, offset, record.length, created, created);
+        ByteArrayOutputStream indexEntry = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(indexEntry)) {
+            writePut(out, entry);
+        }
+        appendForced(indexPath, indexEntry.toByteArray());
+        entries.put(id, entry);
+        nextId++;
+        return id;
+    }
+
+    /**
+     * Returns the index entries of all projects, ordered by id
+     * @return the entries
+     */
+    public List<Entry> list() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Returns the number of saved projects
+     * @return the number of projects
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the index entry of a project
+     * @param id: id of the project
+     * @return the entry or null if there is no project with the id
+     */
+    public Entry getEntry(long id) {
+        return entries.get(id);
+    }
+
+    /**
+     * Reads a project. Only its own record is read from the data file.
+     * @param id: id of the project
+     * @return the project or null if there is no project with the id
+     * @throws IOException if the record cannot be read
+     */
+    public ProjectRecord get(long id) throws IOException {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        byte[] record = new byte[entry.length()];
+        try (RandomAccessFile file = new RandomAccessFile(dataPath.toFile(), "r")) {
+            file.seek(entry.offset());
+            file.readFully(record);
+        }
+        return decode(record);
+    }
+
+    /**
+     * Deletes a project
+     * @param id: id of the project
+     * @return true if the project was deleted, false if there was no project with the id
+     * @throws IOException if the deletion cannot be written
+     */
+    public boolean delete(long id) throws IOException {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        ByteArrayOutputStream indexEntry = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(indexEntry)) {
+            out.writeByte(DELETE);
+            out.writeLong(id);
+        }
+        appendForced(indexPath, indexEntry.toByteArray());
+        entries.remove(id);
+        deadBytes += entry.length();
+
+        long liveBytes = 0;
+        for (Entry live : entries.values()) {
+            liveBytes += live.length();
+        }
+        if (deadBytes > liveBytes) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Rewrites the live projects into the data file of the next generation and switches the index to it
+     * @throws IOException if the files cannot be written or the data file of the saved projects is missing
+     */
+    public void compact() throws IOException {
+        if (!entries.isEmpty() && !Files.exists(dataPath)) {
+            throw new IOException("The project data file " + dataPath + " is missing");
+        }
+        long newGeneration = generation + 1;
+        Path newData = dataPath(newGeneration);
+        List<Entry> moved = new ArrayList<>(entries.size());
+        try (RandomAccessFile in = Files.exists(dataPath) ? new RandomAccessFile(dataPath.toFile(), "r") : null;
+             FileChannel channel = FileChannel.open(newData, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+            long offset = 0;
+            for (Entry entry : entries.values()) {
+                byte[] record = new byte[entry.length()];
+                in.seek(entry.offset());
+                in.readFully(record);
+                out.write(record);
+                moved.add(new Entry(entry.id(), entry.name(), entry.weightName(), offset, entry.length(),
+                        entry.created(), entry.modified()));
+                offset += record.length;
+            }
+            out.flush();
+            channel.force(true);
+        }
+        // replacing the index is the only switch, until then the old index still points into the old data file
+        Path tempIndex = indexPath.resolveSibling(INDEX_FILE + ".tmp");
+        writeIndex(tempIndex, newGeneration, moved);
+        move(tempIndex, indexPath);
+
+        Path oldData = dataPath;
+        generation = newGeneration;
+        dataPath = newData;
+        Files.deleteIfExists(oldData);
+        for (Entry entry : moved) {
+            entries.put(entry.id(), entry);
+        }
+        deadBytes = 0;
+    }
+
+    /**
+     * Returns the path of the data file of a generation. Generation 0 is the file before the first compaction.
+     * @param dataGeneration: the generation
+     * @return the path of the data file
+     */
+    private Path dataPath(long dataGeneration) {
+        return indexPath.resolveSibling(dataGeneration == 0 ? DATA_FILE : "projects." + dataGeneration + ".jsonl");
+    }
+
+    /**
+     * Returns the data file the index currently points into
+     * @return path of the data file
+     */
+    public Path getDataPath() {
+        return dataPath;
+    }
+
+    /**
+     * Imports the projects saved as text files by earlier versions (the project name on the first line, then
+     * one yarn per line). The files are left in place.
+     * @param dir: directory with the text files
+     * @return the number of imported projects
+     * @throws IOException if the directory cannot be read
+     */
+    public int importLegacy(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith("projects."))
+                    .sorted()
+                    .toList();
+        }
+
+        int imported = 0;
+        YarnWeightResolver weights = YarnWeightResolver.getDefault();
+        for (Path file : files) {
+            List<String> lines;
+            try {
+                lines = Files.readAllLines(file);
+            } catch (IOException e) {
+                System.out.println("Error reading project: " + file.getFileName());
+                continue;
+            }
+            if (lines.size() < 2 || !lines.get(1).trim().equals("Required yarn:")) {
+                continue; // not a saved project
+            }
+
+            List<Yarn> yarns = new ArrayList<>();
+            for (String line : lines.subList(2, lines.size())) {
+                Matcher m = LEGACY_YARN.matcher(line.trim());
+                if (m.matches()) {
+                    String weightName = m.group(4);
+                    YarnWeight weight = weights.resolve(weightName);
+                    if (weight == null) {
+                        weight = new YarnWeight(weightName, 0, 0, 0, 0, List.of());
+                    }
+                    yarns.add(new Yarn(m.group(1), m.group(2), Integer.parseInt(m.group(3)), weight));
+                }
+            }
+            String weightName = yarns.isEmpty() ? "unknown" : yarns.get(0).getWeight().getName();
+            add(lines.get(0).trim(), weightName, 0, Files.getLastModifiedTime(file).toMillis(), yarns);
+            imported++;
+        }
+        return imported;
+    }
+
+    /**
+     * Appends bytes to the end of a file and forces them to the disk
+     * @param path: the file
+     * @param bytes: the bytes to be appended
+     * @throws IOException if the file cannot be written
+     */
+    private static void appendForced(Path path, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private static void writeIndex(Path path, long dataGeneration, List<Entry> indexEntries) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(dataGeneration);
+            for (Entry entry : indexEntries) {
+                writePut(out, entry);
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    private static void writePut(DataOutputStream out, Entry entry) throws IOException {
+        out.writeByte(PUT);
+        out.writeLong(entry.id());
+        out.writeUTF(entry.name());
+        out.writeUTF(entry.weightName());
+        out.writeLong(entry.offset());
+        out.writeInt(entry.length());
+        out.writeLong(entry.created());
+        out.writeLong(entry.modified());
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static byte[] encode(ProjectRecord project) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(json)) {
+            writer.beginObject();
+            writer.name("id").value(project.getId());
+            writer.name("name").value(project.getName());
+            writer.name("weight").value(project.getWeightName());
+            writer.name("requiredLength").value(project.getRequiredLength());
+            writer.name("created").value(project.getCreated());
+            writer.name("yarns");
+            YarnJsonStream.writeYarns(writer, project.getYarns());
+            writer.endObject();
+        }
+        json.write('\n');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ProjectRecord decode(byte[] record) throws IOException {
+        long id = 0;
+        String name = null;
+        String weightName = null;
+        int requiredLength = 0;
+        long created = 0;
+        List<Yarn> yarns = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(new BufferedReader(new StringReader(new String(record, StandardCharsets.UTF_8))))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id" -> id = reader.nextLong();
+                    case "name" -> name = reader.nextString();
+                    case "weight" -> weightName = reader.nextString();
+                    case "requiredLength" -> requiredLength = reader.nextInt();
+                    case "created" -> created = reader.nextLong();
+                    case "yarns" -> YarnJsonStream.readYarns(reader, yarns::add);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return new ProjectRecord(id, name, weightName, requiredLength, created, yarns);
+    }
+}
@@ -0,0 +1,243 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide cache of yarn_requirements.json. The file is parsed once and kept as a table of projects and yarn
+ * weights with the minimum and maximum lengths stored in int arrays. The file is parsed again only when its
+ * modification time changes. Projects and weights keep the order of the file, so project indices are stable.
+ */
+public final class YarnRequirements {
+    /**
+     * Path to the yarn requirements file in the config directory of the working directory
+     */
+    public static final Path DEFAULT_PATH = Path.of(System.getProperty("user.dir"), "config", "yarn_requirements.json");
+    /**
+     * Value stored for combinations of project and yarn weight that have no data
+     */
+    public static final int MISSING = -1;
+
+    private static final Map<Path, YarnRequirements> cache = new HashMap<>();
+
+    private final long modified;
+    private final String[] projects;
+    private final String[] weights;
+    private final Map<String, Integer> projectIndex;
+    private final Map<String, Integer> weightIndex;
+    private final int[] min;
+    private final int[] max;
+    private final Set<String> projectNames;
+
+    private YarnRequirements(long modified, List<String> projects, List<String> weights, int[] min, int[] max) {
+        this.modified = modified;
+        this.projects = projects.toArray(new String[0]);
+        this.weights = weights.toArray(new String[0]);
+        this.projectIndex = indexOf(this.projects);
+        this.weightIndex = indexOf(this.weights);
+        this.min = min;
+        this.max = max;
+        this.projectNames = Collections.unmodifiableSet(new LinkedHashSet<>(projects));
+    }
+
+    /**
+     * Returns the requirements from the default config file, loading them on first use or when the file changed
+     * @return the current yarn requirements
+     */
+    public static YarnRequirements current() {
+        return current(DEFAULT_PATH);
+    }
+
+    /**
+     * Returns the requirements from a file, loading them on first use or when the file changed
+     * @param file: path to the requirements file
+     * @return the current yarn requirements, empty if the file is missing or invalid
+     */
+    public static synchronized YarnRequirements current(Path file) {
+        YarnRequirements cached = cache.get(file);
+        long modified = lastModified(file);
+        if (cached == null || cached.modified != modified) {
+            cached = load(file, modified);
+            cache.put(file, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Returns the number of projects
+     * @return the number of projects
+     */
+    public int getProjectCount() {
+        return projects.length;
+    }
+
+    /**
+     * Returns the number of yarn weights
+     * @return the number of yarn weights
+     */
+    public int getWeightCount() {
+        return weights.length;
+    }
+
+    /**
+     * Returns the project name at a position
+     * @param project: index of the project
+     * @return the project name
+     */
+    public String getProject(int project) {
+        return projects[project];
+    }
+
+    /**
+     * Returns the yarn weight name at a position
+     * @param weight: index of the yarn weight
+     * @return the yarn weight name
+     */
+    public String getWeight(int weight) {
+        return weights[weight];
+    }
+
+    /**
+     * Returns the names of all projects in the order of the file
+     * @return unmodifiable set of the project names
+     */
+    public Set<String> getProjectNames() {
+        return projectNames;
+    }
+
+    /**
+     * Finds the index of a project
+     * @param project: the project name
+     * @return the index or -1 if there is no such project
+     */
+    public int indexOfProject(String project) {
+        Integer index = projectIndex.get(project);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Finds the index of a yarn weight
+     * @param weight: the yarn weight name
+     * @return the index or -1 if there is no such weight
+     */
+    public int indexOfWeight(String weight) {
+        Integer index = weightIndex.get(weight);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the minimum length needed for a project made of a yarn weight
+     * @param project: index of the project
+     * @param weight: index of the yarn weight
+     * @return the minimum length in meters or MISSING
+     */
+    public int getMin(int project, int weight) {
+        return min[project * weights.length + weight];
+    }
+
+    /**
+     * Returns the maximum length needed for a project made of a yarn weight
+     * @param project: index of the project
+     * @param weight: index of the yarn weight
+     * @return the maximum length in meters or MISSING
+     */
+    public int getMax(int project, int weight) {
+        return max[project * weights.length + weight];
+    }
+
+    private static YarnRequirements load(Path file, long modified) {
+        if (!Files.exists(file)) {
+            System.out.println("Yarn requirements file not found. Using an empty dataset.");
+            return empty(modified);
+        }
+
+        List<String> projects = new ArrayList<>();
+        List<String> weights = new ArrayList<>();
+        Map<String, Integer> weightIndex = new HashMap<>();
+        // rows of [weight, min, max] per project, turned into the flat table once all weights are known
+        List<List<int[]>> rows = new ArrayList<>();
+
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(file))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                projects.add(reader.nextName());
+                List<int[]> row = new ArrayList<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String weight = reader.nextName();
+                    Integer w = weightIndex.get(weight);
+                    if (w == null) {
+                        w = weights.size();
+                        weightIndex.put(weight, w);
+                        weights.add(weight);
+                    }
+                    int[] entry = {w, MISSING, MISSING};
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "min" -> entry[1] = reader.nextInt();
+                            case "max" -> entry[2] = reader.nextInt();
+                            default -> reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    row.add(entry);
+                }
+                reader.endObject();
+                rows.add(row);
+            }
+            reader.endObject();
+        } catch (IOException e) {
+            System.out.println("Failed to read JSON file: " + e.getMessage());
+            return empty(modified);
+        } catch (Exception e) {
+            System.out.println("Error parsing yarn requirements JSON: " + e.getMessage());
+            return empty(modified);
+        }
+
+        int[] min = new int[projects.size() * weights.size()];
+        int[] max = new int[min.length];
+        Arrays.fill(min, MISSING);
+        Arrays.fill(max, MISSING);
+        for (int p = 0; p < rows.size(); p++) {
+            for (int[] entry : rows.get(p)) {
+                min[p * weights.size() + entry[0]] = entry[1];
+                max[p * weights.size() + entry[0]] = entry[2];
+            }
+        }
+
+        System.out.println("Yarn requirements loaded.");
+        return new YarnRequirements(modified, projects, weights, min, max);
+    }
+
+    private static YarnRequirements empty(long modified) {
+        return new YarnRequirements(modified, List.of(), List.of(), new int[0], new int[0]);
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, Integer> indexOf(String[] names) {
+        Map<String, Integer> index = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            index.put(names[i], i);
+        }
+        return index;
+    }
+}
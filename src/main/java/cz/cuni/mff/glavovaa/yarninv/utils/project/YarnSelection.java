@@ -0,0 +1,73 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.util.List;
+
+/**
+ * Result of an automatic yarn selection: the chosen yarns, their total length and the leftover (waste)
+ * over the required length.
+ */
+public class YarnSelection {
+    private final List<Yarn> yarns;
+    private final int totalLength;
+    private final int requiredLength;
+    private final boolean optimal;
+
+    /**
+     * Constructor of a selection.
+     * @param yarns: the chosen yarns
+     * @param requiredLength: length needed for the project
+     * @param optimal: true if the selection is proven to be the best one
+     */
+    public YarnSelection(List<Yarn> yarns, int requiredLength, boolean optimal) {
+        this.yarns = yarns;
+        this.requiredLength = requiredLength;
+        this.optimal = optimal;
+        int total = 0;
+        for (Yarn yarn : yarns) {
+            total += yarn.getLengthMeters();
+        }
+        this.totalLength = total;
+    }
+
+    /**
+     * Returns the chosen yarns
+     * @return list of the chosen yarns
+     */
+    public List<Yarn> getYarns() {
+        return yarns;
+    }
+
+    /**
+     * Returns the total length of the chosen yarns
+     * @return the total length in meters
+     */
+    public int getTotalLength() {
+        return totalLength;
+    }
+
+    /**
+     * Returns the length that is left over after the project is finished
+     * @return the waste in meters
+     */
+    public int getWaste() {
+        return totalLength - requiredLength;
+    }
+
+    /**
+     * Returns the number of chosen skeins
+     * @return the number of yarns
+     */
+    public int getSkeinCount() {
+        return yarns.size();
+    }
+
+    /**
+     * Checks whether the solver finished within its time budget, so no better selection exists
+     * @return true if the selection is optimal
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+}
@@ -0,0 +1,214 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Automatically chooses yarns for a project. Finds the combination of skeins that covers the required length with
+ * the least leftover (or with the fewest skeins), solving a bounded subset-sum over the yarn lengths.
+ *
+ * <p>Any best combination sums to less than the required length plus the longest skein (otherwise a skein could be
+ * left out), so the dynamic programming table only covers sums up to that bound. For every sum the table keeps the
+ * smallest number of skeins reaching it and one bit per skein recording whether the skein was used. If the time budget
+ * runs out, the best combination of the skeins processed so far is compared with a greedy one and the better of
+ * the two is returned.</p>
+ */
+public class YarnSelectionSolver {
+    /**
+     * What the solver minimises
+     */
+    public enum Objective {
+        /**
+         * Least leftover meters, then fewest skeins
+         */
+        LEAST_WASTE,
+        /**
+         * Fewest skeins, then least leftover meters
+         */
+        FEWEST_SKEINS
+    }
+
+    /**
+     * Default time budget of the solver in milliseconds
+     */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 2000;
+    private static final long MAX_TABLE_BITS = 1L << 28;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final Objective objective;
+    private final boolean singleColour;
+    private final long timeBudgetMillis;
+
+    /**
+     * Creates a solver minimising waste with the default time budget
+     */
+    public YarnSelectionSolver() {
+        this(Objective.LEAST_WASTE, false, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * Creates a solver
+     * @param objective: what to minimise
+     * @param singleColour: true if all chosen yarns must have the same colour
+     * @param timeBudgetMillis: how long the solver may run
+     */
+    public YarnSelectionSolver(Objective objective, boolean singleColour, long timeBudgetMillis) {
+        this.objective = objective;
+        this.singleColour = singleColour;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Chooses yarns covering the required length
+     * @param requiredLength: length needed for the project
+     * @param availableYarns: yarns that can be used
+     * @return the best selection found, or null if the yarns are not long enough together
+     */
+    public YarnSelection solve(int requiredLength, List<Yarn> availableYarns) {
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+
+        if (!singleColour) {
+            return solveGroup(requiredLength, availableYarns, deadline);
+        }
+
+        // Solves every colour separately and keeps the best result
+        Map<String, List<Yarn>> byColour = new LinkedHashMap<>();
+        for (Yarn yarn : availableYarns) {
+            byColour.computeIfAbsent(yarn.getColor().toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(yarn);
+        }
+        YarnSelection best = null;
+        for (List<Yarn> group : byColour.values()) {
+            YarnSelection selection = solveGroup(requiredLength, group, deadline);
+            if (selection != null && (best == null || isBetter(selection, best))) {
+                best = selection;
+            }
+        }
+        return best;
+    }
+
+    private YarnSelection solveGroup(int requiredLength, List<Yarn> yarns, long deadline) {
+        if (requiredLength <= 0) {
+            return new YarnSelection(List.of(), requiredLength, true);
+        }
+
+        long total = 0;
+        int longest = 0;
+        for (Yarn yarn : yarns) {
+            total += yarn.getLengthMeters();
+            longest = Math.max(longest, yarn.getLengthMeters());
+        }
+        if (total < requiredLength) {
+            return null;
+        }
+
+        YarnSelection greedy = greedy(requiredLength, yarns);
+        int bound = (int) Math.min(total, (long) requiredLength + longest - 1);
+        if ((long) yarns.size() * (bound + 1) > MAX_TABLE_BITS) {
+            return greedy;
+        }
+
+        YarnSelection exact = subsetSum(requiredLength, yarns, bound, deadline);
+        if (exact == null) {
+            return greedy;
+        }
+        return exact.isOptimal() || isBetter(exact, greedy) ? exact : greedy;
+    }
+
+    private YarnSelection subsetSum(int requiredLength, List<Yarn> yarns, int bound, long deadline) {
+        int[] skeins = new int[bound + 1];
+        Arrays.fill(skeins, UNREACHABLE);
+        skeins[0] = 0;
+        long[][] used = new long[yarns.size()][];
+
+        int processed = 0;
+        boolean finished = true;
+        for (Yarn yarn : yarns) {
+            if (System.nanoTime() > deadline) {
+                finished = false;
+                break;
+            }
+            int length = yarn.getLengthMeters();
+            long[] row = new long[(bound >> 6) + 1];
+            if (length > 0) {
+                for (int sum = bound; sum >= length; sum--) {
+                    int previous = skeins[sum - length];
+                    if (previous != UNREACHABLE && previous + 1 < skeins[sum]) {
+                        skeins[sum] = previous + 1;
+                        row[sum >> 6] |= 1L << sum;
+                    }
+                }
+            }
+            used[processed++] = row;
+        }
+
+        int target = -1;
+        for (int sum = requiredLength; sum <= bound; sum++) {
+            if (skeins[sum] == UNREACHABLE) continue;
+            if (target < 0) {
+                target = sum;
+                if (objective == Objective.LEAST_WASTE) break;
+            } else if (skeins[sum] < skeins[target]) {
+                target = sum;
+            }
+        }
+        if (target < 0) {
+            return null;
+        }
+
+        List<Yarn> chosen = new ArrayList<>();
+        int sum = target;
+        for (int i = processed - 1; i >= 0 && sum > 0; i--) {
+            if ((used[i][sum >> 6] & (1L << sum)) != 0) {
+                Yarn yarn = yarns.get(i);
+                chosen.add(yarn);
+                sum -= yarn.getLengthMeters();
+            }
+        }
+        return new YarnSelection(chosen, requiredLength, finished);
+    }
+
+    /**
+     * Takes the longest skeins until the length is covered (fewest skeins), then drops the shortest chosen skeins
+     * that are not needed.
+     */
+    private static YarnSelection greedy(int requiredLength, List<Yarn> yarns) {
+        List<Yarn> sorted = new ArrayList<>(yarns);
+        sorted.sort(Comparator.comparingInt(Yarn::getLengthMeters).reversed());
+
+        List<Yarn> chosen = new ArrayList<>();
+        int total = 0;
+        for (Yarn yarn : sorted) {
+            if (total >= requiredLength) break;
+            chosen.add(yarn);
+            total += yarn.getLengthMeters();
+        }
+        for (int i = chosen.size() - 1; i >= 0; i--) {
+            int length = chosen.get(i).getLengthMeters();
+            if (total - length >= requiredLength) {
+                chosen.remove(i);
+                total -= length;
+            }
+        }
+        return new YarnSelection(chosen, requiredLength, false);
+    }
+
+    private boolean isBetter(YarnSelection a, YarnSelection b) {
+        if (objective == Objective.FEWEST_SKEINS) {
+            if (a.getSkeinCount() != b.getSkeinCount()) {
+                return a.getSkeinCount() < b.getSkeinCount();
+            }
+            return a.getWaste() < b.getWaste();
+        }
+        if (a.getWaste() != b.getWaste()) {
+            return a.getWaste() < b.getWaste();
+        }
+        return a.getSkeinCount() < b.getSkeinCount();
+    }
+}
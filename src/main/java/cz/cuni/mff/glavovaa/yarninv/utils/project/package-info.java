@@ -7,6 +7,12 @@
  * <ul>
  *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.project.ProjectHandler} - Handles project selection and management</li>
  *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.project.Calculator} - Computes yarn requirements for projects</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.project.YarnRequirements} - Cached table of yarn requirements</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.project.YarnSelectionSolver} - Chooses yarns for a project automatically</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.project.BatchPlanner} - Plans many projects against one inventory</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.project.Feasibility} - Checks whether there is enough yarn for a project</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.project.FeasibilityMatrix} - Feasibility of all projects in all yarn weights</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.project.ProjectStore} - Saved projects with a persistent index by id</li>
  * </ul>
  *
  */
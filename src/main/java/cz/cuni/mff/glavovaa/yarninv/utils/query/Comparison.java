@@ -0,0 +1,193 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.query;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightResolver;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Comparison of one yarn field with one or more values, e.g. {@code length >= 100} or
+ * {@code weight in (Bulky, Medium)}. Numbers and patterns are converted when the comparison is created, so testing
+ * a yarn only compares values. Text is compared ignoring case, and yarn weight aliases such as "worsted" are
+ * replaced by the name of the weight.
+ */
+public final class Comparison implements QueryNode {
+    private final QueryField field;
+    private final QueryOperator operator;
+    private final List<String> values;
+    private final long[] numbers;
+    private final String prefix;
+    private final Pattern pattern;
+
+    /**
+     * Creates a comparison
+     * @param field: the compared field
+     * @param operator: the operator
+     * @param values: the values, more than one only for {@link QueryOperator#IN}
+     * @throws IllegalArgumentException if the operator cannot be used with the field or a number is not valid
+     */
+    public Comparison(QueryField field, QueryOperator operator, List<String> values) {
+        if (values.isEmpty() || (values.size() > 1 && operator != QueryOperator.IN)) {
+            throw new IllegalArgumentException(operator.getSymbol() + " needs exactly one value");
+        }
+        if (field.isNumeric() && operator == QueryOperator.MATCHES) {
+            throw new IllegalArgumentException("~ can only be used with brand, colour and weight");
+        }
+        if (!field.isNumeric() && operator.isOrdering()) {
+            throw new IllegalArgumentException(operator.getSymbol() + " can only be used with length and id");
+        }
+        this.field = field;
+        this.operator = operator;
+        this.values = field == QueryField.WEIGHT && operator != QueryOperator.MATCHES
+                ? values.stream().map(Comparison::weightName).toList()
+                : List.copyOf(values);
+
+        if (field.isNumeric()) {
+            numbers = new long[values.size()];
+            for (int i = 0; i < numbers.length; i++) {
+                try {
+                    numbers[i] = Long.parseLong(values.get(i));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(field + " has to be compared with a whole number, not " + values.get(i));
+                }
+            }
+        } else {
+            numbers = null;
+        }
+
+        String text = values.get(0);
+        int wildcard = indexOfWildcard(text);
+        if (operator != QueryOperator.MATCHES || wildcard < 0) {
+            prefix = null;
+            pattern = null;
+        } else if (wildcard == text.length() - 1 && text.charAt(wildcard) == '*') {
+            // "alaska*" only needs a prefix check
+            prefix = text.substring(0, wildcard);
+            pattern = null;
+        } else {
+            prefix = null;
+            pattern = Pattern.compile(globToRegex(text), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        }
+    }
+
+    /**
+     * Replaces a yarn weight alias with the name of the weight, e.g. "worsted" with "Medium"
+     */
+    private static String weightName(String nameOrAlias) {
+        YarnWeight weight = YarnWeightResolver.getDefault().resolve(nameOrAlias);
+        return weight == null ? nameOrAlias : weight.getName();
+    }
+
+    private static int indexOfWildcard(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '*' || text.charAt(i) == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int start = 0;
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > start) {
+                    regex.append(Pattern.quote(glob.substring(start, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                start = i + 1;
+            }
+        }
+        if (start < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(start)));
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Returns the compared field
+     * @return the field
+     */
+    public QueryField getField() { return field; }
+
+    /**
+     * Returns the operator
+     * @return the operator
+     */
+    public QueryOperator getOperator() { return operator; }
+
+    /**
+     * Returns the values the field is compared with
+     * @return the values as they were written, with yarn weight aliases replaced by the weight names
+     */
+    public List<String> getValues() { return values; }
+
+    @Override
+    public boolean test(Yarn yarn) {
+        if (field.isNumeric()) {
+            return testNumber(field.number(yarn));
+        }
+        return testText(field.text(yarn));
+    }
+
+    private boolean testNumber(long value) {
+        return switch (operator) {
+            case EQUALS -> value == numbers[0];
+            case NOT_EQUALS -> value != numbers[0];
+            case IN -> {
+                for (long number : numbers) {
+                    if (value == number) {
+                        yield true;
+                    }
+                }
+                yield false;
+            }
+            case LESS -> value < numbers[0];
+            case LESS_OR_EQUAL -> value <= numbers[0];
+            case GREATER -> value > numbers[0];
+            case GREATER_OR_EQUAL -> value >= numbers[0];
+            case MATCHES -> throw new IllegalStateException();
+        };
+    }
+
+    /**
+     * Tests a brand, colour or weight name. Also used to find the index entries that match the comparison.
+     * @param text: the value of the field
+     * @return true if the value matches
+     */
+    boolean testText(String text) {
+        return switch (operator) {
+            case EQUALS -> values.get(0).equalsIgnoreCase(text);
+            case NOT_EQUALS -> !values.get(0).equalsIgnoreCase(text);
+            case IN -> {
+                for (String value : values) {
+                    if (value.equalsIgnoreCase(text)) {
+                        yield true;
+                    }
+                }
+                yield false;
+            }
+            case MATCHES -> {
+                if (prefix != null) {
+                    yield text.regionMatches(true, 0, prefix, 0, prefix.length());
+                }
+                yield pattern != null ? pattern.matcher(text).matches() : values.get(0).equalsIgnoreCase(text);
+            }
+            default -> throw new IllegalStateException();
+        };
+    }
+
+    @Override
+    public String toString() {
+        List<String> written = values.stream()
+                .map(value -> field.isNumeric() ? value : '"' + value + '"')
+                .collect(Collectors.toList());
+        String value = operator == QueryOperator.IN ? "(" + String.join(", ", written) + ")" : written.get(0);
+        return field + " " + operator.getSymbol() + " " + value;
+    }
+}
@@ -0,0 +1,306 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.query;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.GroupTotal;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnGroupKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Filter query over the yarn inventory, e.g. {@code weight in (Bulky, Medium) and length >= 100 and brand ~ "alaska*"}.
+ * The text is parsed once by {@link #parse(String)} and can then be run against an inventory any number of times.
+ *
+ * <p>Every run plans the query against the current state of the inventory. The number of yarns matching each
+ * brand, colour and weight condition is read from the inventory indexes, the conditions of an "and" are tested
+ * from the most selective to the least, and the conditions of an "or" from the most likely to match. If a
+ * brand, colour or weight condition has to match, only the yarns from its index buckets are tested, otherwise the
+ * whole inventory is filtered.</p>
+ */
+public class InventoryQuery implements Predicate<Yarn> {
+    private final String text;
+    private final QueryNode root;
+
+    /**
+     * Plan of one node of the query for the current state of an inventory
+     * @param node: the node with its conditions in the order they should be tested
+     * @param estimate: estimated number of matching yarns
+     * @param candidates: index buckets that contain all matching yarns, null if the inventory has to be scanned
+     * @param residual: what still has to be tested on the candidates, null if every candidate matches
+     */
+    private record Plan(QueryNode node, long estimate, List<Collection<Yarn>> candidates, QueryNode residual) {
+        long candidateCount() {
+            long count = 0;
+            for (Collection<Yarn> bucket : candidates) {
+                count += bucket.size();
+            }
+            return count;
+        }
+    }
+
+    private InventoryQuery(String text, QueryNode root) {
+        this.text = text;
+        this.root = root;
+    }
+
+    /**
+     * Parses a query
+     * @param text: the query
+     * @return the parsed query
+     * @throws IllegalArgumentException if the query is not valid, the message says where
+     */
+    public static InventoryQuery parse(String text) {
+        return new InventoryQuery(text, QueryParser.parse(text));
+    }
+
+    /**
+     * Returns the parsed query tree
+     * @return the root node
+     */
+    public QueryNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Tests one yarn against the query, in the order the conditions were written
+     * @param yarn: the yarn
+     * @return true if the yarn matches
+     */
+    @Override
+    public boolean test(Yarn yarn) {
+        return root.test(yarn);
+    }
+
+    /**
+     * Finds the yarns matching the query
+     * @param inventory: the inventory
+     * @return the matching yarns, in the order they were added
+     */
+    public List<Yarn> find(YarnInventory inventory) {
+        return run(plan(root, inventory), inventory);
+    }
+
+    /**
+     * Counts the yarns matching the query
+     * @param inventory: the inventory
+     * @return the number of matching yarns
+     */
+    public long count(YarnInventory inventory) {
+        Plan plan = plan(root, inventory);
+        if (!usesIndex(plan, inventory)) {
+            return inventory.count(plan.node());
+        }
+        if (plan.candidates().size() == 1) {
+            if (plan.residual() == null) {
+                return plan.candidateCount();
+            }
+            long count = 0;
+            for (Yarn yarn : plan.candidates().get(0)) {
+                if (plan.residual().test(yarn)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        return run(plan, inventory).size();
+    }
+
+    /**
+     * Describes how the query would be run against the inventory now
+     * @param inventory: the inventory
+     * @return which yarns are tested and in which order the conditions are tested
+     */
+    public String explain(YarnInventory inventory) {
+        Plan plan = plan(root, inventory);
+        StringBuilder explanation = new StringBuilder("Query: ").append(root).append('\n');
+        if (usesIndex(plan, inventory)) {
+            explanation.append("Candidates: ").append(plan.candidateCount()).append(" of ").append(inventory.size())
+                    .append(" yarns from ").append(plan.candidates().size()).append(" index bucket(s)\n");
+        } else {
+            return explanation.append("Candidates: all ").append(inventory.size()).append(" yarns\n")
+                    .append("Tested: ").append(plan.node()).toString();
+        }
+        return explanation.append("Tested: ")
+                .append(plan.residual() == null ? "nothing, all candidates match" : plan.residual().toString()).toString();
+    }
+
+    private static boolean usesIndex(Plan plan, YarnInventory inventory) {
+        return plan.candidates() != null && plan.candidateCount() < inventory.size();
+    }
+
+    private static List<Yarn> run(Plan plan, YarnInventory inventory) {
+        if (!usesIndex(plan, inventory)) {
+            return inventory.filter(plan.node());
+        }
+        Predicate<Yarn> matcher = plan.residual() == null ? yarn -> true : plan.residual();
+        List<Yarn> result = new ArrayList<>();
+        if (plan.candidates().size() == 1) {
+            for (Yarn yarn : plan.candidates().get(0)) {
+                if (matcher.test(yarn)) {
+                    result.add(yarn);
+                }
+            }
+            return result;
+        }
+        // buckets of different conditions can overlap and each one is in its own order
+        Set<Yarn> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Collection<Yarn> bucket : plan.candidates()) {
+            for (Yarn yarn : bucket) {
+                if (seen.add(yarn) && matcher.test(yarn)) {
+                    result.add(yarn);
+                }
+            }
+        }
+        result.sort(Comparator.comparingLong(Yarn::getId));
+        return result;
+    }
+
+    private static Plan plan(QueryNode node, YarnInventory inventory) {
+        if (node instanceof Comparison comparison) {
+            return planComparison(comparison, inventory);
+        }
+        if (node instanceof QueryNode.Not not) {
+            Plan inner = plan(not.condition(), inventory);
+            QueryNode negated = new QueryNode.Not(inner.node());
+            return new Plan(negated, Math.max(0, inventory.size() - inner.estimate()), null, negated);
+        }
+        if (node instanceof QueryNode.And and) {
+            return planAnd(and, inventory);
+        }
+        return planOr((QueryNode.Or) node, inventory);
+    }
+
+    private static Plan planAnd(QueryNode.And and, YarnInventory inventory) {
+        List<Plan> plans = new ArrayList<>();
+        for (QueryNode condition : and.conditions()) {
+            plans.add(plan(condition, inventory));
+        }
+        plans.sort(Comparator.comparingLong(Plan::estimate));
+
+        // the most selective condition with an index gives the candidates
+        Plan indexed = null;
+        for (Plan plan : plans) {
+            if (plan.candidates() != null) {
+                indexed = plan;
+                break;
+            }
+        }
+        List<QueryNode> nodes = new ArrayList<>();
+        List<QueryNode> residual = new ArrayList<>();
+        for (Plan plan : plans) {
+            nodes.add(plan.node());
+            if (plan != indexed) {
+                residual.add(plan.node());
+            } else if (plan.residual() != null) {
+                residual.add(plan.residual());
+            }
+        }
+        return new Plan(new QueryNode.And(nodes), plans.get(0).estimate(),
+                indexed == null ? null : indexed.candidates(), combine(residual));
+    }
+
+    private static Plan planOr(QueryNode.Or or, YarnInventory inventory) {
+        List<Plan> plans = new ArrayList<>();
+        for (QueryNode condition : or.conditions()) {
+            plans.add(plan(condition, inventory));
+        }
+        plans.sort(Comparator.comparingLong(Plan::estimate).reversed());
+
+        long estimate = 0;
+        boolean indexed = true;
+        boolean exact = true;
+        List<Collection<Yarn>> candidates = new ArrayList<>();
+        List<QueryNode> nodes = new ArrayList<>();
+        for (Plan plan : plans) {
+            estimate += plan.estimate();
+            nodes.add(plan.node());
+            if (plan.candidates() == null) {
+                indexed = false;
+            } else {
+                candidates.addAll(plan.candidates());
+                exact &= plan.residual() == null;
+            }
+        }
+        QueryNode node = new QueryNode.Or(nodes);
+        return new Plan(node, Math.min(estimate, inventory.size()), indexed ? candidates : null, exact ? null : node);
+    }
+
+    private static QueryNode combine(List<QueryNode> conditions) {
+        if (conditions.isEmpty()) {
+            return null;
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new QueryNode.And(conditions);
+    }
+
+    private static Plan planComparison(Comparison comparison, YarnInventory inventory) {
+        int size = inventory.size();
+        QueryField field = comparison.getField();
+        List<String> values = comparison.getValues();
+
+        if (field == QueryField.ID && (comparison.getOperator() == QueryOperator.EQUALS
+                || comparison.getOperator() == QueryOperator.IN)) {
+            List<Yarn> yarns = new ArrayList<>();
+            for (String value : values) {
+                Yarn yarn = inventory.getById(Long.parseLong(value));
+                if (yarn != null && !yarns.contains(yarn)) {
+                    yarns.add(yarn);
+                }
+            }
+            yarns.sort(Comparator.comparingLong(Yarn::getId));
+            return new Plan(comparison, yarns.size(), List.of(yarns), null);
+        }
+        if (field.isNumeric()) {
+            long estimate = switch (comparison.getOperator()) {
+                case EQUALS -> size / 10;
+                case NOT_EQUALS -> size - size / 10;
+                case IN -> Math.min(size, (long) values.size() * size / 10);
+                default -> size / 3;
+            };
+            return new Plan(comparison, estimate, null, comparison);
+        }
+
+        YarnGroupKey groupKey = field.getGroupKey();
+        List<Collection<Yarn>> buckets = new ArrayList<>();
+        switch (comparison.getOperator()) {
+            case EQUALS, NOT_EQUALS -> buckets.add(inventory.getIndexed(groupKey, values.get(0)));
+            case IN -> {
+                List<String> seen = new ArrayList<>();
+                for (String value : values) {
+                    if (seen.stream().noneMatch(value::equalsIgnoreCase)) {
+                        seen.add(value);
+                        buckets.add(inventory.getIndexed(groupKey, value));
+                    }
+                }
+            }
+            case MATCHES -> {
+                // the distinct names are few, so the pattern is matched against the names and not the yarns
+                for (GroupTotal total : inventory.totalLengthBy(groupKey)) {
+                    if (comparison.testText(total.getName())) {
+                        buckets.add(inventory.getIndexed(groupKey, total.getName()));
+                    }
+                }
+            }
+            default -> throw new IllegalStateException();
+        }
+        long matching = 0;
+        for (Collection<Yarn> bucket : buckets) {
+            matching += bucket.size();
+        }
+        if (comparison.getOperator() == QueryOperator.NOT_EQUALS) {
+            return new Plan(comparison, size - matching, null, comparison);
+        }
+        return new Plan(comparison, matching, buckets, null);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
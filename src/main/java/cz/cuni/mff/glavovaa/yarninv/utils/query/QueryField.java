@@ -0,0 +1,90 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.query;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnGroupKey;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+/**
+ * Properties of yarn that can be used in a query. Brand, colour and yarn weight are compared as text and are
+ * indexed by the inventory, length and id are compared as numbers.
+ */
+public enum QueryField {
+    /**
+     * Brand of the yarn
+     */
+    BRAND(YarnGroupKey.BRAND),
+    /**
+     * Colour of the yarn, can also be written as "color"
+     */
+    COLOUR(YarnGroupKey.COLOUR),
+    /**
+     * Name of the yarn weight
+     */
+    WEIGHT(YarnGroupKey.WEIGHT),
+    /**
+     * Length in meters
+     */
+    LENGTH(null),
+    /**
+     * Id of the yarn in the inventory
+     */
+    ID(null);
+
+    private final YarnGroupKey groupKey;
+
+    QueryField(YarnGroupKey groupKey) {
+        this.groupKey = groupKey;
+    }
+
+    /**
+     * Returns the index the inventory keeps for the field
+     * @return the group key of the index, null for numeric fields
+     */
+    public YarnGroupKey getGroupKey() {
+        return groupKey;
+    }
+
+    /**
+     * Tells if the field is compared as a number
+     * @return true for length and id
+     */
+    public boolean isNumeric() {
+        return groupKey == null;
+    }
+
+    /**
+     * Returns the text value of a yarn
+     * @param yarn: the yarn
+     * @return the brand, colour or weight name
+     */
+    String text(Yarn yarn) {
+        return groupKey.of(yarn);
+    }
+
+    /**
+     * Returns the numeric value of a yarn
+     * @param yarn: the yarn
+     * @return the length or id
+     */
+    long number(Yarn yarn) {
+        return this == LENGTH ? yarn.getLengthMeters() : yarn.getId();
+    }
+
+    /**
+     * Finds a field by its name in a query, ignoring case
+     * @param name: the name, e.g. "weight" or "color"
+     * @return the field or null if there is no field with the name
+     */
+    static QueryField find(String name) {
+        for (QueryField field : values()) {
+            if (field.name().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        return name.equalsIgnoreCase("color") ? COLOUR : null;
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,75 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.query;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Node of a parsed query: a {@link Comparison} of one field, or conditions combined with and, or and not.
+ * Every node is a predicate over yarns, so a parsed query can be used wherever a filter condition is expected.
+ * The nodes do not change after parsing and can be tested from several threads.
+ */
+public sealed interface QueryNode extends Predicate<Yarn> permits QueryNode.And, QueryNode.Or, QueryNode.Not, Comparison {
+
+    /**
+     * All conditions have to match. They are tested in the order of the list and testing stops at the first one
+     * that does not match.
+     * @param conditions: the conditions
+     */
+    record And(List<QueryNode> conditions) implements QueryNode {
+        @Override
+        public boolean test(Yarn yarn) {
+            for (QueryNode condition : conditions) {
+                if (!condition.test(yarn)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return conditions.stream().map(QueryNode::toString).collect(Collectors.joining(" and ", "(", ")"));
+        }
+    }
+
+    /**
+     * At least one condition has to match. They are tested in the order of the list and testing stops at the
+     * first one that matches.
+     * @param conditions: the conditions
+     */
+    record Or(List<QueryNode> conditions) implements QueryNode {
+        @Override
+        public boolean test(Yarn yarn) {
+            for (QueryNode condition : conditions) {
+                if (condition.test(yarn)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return conditions.stream().map(QueryNode::toString).collect(Collectors.joining(" or ", "(", ")"));
+        }
+    }
+
+    /**
+     * The condition must not match
+     * @param condition: the negated condition
+     */
+    record Not(QueryNode condition) implements QueryNode {
+        @Override
+        public boolean test(Yarn yarn) {
+            return !condition.test(yarn);
+        }
+
+        @Override
+        public String toString() {
+            return "not " + condition;
+        }
+    }
+}
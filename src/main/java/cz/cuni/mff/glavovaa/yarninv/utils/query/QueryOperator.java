@@ -0,0 +1,75 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.query;
+
+/**
+ * Comparison operators of the query language
+ */
+public enum QueryOperator {
+    /**
+     * Equal, text is compared ignoring case
+     */
+    EQUALS("="),
+    /**
+     * Not equal
+     */
+    NOT_EQUALS("!="),
+    /**
+     * Text matches a pattern, where * stands for any text and ? for one character, ignoring case
+     */
+    MATCHES("~"),
+    /**
+     * Equal to one of the listed values
+     */
+    IN("in"),
+    /**
+     * Less than, only for numbers
+     */
+    LESS("<"),
+    /**
+     * Less than or equal, only for numbers
+     */
+    LESS_OR_EQUAL("<="),
+    /**
+     * Greater than, only for numbers
+     */
+    GREATER(">"),
+    /**
+     * Greater than or equal, only for numbers
+     */
+    GREATER_OR_EQUAL(">=");
+
+    private final String symbol;
+
+    QueryOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Returns the operator as it is written in a query
+     * @return the symbol, e.g. "&gt;="
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Tells if the operator compares order and so only works with numbers
+     * @return true for &lt;, &lt;=, &gt; and &gt;=
+     */
+    public boolean isOrdering() {
+        return this == LESS || this == LESS_OR_EQUAL || this == GREATER || this == GREATER_OR_EQUAL;
+    }
+
+    /**
+     * Finds the operator written in a query
+     * @param symbol: the symbol, "in" in any case
+     * @return the operator or null if the symbol is not an operator
+     */
+    static QueryOperator find(String symbol) {
+        for (QueryOperator operator : values()) {
+            if (operator.symbol.equalsIgnoreCase(symbol)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,201 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the text of a query into a tree of {@link QueryNode}s. The grammar is
+ *
+ * <pre>
+ * query      = or
+ * or         = and { "or" and }
+ * and        = not { "and" not }
+ * not        = "not" not | "(" or ")" | comparison
+ * comparison = field operator value | field "in" "(" value { "," value } ")"
+ * </pre>
+ *
+ * where the fields are brand, colour (color), weight, length and id and the operators are =, !=, ~, &lt;, &lt;=,
+ * &gt; and &gt;=. Keywords are case-insensitive. Values with spaces or symbols are written in double quotes.
+ */
+class QueryParser {
+    private static final String SYMBOLS = "(),=!~<>";
+
+    private final String text;
+    private final List<Token> tokens;
+    private int next;
+
+    /**
+     * Token of the query
+     * @param text: the text of the token, without quotes
+     * @param quoted: true if the token was in double quotes, so it is always a value
+     * @param position: position of the token in the query, starting from 1
+     */
+    private record Token(String text, boolean quoted, int position) {
+        boolean is(String keyword) {
+            return !quoted && text.equalsIgnoreCase(keyword);
+        }
+    }
+
+    private QueryParser(String text) {
+        this.text = text;
+        this.tokens = tokenize(text);
+    }
+
+    /**
+     * Parses a query
+     * @param text: the query, e.g. {@code weight in (Bulky, Medium) and length >= 100}
+     * @return the root of the query tree
+     * @throws IllegalArgumentException if the query is not valid, the message says where
+     */
+    static QueryNode parse(String text) {
+        QueryParser parser = new QueryParser(text);
+        if (parser.tokens.isEmpty()) {
+            throw new IllegalArgumentException("The query is empty");
+        }
+        QueryNode root = parser.parseOr();
+        if (parser.next < parser.tokens.size()) {
+            throw parser.error("Unexpected '" + parser.peek().text() + "'");
+        }
+        return root;
+    }
+
+    private QueryNode parseOr() {
+        List<QueryNode> conditions = new ArrayList<>();
+        conditions.add(parseAnd());
+        while (peekIs("or")) {
+            next++;
+            conditions.add(parseAnd());
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new QueryNode.Or(List.copyOf(conditions));
+    }
+
+    private QueryNode parseAnd() {
+        List<QueryNode> conditions = new ArrayList<>();
+        conditions.add(parseNot());
+        while (peekIs("and")) {
+            next++;
+            conditions.add(parseNot());
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new QueryNode.And(List.copyOf(conditions));
+    }
+
+    private QueryNode parseNot() {
+        if (peekIs("not")) {
+            next++;
+            return new QueryNode.Not(parseNot());
+        }
+        if (peekIs("(")) {
+            next++;
+            QueryNode inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        return parseComparison();
+    }
+
+    private QueryNode parseComparison() {
+        Token fieldToken = take("a field (brand, colour, weight, length or id)");
+        QueryField field = fieldToken.quoted() ? null : QueryField.find(fieldToken.text());
+        if (field == null) {
+            next--;
+            throw error("Unknown field '" + fieldToken.text() + "' (use brand, colour, weight, length or id)");
+        }
+        Token operatorToken = take("an operator");
+        QueryOperator operator = operatorToken.quoted() ? null : QueryOperator.find(operatorToken.text());
+        if (operator == null) {
+            next--;
+            throw error("Unknown operator '" + operatorToken.text() + "'");
+        }
+
+        List<String> values = new ArrayList<>();
+        if (operator == QueryOperator.IN) {
+            expect("(");
+            values.add(value());
+            while (peekIs(",")) {
+                next++;
+                values.add(value());
+            }
+            expect(")");
+        } else {
+            values.add(value());
+        }
+        try {
+            return new Comparison(field, operator, values);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(e.getMessage() + " (at position " + fieldToken.position() + ")");
+        }
+    }
+
+    private String value() {
+        Token token = take("a value");
+        if (!token.quoted() && token.text().length() == 1 && SYMBOLS.indexOf(token.text().charAt(0)) >= 0) {
+            next--;
+            throw error("Expected a value");
+        }
+        return token.text();
+    }
+
+    private void expect(String symbol) {
+        if (!peekIs(symbol)) {
+            throw error("Expected '" + symbol + "'");
+        }
+        next++;
+    }
+
+    private Token take(String expected) {
+        if (next >= tokens.size()) {
+            throw error("Expected " + expected);
+        }
+        return tokens.get(next++);
+    }
+
+    private Token peek() {
+        return tokens.get(next);
+    }
+
+    private boolean peekIs(String keyword) {
+        return next < tokens.size() && peek().is(keyword);
+    }
+
+    private IllegalArgumentException error(String message) {
+        int position = next < tokens.size() ? peek().position() : text.length() + 1;
+        return new IllegalArgumentException(message + " at position " + position);
+    }
+
+    /**
+     * Splits a query into words, quoted values and the symbols ( ) , = != ~ &lt; &lt;= &gt; &gt;=
+     */
+    private static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = text.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Missing closing quote for the value at position " + (i + 1));
+                }
+                tokens.add(new Token(text.substring(i + 1, end), true, i + 1));
+                i = end + 1;
+            } else if (SYMBOLS.indexOf(c) >= 0) {
+                boolean twoChars = i + 1 < text.length() && text.charAt(i + 1) == '=' && (c == '!' || c == '<' || c == '>');
+                if (c == '!' && !twoChars) {
+                    throw new IllegalArgumentException("Expected '!=' at position " + (i + 1));
+                }
+                int end = twoChars ? i + 2 : i + 1;
+                tokens.add(new Token(text.substring(i, end), false, i + 1));
+                i = end;
+            } else {
+                int start = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))
+                        && SYMBOLS.indexOf(text.charAt(i)) < 0 && text.charAt(i) != '"') {
+                    i++;
+                }
+                tokens.add(new Token(text.substring(start, i), false, start + 1));
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * This package contains the query language for filtering the yarn inventory.
+ * Queries combine conditions on the brand, colour, yarn weight, length and id with and, or and not,
+ * e.g. {@code weight in (Bulky, Medium) and length >= 100 and brand ~ "alaska*"}.
+ *
+ *
+ * <p>Key classes:</p>
+ * <ul>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.query.InventoryQuery} - Parsed query that is planned and run against the inventory</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.query.QueryNode} - Tree of conditions the query is parsed into</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.query.Comparison} - Condition on one property of yarn</li>
+ * </ul>
+ *
+ */
+package cz.cuni.mff.glavovaa.yarninv.utils.query;
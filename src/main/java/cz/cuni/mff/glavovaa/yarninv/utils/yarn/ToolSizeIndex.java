@@ -0,0 +1,128 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.yarn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Interval index over the needle or hook size ranges of yarn weights. Answers which yarn weights can be worked with
+ * a needle or hook of a given size, e.g. a 5 mm needle suits Medium yarn. The ranges include both ends, so a size
+ * where two ranges meet (5.5 mm needles) suits both weights.
+ *
+ * <p>All range ends are sorted into one array. Between two neighbouring ends, and at every end, the set of weights
+ * whose range covers the size is always the same, so it is computed once when the index is built. A lookup is one
+ * binary search over the ends and returns the precomputed list.</p>
+ */
+public class ToolSizeIndex {
+    /**
+     * The tool whose size is looked up
+     */
+    public enum Tool {
+        /**
+         * Knitting needle
+         */
+        NEEDLE,
+        /**
+         * Crochet hook
+         */
+        HOOK;
+
+        /**
+         * Finds the tool by its name, ignoring case. Plural names are accepted too.
+         * @param name: "needle" or "hook"
+         * @return the tool
+         * @throws IllegalArgumentException if there is no tool with the name
+         */
+        public static Tool parse(String name) {
+            String singular = name.endsWith("s") ? name.substring(0, name.length() - 1) : name;
+            for (Tool tool : values()) {
+                if (tool.name().equalsIgnoreCase(singular)) {
+                    return tool;
+                }
+            }
+            throw new IllegalArgumentException("Unknown tool: " + name + " (use needle or hook)");
+        }
+
+        double min(YarnWeight weight) {
+            return this == NEEDLE ? weight.getMinNeedleSizeMetric() : weight.getMinHookSizeMetric();
+        }
+
+        double max(YarnWeight weight) {
+            return this == NEEDLE ? weight.getMaxNeedleSizeMetric() : weight.getMaxHookSizeMetric();
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final Map<Tool, ToolSizeIndex> defaultIndexes = new EnumMap<>(Tool.class);
+
+    private final double[] ends;
+    private final List<List<YarnWeight>> atEnd = new ArrayList<>();
+    private final List<List<YarnWeight>> afterEnd = new ArrayList<>();
+
+    /**
+     * Builds the index. Weights without a size range for the tool are left out.
+     * @param weights: the yarn weights, in the order of the config
+     * @param tool: needle or hook
+     */
+    public ToolSizeIndex(Collection<YarnWeight> weights, Tool tool) {
+        List<YarnWeight> ranged = new ArrayList<>();
+        TreeSet<Double> allEnds = new TreeSet<>();
+        for (YarnWeight weight : weights) {
+            if (tool.max(weight) > 0 && tool.min(weight) <= tool.max(weight)) {
+                ranged.add(weight);
+                allEnds.add(tool.min(weight));
+                allEnds.add(tool.max(weight));
+            }
+        }
+        ends = allEnds.stream().mapToDouble(Double::doubleValue).toArray();
+
+        for (int i = 0; i < ends.length; i++) {
+            List<YarnWeight> at = new ArrayList<>();
+            List<YarnWeight> after = new ArrayList<>();
+            for (YarnWeight weight : ranged) {
+                if (tool.min(weight) <= ends[i] && ends[i] <= tool.max(weight)) {
+                    at.add(weight);
+                }
+                if (i + 1 < ends.length && tool.min(weight) <= ends[i] && ends[i + 1] <= tool.max(weight)) {
+                    after.add(weight);
+                }
+            }
+            atEnd.add(List.copyOf(at));
+            afterEnd.add(List.copyOf(after));
+        }
+    }
+
+    /**
+     * Returns the index of the weights from the default config file
+     * @param tool: needle or hook
+     * @return the shared index
+     */
+    public static synchronized ToolSizeIndex getDefault(Tool tool) {
+        return defaultIndexes.computeIfAbsent(tool, t -> new ToolSizeIndex(YarnWeightLoader.getDefaultWeights().values(), t));
+    }
+
+    /**
+     * Finds the yarn weights that can be worked with a tool of a size
+     * @param sizeMetric: the size of the needle or hook in millimetres
+     * @return the weights whose range includes the size, in the order of the config
+     */
+    public List<YarnWeight> weightsFor(double sizeMetric) {
+        int found = Arrays.binarySearch(ends, sizeMetric);
+        if (found >= 0) {
+            return atEnd.get(found);
+        }
+        int insertion = -found - 1;
+        if (insertion == 0 || insertion == ends.length) {
+            return List.of(); // smaller or larger than every range
+        }
+        return afterEnd.get(insertion - 1);
+    }
+}
@@ -1,13 +1,16 @@
 package cz.cuni.mff.glavovaa.yarninv.utils.yarn;
 
 /**
- * Class representing Yarn. Contains the brand, color, length and weight.
+ * Class representing Yarn. Contains the brand, color, length and weight, and the id given to the yarn by the
+ * inventory it is stored in.
  */
 public class Yarn {
     private String brand;
     private String color;
     private int lengthMeters;
     private YarnWeight weight;
+    private long id;
+    private transient YarnKey key;
 
     /**
      * Constructor for yarn.
@@ -47,6 +50,18 @@ public class Yarn {
      */
     public YarnWeight getWeight() { return weight; }
 
+    /**
+     * Returns the id of the yarn within its inventory
+     * @return the id, or 0 if the yarn is not stored in an inventory
+     */
+    public long getId() { return id; }
+
+    /**
+     * Sets the id of the yarn. Ids are assigned by the inventory when the yarn is added.
+     * @param id: the id
+     */
+    public void setId(long id) { this.id = id; }
+
     /**
      * Decreases the yarn weight by user specified amount
      * @param amount: amount of yarn to be decreased
@@ -61,7 +76,20 @@ public class Yarn {
      */
     @Override
     public String toString() {
-        return brand + " (" + color + ", " + lengthMeters + "m) - " + weight;
+        return appendTo(new StringBuilder(96)).toString();
+    }
+
+    /**
+     * Appends the same text as toString to a builder, without creating temporary strings
+     * @param sb: the builder
+     * @return the builder
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        sb.append(brand).append(" (").append(color).append(", ").append(lengthMeters).append("m) - ");
+        if (weight == null) {
+            return sb.append("null");
+        }
+        return weight.appendTo(sb);
     }
 
     /**
@@ -70,8 +98,35 @@ public class Yarn {
      * @return true/false
      */
     public boolean compare(Yarn otherYarn){
-        return this.brand.equals(otherYarn.getBrand()) && this.color.equals(otherYarn.getColor())
-                && this.weight.getName().equals(otherYarn.getWeight().getName());
+        // Shared (interned) weights can be compared by identity without looking at their names
+        if (this.weight == otherYarn.getWeight()){
+            return this.brand.equals(otherYarn.getBrand()) && this.color.equals(otherYarn.getColor());
+        }
+        return getKey().equals(otherYarn.getKey());
+    }
+
+    /**
+     * Replaces the brand, colour and weight with equal shared instances. Used by {@link YarnInterner}.
+     * @param brand: shared brand string equal to the current one
+     * @param color: shared colour string equal to the current one
+     * @param weight: shared yarn weight with the same name as the current one
+     */
+    void share(String brand, String color, YarnWeight weight){
+        this.brand = brand;
+        this.color = color;
+        this.weight = weight;
+        this.key = null;
+    }
+
+    /**
+     * Returns the identity key of the yarn (brand, colour and weight name). The key is created on first use.
+     * @return the yarn key
+     */
+    public YarnKey getKey(){
+        if (key == null){
+            key = YarnKey.of(this);
+        }
+        return key;
     }
 }
 
@@ -0,0 +1,144 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.yarn;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Makes yarns share equal objects instead of each holding its own copy. Every yarn weight is replaced by the single
+ * instance loaded by {@link YarnWeightLoader}, also when a file names it in another case or by an alias (e.g.
+ * "worsted" becomes Medium, see {@link YarnWeightResolver}). Weights missing from the config are shared by name, and
+ * brand and colour strings are taken from a pool, so a large inventory holds only one copy of each distinct value.
+ * Keeps statistics about the replaced objects for a memory report.
+ */
+public class YarnInterner {
+    private final Map<String, YarnWeight> weights = new HashMap<>();
+    private final YarnWeightResolver resolver;
+    private final Map<String, String> strings = new HashMap<>();
+    private long internedYarns = 0;
+    private long sharedWeights = 0;
+    private long sharedStrings = 0;
+    private long savedBytes = 0;
+
+    /**
+     * Creates an interner sharing the weights from the default config file
+     */
+    public YarnInterner() {
+        this(YarnWeightLoader.getDefaultWeights());
+    }
+
+    /**
+     * Creates an interner sharing the given weights
+     * @param canonicalWeights: map of name and yarn weight whose instances are shared
+     */
+    public YarnInterner(Map<String, YarnWeight> canonicalWeights) {
+        weights.putAll(canonicalWeights);
+        resolver = new YarnWeightResolver(canonicalWeights.values());
+    }
+
+    /**
+     * Replaces the brand, colour and weight of the yarn with shared instances
+     * @param yarn: the yarn
+     * @return the same yarn
+     */
+    public Yarn intern(Yarn yarn) {
+        yarn.share(intern(yarn.getBrand()), intern(yarn.getColor()), intern(yarn.getWeight()));
+        internedYarns++;
+        return yarn;
+    }
+
+    /**
+     * Returns the shared instance of a yarn weight with the same name
+     * @param weight: the yarn weight
+     * @return the shared yarn weight
+     */
+    public YarnWeight intern(YarnWeight weight) {
+        if (weight == null || weight.getName() == null) {
+            return weight;
+        }
+
+        YarnWeight shared = weights.get(weight.getName());
+        if (shared == null) {
+            shared = resolver.resolve(weight.getName());
+            if (shared == null) {
+                weights.put(weight.getName(), weight);
+                return weight;
+            }
+            weights.put(weight.getName(), shared);
+        }
+        if (shared != weight) {
+            sharedWeights++;
+            savedBytes += estimateSize(weight);
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the shared instance of a string
+     * @param value: the string
+     * @return the equal shared string
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String shared = strings.putIfAbsent(value, value);
+        if (shared == null) {
+            return value;
+        }
+        if (shared != value) {
+            sharedStrings++;
+            savedBytes += estimateSize(value);
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the estimated number of bytes that are no longer needed thanks to sharing
+     * @return the estimated savings in bytes
+     */
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    /**
+     * Creates a short report about the shared objects and the memory saved
+     * @return the memory report
+     */
+    public String report() {
+        return "Interned " + internedYarns + " yarns: " + weights.size() + " distinct yarn weights ("
+                + sharedWeights + " copies replaced), " + strings.size() + " distinct brands and colours ("
+                + sharedStrings + " copies replaced), about " + (savedBytes / 1024) + " KB saved.";
+    }
+
+    /**
+     * Estimates the size of a string on a 64-bit JVM with compressed references
+     * @param value: the string
+     * @return estimated size in bytes
+     */
+    static long estimateSize(String value) {
+        return 24 + align(16 + value.length());
+    }
+
+    /**
+     * Estimates the size of a yarn weight including its name and category list
+     * @param weight: the yarn weight
+     * @return estimated size in bytes
+     */
+    static long estimateSize(YarnWeight weight) {
+        long size = align(12 + 4 + 4 * 8 + 4) + estimateSize(weight.getName());
+        List<String> categories = weight.getCategories();
+        if (categories != null) {
+            size += 24 + align(16 + 4L * categories.size());
+            for (String category : categories) {
+                size += estimateSize(category);
+            }
+        }
+        return size;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,73 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.yarn;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Identity of a yarn regardless of its length. Two yarns with the same brand, colour and yarn weight name
+ * have equal keys and are considered duplicates that can be merged. The names are compared ignoring case, so
+ * "Red" and "red" are the same colour.
+ */
+public final class YarnKey {
+    private final String brand;
+    private final String color;
+    private final String weightName;
+    private final int hash;
+
+    /**
+     * Constructor for the yarn key.
+     * @param brand: brand name of yarn
+     * @param color: color of yarn
+     * @param weightName: name of the yarn weight
+     */
+    public YarnKey(String brand, String color, String weightName) {
+        this.brand = normalize(brand);
+        this.color = normalize(color);
+        this.weightName = normalize(weightName);
+        this.hash = Objects.hash(this.brand, this.color, this.weightName);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Creates the key of an existing yarn.
+     * @param yarn: the yarn
+     * @return key made of the brand, colour and weight name of the yarn
+     */
+    public static YarnKey of(Yarn yarn) {
+        return new YarnKey(yarn.getBrand(), yarn.getColor(), yarn.getWeight().getName());
+    }
+
+    /**
+     * Compares the brand, colour and weight name of both keys, ignoring case
+     * @param o: the other object
+     * @return true/false
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof YarnKey other)) return false;
+        return hash == other.hash && Objects.equals(brand, other.brand)
+                && Objects.equals(color, other.color) && Objects.equals(weightName, other.weightName);
+    }
+
+    /**
+     * Returns the hash code computed once in the constructor
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Overrides toString with the brand, colour and weight name
+     * @return the overriden string
+     */
+    @Override
+    public String toString() {
+        return brand + " (" + color + ") - " + weightName;
+    }
+}
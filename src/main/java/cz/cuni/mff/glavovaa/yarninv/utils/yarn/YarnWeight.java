@@ -38,14 +38,54 @@ public class YarnWeight {
      */
     public String getName() { return name; }
 
+    /**
+     * Retrieves the minimum knitting needle size.
+     * @return the minimum needle size in millimetres
+     */
+    public double getMinNeedleSizeMetric() { return minNeedleSizeMetric; }
+
+    /**
+     * Retrieves the maximum knitting needle size.
+     * @return the maximum needle size in millimetres
+     */
+    public double getMaxNeedleSizeMetric() { return maxNeedleSizeMetric; }
+
+    /**
+     * Retrieves the minimum crochet hook size.
+     * @return the minimum hook size in millimetres
+     */
+    public double getMinHookSizeMetric() { return minHookSizeMetric; }
+
+    /**
+     * Retrieves the maximum crochet hook size.
+     * @return the maximum hook size in millimetres
+     */
+    public double getMaxHookSizeMetric() { return maxHookSizeMetric; }
+
+    /**
+     * Retrieves the alternative names of the yarn weight.
+     * @return the list of alternative names
+     */
+    public List<String> getCategories() { return categories; }
+
     /**
      * Overrides the toString method with all information about yarn weight
      * @return the overriden string
      */
     @Override
     public String toString() {
-        return name + " (" + minNeedleSizeMetric + "-" + maxNeedleSizeMetric + " mm needles, " +
-                minHookSizeMetric + "-" + maxHookSizeMetric + " mm hooks)";
+        return appendTo(new StringBuilder(64)).toString();
+    }
+
+    /**
+     * Appends the same text as toString to a builder, without creating temporary strings
+     * @param sb: the builder
+     * @return the builder
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return sb.append(name).append(" (").append(minNeedleSizeMetric).append('-').append(maxNeedleSizeMetric)
+                .append(" mm needles, ").append(minHookSizeMetric).append('-').append(maxHookSizeMetric)
+                .append(" mm hooks)");
     }
 }
 
@@ -8,18 +8,38 @@ import java.io.Reader;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.Map;
 
 /**
  * Contains a static method for loading yarn weight from a JSON file (yarn_weights.json)
  */
 public class YarnWeightLoader {
+    /**
+     * Path to the yarn weights file in the config directory of the working directory
+     */
+    public static final Path DEFAULT_PATH = Path.of(System.getProperty("user.dir"), "config", "yarn_weights.json");
+    private static Map<String, YarnWeight> defaultWeights;
+
     /**
      * Default constructor.
      */
     public YarnWeightLoader(){
 
     }
+    /**
+     * Returns the yarn weights from the default config file. The file is loaded once and the same weight instances
+     * are shared by the whole application.
+     * @return unmodifiable map of name and yarnweights, in the order of the file
+     */
+    public static synchronized Map<String, YarnWeight> getDefaultWeights() {
+        if (defaultWeights == null) {
+            Map<String, YarnWeight> loaded = loadYarnWeights(DEFAULT_PATH);
+            defaultWeights = Collections.unmodifiableMap(loaded == null ? Map.of() : loaded);
+        }
+        return defaultWeights;
+    }
+
     /**
      * Method for loading yarn weights from a JSON file.
      * @param filePath: path to the json file
@@ -0,0 +1,89 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.yarn;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds yarn weights by their name or by one of their categories (aliases such as "DK" or "Worsted"), ignoring
+ * case. The lookup table is built once from the configured weights, so every lookup is one hash map access.
+ *
+ * <p>Names always win over aliases. Some aliases belong to several weights (e.g. "Worsted" is a category of both
+ * Light and Medium). Such an alias resolves to the weight that lists it first among its categories, and if two
+ * weights list it at the same position, to the weight that comes first in the config. So "Worsted" is Medium,
+ * "Baby" is Super Fine and "Roving" is Super Bulky.</p>
+ */
+public class YarnWeightResolver {
+    private static YarnWeightResolver defaultResolver;
+
+    private final Map<String, YarnWeight> lookup = new HashMap<>();
+    private final Map<String, List<YarnWeight>> aliases = new HashMap<>();
+
+    /**
+     * Builds the lookup table
+     * @param weights: the yarn weights, in the order of the config
+     */
+    public YarnWeightResolver(Collection<YarnWeight> weights) {
+        int longest = 0;
+        for (YarnWeight weight : weights) {
+            lookup.putIfAbsent(normalize(weight.getName()), weight);
+            List<String> categories = categories(weight);
+            longest = Math.max(longest, categories.size());
+            for (String category : categories) {
+                aliases.computeIfAbsent(normalize(category), key -> new ArrayList<>()).add(weight);
+            }
+        }
+        // the first alias at the lowest position claims the key, so the config order breaks ties
+        for (int position = 0; position < longest; position++) {
+            for (YarnWeight weight : weights) {
+                List<String> categories = categories(weight);
+                if (position < categories.size()) {
+                    lookup.putIfAbsent(normalize(categories.get(position)), weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the resolver of the weights from the default config file
+     * @return the shared resolver
+     */
+    public static synchronized YarnWeightResolver getDefault() {
+        if (defaultResolver == null) {
+            defaultResolver = new YarnWeightResolver(YarnWeightLoader.getDefaultWeights().values());
+        }
+        return defaultResolver;
+    }
+
+    private static List<String> categories(YarnWeight weight) {
+        return weight.getCategories() == null ? List.of() : weight.getCategories();
+    }
+
+    private static String normalize(String nameOrAlias) {
+        return nameOrAlias.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds a yarn weight by its name or alias
+     * @param nameOrAlias: e.g. "Medium", "medium" or "worsted"
+     * @return the yarn weight or null if no weight has the name or alias
+     */
+    public YarnWeight resolve(String nameOrAlias) {
+        if (nameOrAlias == null) {
+            return null;
+        }
+        return lookup.get(normalize(nameOrAlias));
+    }
+
+    /**
+     * Tells if an alias belongs to more than one yarn weight
+     * @param alias: the alias
+     * @return all weights that have the alias among their categories, in the order of the config
+     */
+    public List<YarnWeight> getWeightsWithAlias(String alias) {
+        return List.copyOf(aliases.getOrDefault(normalize(alias), List.of()));
+    }
+}
@@ -7,6 +7,10 @@
  * <ul>
  *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn} - Represents a single yarn object</li>
  *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight} - Stores weight-related properties</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnKey} - Identity of a yarn used for merging duplicates</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnInterner} - Shares yarn weights and strings among yarns</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeightResolver} - Finds yarn weights by name or alias in one lookup</li>
+ *     <li>{@link cz.cuni.mff.glavovaa.yarninv.utils.yarn.ToolSizeIndex} - Finds the yarn weights that suit a needle or hook size</li>
  * </ul>
  *
  */
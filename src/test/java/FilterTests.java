@@ -1,5 +1,6 @@
 
 import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
@@ -72,4 +73,48 @@ class FilterTests {
         // Assert
         assertTrue(nonExistentColor.isEmpty(), "Should return an empty list for non-existent color.");
     }
+
+    @Test
+    void testFindByColorIgnoresCase() {
+        // Act
+        List<Yarn> redYarns = inventory.find(new YarnQuery().color("rED"));
+
+        // Assert
+        assertEquals(2, redYarns.size(), "Should return 2 red yarns.");
+    }
+
+    @Test
+    void testFindCombinedQuery() {
+        // Act
+        List<Yarn> result = inventory.find(new YarnQuery().brand("brand a").weight("fine"));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("Green", result.get(0).getColor());
+    }
+
+    @Test
+    void testFindStaysInSyncWithRemovals() {
+        // Act
+        inventory.removeAt(0);          // removes the red Brand A yarn
+        inventory.changeLength(1, 500); // uses up the red Brand C yarn
+
+        // Assert
+        assertTrue(inventory.find(new YarnQuery().color("Red")).isEmpty(), "Removed yarns should not be found.");
+        assertEquals(2, inventory.find(new YarnQuery().weight("Fine")).size());
+    }
+
+    @Test
+    void testFindAfterMerge() {
+        // Arrange
+        inventory.addItem(new Yarn("Brand A", "Green", 30, new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"))));
+
+        // Act
+        inventory.mergeDuplicateYarns();
+        List<Yarn> green = inventory.find(new YarnQuery().color("Green"));
+
+        // Assert
+        assertEquals(1, green.size());
+        assertEquals(150, green.get(0).getLengthMeters());
+    }
 }
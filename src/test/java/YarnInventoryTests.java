@@ -1,6 +1,10 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.GroupTotal;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnGroupKey;
 import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnQuery;
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnSortKey;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
 import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
 import org.junit.jupiter.api.io.TempDir;
@@ -154,4 +158,212 @@ class YarnInventoryTests {
         List<Yarn> allYarns = inventory.getInventory();
         assertTrue(allYarns.isEmpty(), "Yarn should be completely removed when reduced beyond its length.");
     }
+
+    @Test
+    void testMergeDuplicateYarns_SumsLengths() {
+        // Arrange
+        inventory.addItem(new Yarn("Brand A", "Red", 100, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+        inventory.addItem(new Yarn("Brand B", "Blue", 150, new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"))));
+        inventory.addItem(new Yarn("Brand A", "Red", 50, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+        inventory.addItem(new Yarn("Brand A", "Red", 70, new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"))));
+
+        // Act
+        inventory.mergeDuplicateYarns();
+
+        // Assert
+        List<Yarn> allYarns = inventory.getInventory();
+        assertEquals(3, allYarns.size(), "Only yarns with the same brand, colour and weight should be merged.");
+        assertEquals(150, allYarns.get(0).getLengthMeters(), "Merged yarn should keep the first position and sum the lengths.");
+        assertEquals("Brand B", allYarns.get(1).getBrand());
+    }
+
+    @Test
+    void testMergeOnAdd_DuplicatesNeverAccumulate() {
+        // Arrange
+        inventory.addItem(new Yarn("Brand A", "Red", 100, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+        inventory.addItem(new Yarn("Brand A", "Red", 20, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+        inventory.setMergeOnAdd(true);
+
+        // Act
+        inventory.addItem(new Yarn("Brand A", "Red", 30, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+        inventory.addItem(new Yarn("Brand B", "Blue", 150, new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"))));
+
+        // Assert
+        List<Yarn> allYarns = inventory.getInventory();
+        assertEquals(2, allYarns.size());
+        assertEquals(150, allYarns.get(0).getLengthMeters(), "Existing duplicates should be merged when the mode is turned on.");
+    }
+
+    @Test
+    void testMergeOnAdd_RemovedYarnIsNoLongerMergedInto() {
+        // Arrange
+        inventory.setMergeOnAdd(true);
+        inventory.addItem(new Yarn("Brand A", "Red", 100, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+        inventory.removeAt(0);
+
+        // Act
+        inventory.addItem(new Yarn("Brand A", "Red", 30, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+
+        // Assert
+        List<Yarn> allYarns = inventory.getInventory();
+        assertEquals(1, allYarns.size());
+        assertEquals(30, allYarns.get(0).getLengthMeters());
+    }
+
+    @Test
+    void testRemoveById_OtherIdsStayTheSame() {
+        // Arrange
+        inventory.addItem(new Yarn("Brand A", "Red", 100, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+        inventory.addItem(new Yarn("Brand B", "Blue", 150, new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"))));
+        inventory.addItem(new Yarn("Brand C", "Green", 200, new YarnWeight("Bulky", 5.5, 8.0, 6.5, 9.0, List.of("Chunky"))));
+        long firstId = inventory.getInventory().get(0).getId();
+        long lastId = inventory.getInventory().get(2).getId();
+
+        // Act
+        inventory.removeById(firstId);
+        inventory.changeLengthById(lastId, 50);
+
+        // Assert
+        assertFalse(inventory.containsId(firstId));
+        assertEquals("Brand C", inventory.getById(lastId).getBrand());
+        assertEquals(150, inventory.getById(lastId).getLengthMeters());
+        assertThrows(IllegalArgumentException.class, () -> inventory.removeById(firstId), "Ids of removed yarns should not be valid.");
+    }
+
+    @Test
+    void testAddItem_AssignsUniqueIds() {
+        // Arrange
+        Yarn yarn = new Yarn("Brand A", "Red", 100, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted")));
+
+        // Act
+        inventory.addItem(yarn);
+        inventory.addItem(yarn);
+
+        // Assert
+        List<Yarn> allYarns = inventory.getInventory();
+        assertEquals(2, allYarns.size());
+        assertNotEquals(allYarns.get(0).getId(), allYarns.get(1).getId());
+        assertTrue(allYarns.get(0).getId() > 0);
+    }
+
+    @Test
+    void testGetPage_SortedByLength() {
+        // Arrange
+        YarnWeight medium = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+        inventory.addItem(new Yarn("Brand A", "Red", 300, medium));
+        inventory.addItem(new Yarn("Brand B", "Blue", 100, medium));
+        inventory.addItem(new Yarn("Brand C", "Green", 200, medium));
+        inventory.addItem(new Yarn("Brand D", "White", 400, medium));
+
+        // Act
+        List<Yarn> page = inventory.getPage(YarnSortKey.LENGTH, 1, 2);
+        List<Yarn> lastPage = inventory.getPage(YarnSortKey.ID, 3, 2);
+
+        // Assert
+        assertEquals(List.of("Brand C", "Brand A"), page.stream().map(Yarn::getBrand).toList());
+        assertEquals(1, lastPage.size());
+        assertEquals("Brand D", lastPage.get(0).getBrand());
+        assertTrue(inventory.getPage(YarnSortKey.BRAND, 10, 2).isEmpty());
+    }
+
+    @Test
+    void testAddItem_ReplacesIdsBelowNextId() {
+        // Arrange
+        YarnWeight medium = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+        inventory.addItem(new Yarn("Brand A", "Red", 100, medium));
+        inventory.addItem(new Yarn("Brand B", "Blue", 100, medium));
+        Yarn old = new Yarn("Brand C", "Green", 100, medium);
+        old.setId(1);
+
+        // Act
+        inventory.addItem(old);
+
+        // Assert
+        assertEquals(3, old.getId(), "An id below the next free id should be replaced.");
+        assertEquals(List.of("Brand A", "Brand B", "Brand C"),
+                inventory.getPage(YarnSortKey.ID, 0, 3).stream().map(Yarn::getBrand).toList());
+    }
+
+    @Test
+    void testExportInventory_WritesOneLinePerYarn(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        YarnWeight medium = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+        Yarn yarn = new Yarn("Brand A", "Red", 300, medium);
+        inventory.addItem(yarn);
+        inventory.addItem(new Yarn("Brand B", "Blue", 100, medium));
+        Path file = tempDir.resolve("inventory.txt");
+
+        // Act
+        inventory.exportInventory(file, YarnSortKey.LENGTH);
+
+        // Assert
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals(yarn.getId() + ": " + yarn, lines.get(1));
+    }
+
+    @Test
+    void testTop_ReturnsLongestYarnsOfWeight() {
+        // Arrange
+        YarnWeight medium = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+        YarnWeight fine = new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"));
+        int[] lengths = {120, 450, 80, 300, 990, 210};
+        for (int length : lengths) {
+            inventory.addItem(new Yarn("Brand A", "Red", length, medium));
+        }
+        inventory.addItem(new Yarn("Brand B", "Blue", 5000, fine));
+
+        // Act
+        List<Yarn> top = inventory.top(new YarnQuery().weight("Medium"), YarnSortKey.LENGTH, true, 3);
+
+        // Assert
+        assertEquals(List.of(990, 450, 300), top.stream().map(Yarn::getLengthMeters).toList());
+        assertEquals(6, inventory.top(new YarnQuery().weight("Medium"), YarnSortKey.LENGTH, false, 10).size());
+    }
+
+    @Test
+    void testTopTotals_SumsLengthsByColour() {
+        // Arrange
+        YarnWeight medium = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+        inventory.addItem(new Yarn("Brand A", "Red", 100, medium));
+        inventory.addItem(new Yarn("Brand B", "red", 150, medium));
+        inventory.addItem(new Yarn("Brand A", "Blue", 200, medium));
+        inventory.addItem(new Yarn("Brand A", "Green", 50, medium));
+
+        // Act
+        List<GroupTotal> top = inventory.topTotals(YarnGroupKey.COLOUR, 2);
+
+        // Assert
+        assertEquals(2, top.size());
+        assertEquals("Red", top.get(0).getName());
+        assertEquals(250, top.get(0).getTotalMeters());
+        assertEquals(2, top.get(0).getYarnCount());
+        assertEquals("Blue", top.get(1).getName());
+        assertEquals(3, inventory.totalLengthBy(YarnGroupKey.COLOUR).size());
+    }
+
+    @Test
+    void testTotals_FollowEveryChange() {
+        // Arrange
+        YarnWeight medium = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+        YarnWeight bulky = new YarnWeight("Bulky", 5.5, 8.0, 6.5, 9.0, List.of("Chunky"));
+        inventory.addItem(new Yarn("Brand A", "Red", 100, medium));
+        inventory.addItem(new Yarn("Brand A", "Red", 150, medium));
+        inventory.addItem(new Yarn("Brand B", "Blue", 200, bulky));
+        long bulkyId = inventory.getInventory().get(2).getId();
+
+        // Act
+        inventory.changeLengthById(bulkyId, 50);
+        inventory.mergeDuplicateYarns();
+        inventory.addItem(new Yarn("Brand C", "Green", 30, bulky));
+        inventory.changeLengthById(inventory.getInventory().get(0).getId(), 500);
+
+        // Assert
+        GroupTotal bulkyTotal = inventory.getTotal(YarnGroupKey.WEIGHT, "bulky");
+        assertEquals(180, bulkyTotal.getTotalMeters());
+        assertEquals(2, bulkyTotal.getYarnCount());
+        assertEquals(0, inventory.getTotal(YarnGroupKey.COLOUR, "Red").getYarnCount());
+        assertEquals(180, inventory.getTotalMeters());
+        assertEquals(1, inventory.getTotal(YarnGroupKey.BRAND, "brand b").getYarnCount());
+    }
 }
@@ -0,0 +1,98 @@
+package cz.cuni.mff.glavovaa.yarninv.app;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandRunnerTests {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testExecuteScript_RunsAllCommands() throws IOException {
+        // Arrange
+        String script = """
+                # two yarns of the same kind
+                add "Drops Alaska" Red 100 Medium
+                add "Drops Alaska" red 50 medium
+                merge
+                change 1 30
+                print
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        int errors;
+        try (YarnInventory inv = new YarnInventory(tempDir.resolve("inventory.json"))) {
+            errors = new CommandRunner(inv, new PrintStream(output, true)).executeScript(new BufferedReader(new StringReader(script)));
+
+            // Assert
+            assertEquals(0, errors);
+            assertEquals(1, inv.getInventory().size());
+            assertEquals(120, inv.getInventory().get(0).getLengthMeters());
+            assertEquals("Drops Alaska", inv.getInventory().get(0).getBrand(), "The first yarn keeps its name as typed.");
+        }
+        assertTrue(output.toString().contains("1: "));
+    }
+
+    @Test
+    void testExecuteScript_RunsQueries() throws IOException {
+        // Arrange
+        String script = """
+                add "Drops Alaska" red 100 Medium
+                add Alize red 250 Bulky
+                add "Drops Nepal" blue 300 Medium
+                query weight in (Medium, Bulky) and length >= 200 and brand ~ "drops*"
+                query colour = red and brand =
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        int errors;
+        try (YarnInventory inv = new YarnInventory(tempDir.resolve("inventory.json"))) {
+            errors = new CommandRunner(inv, new PrintStream(output, true)).executeScript(new BufferedReader(new StringReader(script)));
+        }
+
+        // Assert
+        assertEquals(1, errors);
+        assertTrue(output.toString().contains("3: "));
+        assertFalse(output.toString().contains("1: "));
+        assertTrue(output.toString().contains("Expected a value"));
+    }
+
+    @Test
+    void testExecuteScript_ReportsFailedLines() throws IOException {
+        // Arrange
+        String script = "add Brand Red -5 Medium\nremove 3\nadd Brand Red 10 Medium\nunknown\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        int errors;
+        try (YarnInventory inv = new YarnInventory(tempDir.resolve("inventory.json"))) {
+            errors = new CommandRunner(inv, new PrintStream(output, true)).executeScript(new BufferedReader(new StringReader(script)));
+
+            // Assert
+            assertEquals(1, inv.getInventory().size(), "Valid commands should still run after an error.");
+        }
+        assertEquals(3, errors);
+        assertTrue(output.toString().contains("(line 4)"));
+    }
+
+    @Test
+    void testTokenize_QuotesAndComments() {
+        assertEquals(List.of("add", "Drops Alaska", "red", "100", "Medium"),
+                CommandRunner.tokenize("add \"Drops Alaska\"  red 100 Medium # comment"));
+        assertEquals(List.of(), CommandRunner.tokenize("   # only a comment"));
+        assertThrows(IllegalArgumentException.class, () -> CommandRunner.tokenize("add \"unterminated"));
+    }
+}
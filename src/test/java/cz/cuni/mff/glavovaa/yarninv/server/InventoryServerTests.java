@@ -0,0 +1,124 @@
+package cz.cuni.mff.glavovaa.yarninv.server;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryServerTests {
+    private YarnInventory inventory;
+    private InventoryServer server;
+    private HttpClient client;
+    private URI base;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws IOException {
+        inventory = new YarnInventory(tempDir.resolve("inventory.json"));
+        server = new InventoryServer(inventory, 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+        base = URI.create("http://localhost:" + server.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void testAddListUseAndRemove() throws Exception {
+        // Arrange
+        HttpResponse<String> added = post("/yarns",
+                "{\"brand\":\"Alize\",\"color\":\"Red\",\"lengthMeters\":100,\"weight\":\"medium\"}");
+        post("/yarns", "{\"brand\":\"Alize\",\"color\":\"Blue\",\"lengthMeters\":50,\"weight\":\"Medium\"}");
+
+        // Act
+        HttpResponse<String> listed = get("/yarns?colour=red");
+        HttpResponse<String> used = post("/yarns/1/use", "{\"amount\":30}");
+        HttpResponse<String> removed = client.send(HttpRequest.newBuilder(base.resolve("/yarns/2")).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        // Assert
+        assertEquals(201, added.statusCode());
+        assertTrue(added.body().contains("\"id\":1"));
+        assertEquals(200, listed.statusCode());
+        assertTrue(listed.body().contains("\"color\":\"Red\""), "The colour should be stored as typed.");
+        assertFalse(listed.body().contains("Blue"));
+        assertTrue(used.body().contains("\"lengthMeters\":70"));
+        assertEquals(204, removed.statusCode());
+        assertEquals(1, inventory.size());
+        assertEquals(70, inventory.getById(1).getLengthMeters());
+    }
+
+    @Test
+    void testEstimate() throws Exception {
+        // Act
+        HttpResponse<String> response = get("/estimate?project=baby%20hat&weight=Medium");
+
+        // Assert
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"min\":114"));
+        assertTrue(response.body().contains("\"max\":183"));
+    }
+
+    @Test
+    void testAdd_MergedYarnReturnsTheStoredId() throws Exception {
+        // Arrange
+        inventory.setMergeOnAdd(true);
+        post("/yarns", "{\"brand\":\"Alize\",\"color\":\"Red\",\"lengthMeters\":100,\"weight\":\"Medium\"}");
+
+        // Act
+        HttpResponse<String> merged = post("/yarns",
+                "{\"brand\":\"Alize\",\"color\":\"Red\",\"lengthMeters\":50,\"weight\":\"Medium\"}");
+
+        // Assert
+        assertEquals(201, merged.statusCode());
+        assertTrue(merged.body().contains("\"id\":1"), "The id of the stored duplicate should be returned.");
+        assertEquals(150, inventory.getById(1).getLengthMeters());
+    }
+
+    @Test
+    void testInvalidRequests() throws Exception {
+        // Act
+        HttpResponse<String> badJson = post("/yarns", "{\"brand\":");
+        HttpResponse<String> missingYarn = post("/yarns/42/use", "{\"amount\":5}");
+        HttpResponse<String> unknownWeight = get("/yarns?weight=Heavy");
+
+        // Assert
+        assertEquals(400, badJson.statusCode());
+        assertEquals(404, missingYarn.statusCode());
+        assertEquals(400, unknownWeight.statusCode());
+        assertTrue(unknownWeight.body().contains("\"error\""));
+    }
+
+    @Test
+    void testLoadTestClient_HandlesConcurrentClients() throws Exception {
+        // Act
+        LoadTestClient.Result result = LoadTestClient.run(base, 8, 25, 0.2);
+
+        // Assert
+        assertEquals(0, result.getErrors());
+        assertEquals(200, result.getRequests() + result.getClientErrors());
+        assertTrue(result.getClientErrors() > 0, "Length changes of missing yarns should be counted as 4xx.");
+        assertTrue(result.getLatencyMillis(50) <= result.getLatencyMillis(99));
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(base.resolve(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(base.resolve(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
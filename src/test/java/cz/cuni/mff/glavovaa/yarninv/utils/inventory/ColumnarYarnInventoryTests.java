@@ -0,0 +1,98 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarYarnInventoryTests {
+    private static final YarnWeight MEDIUM = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+    private static final YarnWeight FINE = new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"));
+
+    private Path inventoryFile;
+    private ColumnarYarnInventory inventory;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        inventoryFile = tempDir.resolve("inventory.json");
+        inventory = new ColumnarYarnInventory(inventoryFile);
+        inventory.addItem(new Yarn("Brand A", "Red", 100, MEDIUM));
+        inventory.addItem(new Yarn("Brand B", "Blue", 150, FINE));
+        inventory.addItem(new Yarn("Brand A", "red", 70, MEDIUM));
+        inventory.addItem(new Yarn("Brand C", "Blue", 40, MEDIUM));
+    }
+
+    @Test
+    void testCountAndSum_EvaluateOnColumns() {
+        // Act
+        RowPredicate redMedium = inventory.colourIs("RED").and(inventory.weightIs("medium"));
+
+        // Assert
+        assertEquals(2, inventory.count(redMedium));
+        assertEquals(170, inventory.sumLength(redMedium));
+        assertEquals(1, inventory.count(inventory.brandIs("brand b").or(ColumnarYarnInventory.lengthAtLeast(110))));
+        assertEquals(Map.of("Medium", 210L, "Fine", 150L), inventory.sumLengthByWeight(RowPredicate.ALL));
+    }
+
+    @Test
+    void testCount_ConditionCreatedBeforeNewValues() {
+        // Arrange
+        RowPredicate brandA = inventory.brandIs("Brand A");
+        RowPredicate notTeal = inventory.colourIs("teal").negate();
+        assertEquals(2, inventory.count(brandA));
+
+        // Act
+        inventory.addItem(new Yarn("Brand D", "Green", 90, MEDIUM));
+        inventory.addItem(new Yarn("BRAND A", "Teal", 30, FINE));
+
+        // Assert
+        assertEquals(3, inventory.count(brandA), "Values added after the condition should be matched too.");
+        assertEquals(5, inventory.count(notTeal), "A negated condition should not match new values that differ.");
+    }
+
+    @Test
+    void testRemove_KeepsOrderOfOtherRows() {
+        // Arrange
+        long blueId = inventory.get(1).getId();
+
+        // Act
+        assertTrue(inventory.removeById(blueId));
+        inventory.changeLengthById(inventory.get(0).getId(), 100);
+
+        // Assert
+        List<Yarn> left = inventory.filter(RowPredicate.ALL);
+        assertEquals(2, left.size());
+        assertEquals("red", left.get(0).getColor());
+        assertEquals("Brand C", left.get(1).getBrand());
+        assertFalse(inventory.removeById(blueId));
+    }
+
+    @Test
+    void testSaveAndLoad_KeepsIdsAndValues() {
+        // Arrange
+        inventory.setSnapshotFormat(SnapshotFormat.BINARY);
+
+        // Act
+        inventory.saveInventory();
+        ColumnarYarnInventory loaded = new ColumnarYarnInventory(inventoryFile);
+        YarnInventory objects = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertEquals(4, loaded.size());
+        for (int row = 0; row < loaded.size(); row++) {
+            Yarn expected = inventory.get(row);
+            Yarn actual = loaded.get(row);
+            assertEquals(expected.getId(), actual.getId());
+            assertEquals(expected.toString(), actual.toString());
+        }
+        assertEquals(4, objects.getInventory().size());
+        assertEquals(1, loaded.add(new Yarn("Brand D", "Green", 10, FINE)) - inventory.get(3).getId());
+    }
+}
@@ -0,0 +1,81 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.project.BatchPlanner;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.ProjectRequest;
+import cz.cuni.mff.glavovaa.yarninv.utils.project.YarnRequirements;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryGeneratorTests {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWrite_AllFormatsContainTheSameYarns() throws IOException {
+        // Arrange
+        InventoryGenerator generator = new InventoryGenerator().brands(5).colours(3).seed(7);
+        List<Yarn> expected = new ArrayList<>();
+        generator.forEach(500, expected::add);
+
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            // Act
+            Path file = tempDir.resolve("generated-" + format);
+            generator.write(file, 500, format);
+            List<Yarn> loaded = new ArrayList<>();
+            InventorySnapshots.read(file, loaded::add);
+
+            // Assert
+            InventoryPersistenceTests.assertSameYarns(expected, loaded);
+        }
+    }
+
+    @Test
+    void testForEach_CardinalityAndDuplicates() {
+        // Arrange
+        List<Yarn> yarns = new ArrayList<>();
+
+        // Act
+        new InventoryGenerator().brands(1000).colours(1000).duplicateRatio(0.5).forEach(10_000, yarns::add);
+
+        // Assert
+        Set<String> brands = new HashSet<>();
+        Set<YarnKey> keys = new HashSet<>();
+        for (Yarn yarn : yarns) {
+            brands.add(yarn.getBrand());
+            keys.add(yarn.getKey());
+        }
+        assertTrue(brands.size() <= 1000);
+        int duplicates = yarns.size() - keys.size();
+        assertTrue(duplicates > 4500 && duplicates < 5500, "About half of the yarns should be duplicates, was " + duplicates);
+    }
+
+    @Test
+    void testWriteRequests_ReadableByBatchPlanner() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("requests.json");
+        YarnRequirements requirements = YarnRequirements.current();
+
+        // Act
+        new InventoryGenerator().writeRequests(file, 50, requirements);
+        List<ProjectRequest> requests = BatchPlanner.readRequests(file);
+
+        // Assert
+        assertEquals(50, requests.size());
+        for (ProjectRequest request : requests) {
+            int project = requirements.indexOfProject(request.getProjectName());
+            int weight = requirements.indexOfWeight(request.getWeightName());
+            assertNotEquals(YarnRequirements.MISSING, requirements.getMin(project, weight));
+        }
+    }
+}
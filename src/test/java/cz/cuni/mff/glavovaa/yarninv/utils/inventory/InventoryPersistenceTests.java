@@ -0,0 +1,316 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import com.google.gson.stream.JsonReader;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryPersistenceTests {
+    private Path inventoryFile;
+    private YarnInventory inventory;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) throws IOException {
+        inventoryFile = tempDir.resolve("inventory.json");
+
+        try (Writer writer = Files.newBufferedWriter(inventoryFile)) {
+            writer.write("[]"); // represents an empty inventory
+        }
+
+        inventory = new YarnInventory(inventoryFile);
+        inventory.addItem(new Yarn("Brand A", "Red", 100, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"))));
+        inventory.addItem(new Yarn("Brand B", "Blue", 150, new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"))));
+    }
+
+    @Test
+    void testSaveAndLoad_PrettyJson() {
+        // Act
+        inventory.saveInventory();
+        YarnInventory loaded = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertSameYarns(inventory.getInventory(), loaded.getInventory());
+    }
+
+    @Test
+    void testSaveAndLoad_CompactJson() throws IOException {
+        // Act
+        inventory.setSnapshotFormat(SnapshotFormat.COMPACT_JSON);
+        inventory.saveInventory();
+        YarnInventory loaded = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertFalse(Files.readString(inventoryFile).contains("\n"), "Compact JSON should not contain line breaks.");
+        assertSameYarns(inventory.getInventory(), loaded.getInventory());
+    }
+
+    @Test
+    void testSaveAndLoad_Binary() throws IOException {
+        // Arrange
+        inventory.addItem(new Yarn("Brand A", "Blue", 70, inventory.getInventory().get(0).getWeight()));
+
+        // Act
+        inventory.setSnapshotFormat(SnapshotFormat.BINARY);
+        inventory.saveInventory();
+        YarnInventory loaded = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertTrue(BinarySnapshot.isBinary(inventoryFile));
+        assertSameYarns(inventory.getInventory(), loaded.getInventory());
+        assertSame(loaded.getInventory().get(0).getWeight(), loaded.getInventory().get(2).getWeight(),
+                "Yarns of the same weight should share one weight instance.");
+    }
+
+    @Test
+    void testSave_KeepsTheLoadedFormat() throws IOException {
+        // Arrange
+        inventory.setSnapshotFormat(SnapshotFormat.BINARY);
+        inventory.saveInventory();
+        YarnInventory loaded = new YarnInventory(inventoryFile);
+
+        // Act
+        loaded.addItem(new Yarn("Brand C", "Green", 50, loaded.getInventory().get(0).getWeight()));
+        loaded.saveInventory();
+
+        // Assert
+        assertEquals(SnapshotFormat.BINARY, loaded.getSnapshotFormat());
+        assertTrue(BinarySnapshot.isBinary(inventoryFile), "A binary inventory should stay binary after saving.");
+    }
+
+    @Test
+    void testLoad_CorruptBinaryCountIsRejected() throws IOException {
+        // Arrange
+        inventory.setSnapshotFormat(SnapshotFormat.BINARY);
+        inventory.saveInventory();
+        byte[] bytes = Files.readAllBytes(inventoryFile);
+        bytes[6] = (byte) 0xFF; // the weight count (after the magic and the version) becomes negative
+        Files.write(inventoryFile, bytes);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> BinarySnapshot.read(inventoryFile, yarn -> { }));
+        assertTrue(new YarnInventory(inventoryFile).hasLoadFailed());
+    }
+
+    @Test
+    void testConvert_BinaryToJsonAndBack(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path binary = tempDir.resolve("inventory.bin");
+        Path json = tempDir.resolve("converted.json");
+        InventorySnapshots.write(binary, inventory.getInventory(), SnapshotFormat.BINARY);
+
+        // Act
+        InventorySnapshots.convert(binary, json, SnapshotFormat.COMPACT_JSON);
+
+        // Assert
+        assertFalse(BinarySnapshot.isBinary(json));
+        assertSameYarns(inventory.getInventory(), new YarnInventory(json).getInventory());
+    }
+
+    @Test
+    void testLoad_EmptyFileGivesEmptyInventory() throws IOException {
+        // Arrange
+        Files.writeString(inventoryFile, "");
+
+        // Act
+        YarnInventory loaded = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertTrue(loaded.getInventory().isEmpty());
+    }
+
+    @Test
+    void testLoad_SkipsUnknownFields() throws IOException {
+        // Arrange
+        Files.writeString(inventoryFile, "[{\"brand\":\"Brand C\",\"note\":[1,2],\"color\":\"Green\",\"lengthMeters\":70,"
+                + "\"weight\":{\"name\":\"Bulky\",\"minNeedleSizeMetric\":5.5,\"maxNeedleSizeMetric\":8.0,"
+                + "\"minHookSizeMetric\":6.5,\"maxHookSizeMetric\":9.0,\"categories\":[\"Chunky\"]}}]");
+
+        // Act
+        YarnInventory loaded = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertEquals(1, loaded.getInventory().size());
+        Yarn yarn = loaded.getInventory().get(0);
+        assertEquals("Green", yarn.getColor());
+        assertEquals(70, yarn.getLengthMeters());
+        assertEquals("Bulky", yarn.getWeight().getName());
+    }
+
+    @Test
+    void testReadYarns_RejectsIncompleteYarn() {
+        // Arrange
+        String weight = "\"weight\":{\"name\":\"Bulky\"}";
+        String missingColour = "[{\"brand\":\"A\",\"color\":\"Red\",\"lengthMeters\":70," + weight + "},"
+                + "{\"brand\":\"B\",\"color\":null,\"lengthMeters\":70," + weight + "}]";
+        String fractionalLength = "[{\"brand\":\"A\",\"color\":\"Red\",\"lengthMeters\":70.5," + weight + "}]";
+
+        // Act
+        IOException colourError = assertThrows(IOException.class,
+                () -> YarnJsonStream.readYarns(new JsonReader(new StringReader(missingColour)), yarn -> { }));
+        IOException lengthError = assertThrows(IOException.class,
+                () -> YarnJsonStream.readYarns(new JsonReader(new StringReader(fractionalLength)), yarn -> { }));
+
+        // Assert
+        assertEquals("Invalid yarn at $[1]: missing color", colourError.getMessage());
+        assertEquals("Invalid yarn at $[0]: lengthMeters is not a whole number", lengthError.getMessage());
+    }
+
+    @Test
+    void testLoad_InvalidFileIsNotOverwritten() throws IOException {
+        // Arrange
+        String content = "[{\"brand\":\"A\",\"color\":\"Red\",\"lengthMeters\":70,\"weight\":{\"name\":\"Bulky\","
+                + "\"minNeedleSizeMetric\":\"large\"}}]";
+        Files.writeString(inventoryFile, content);
+
+        // Act
+        YarnInventory loaded = new YarnInventory(inventoryFile, true);
+        loaded.addItem(new Yarn("Brand B", "Blue", 50, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of())));
+        loaded.saveInventory();
+        loaded.close();
+
+        // Assert
+        assertTrue(loaded.hasLoadFailed());
+        assertEquals(content, Files.readString(inventoryFile), "A file that could not be loaded should be kept.");
+    }
+
+    @Test
+    void testSaveAndLoad_KeepsIds() throws IOException {
+        // Arrange
+        inventory.removeById(inventory.getInventory().get(0).getId());
+        inventory.addItem(new Yarn("Brand C", "Green", 200, new YarnWeight("Bulky", 5.5, 8.0, 6.5, 9.0, List.of("Chunky"))));
+
+        for (SnapshotFormat format : SnapshotFormat.values()) {
+            // Act
+            inventory.setSnapshotFormat(format);
+            inventory.saveInventory();
+            YarnInventory loaded = new YarnInventory(inventoryFile);
+
+            // Assert
+            assertEquals(List.of(2L, 3L), loaded.getInventory().stream().map(Yarn::getId).toList());
+            loaded.addItem(new Yarn("Brand D", "White", 10, loaded.getInventory().get(0).getWeight()));
+            assertEquals(4L, loaded.getInventory().get(2).getId(), "New yarns should not reuse saved ids.");
+        }
+    }
+
+    @Test
+    void testJournal_ReplaysChangesAfterCrash() {
+        // Arrange
+        inventory.saveInventory();
+        YarnInventory journaled = new YarnInventory(inventoryFile, true);
+
+        // Act (no save or close, as if the app crashed)
+        journaled.addItem(new Yarn("Brand C", "Green", 200, new YarnWeight("Bulky", 5.5, 8.0, 6.5, 9.0, List.of("Chunky"))));
+        journaled.changeLength(0, 40);
+        journaled.removeAt(1);
+        YarnInventory recovered = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertSameYarns(journaled.getInventory(), recovered.getInventory());
+        assertEquals(60, recovered.getInventory().get(0).getLengthMeters());
+        assertEquals(journaled.getInventory().get(1).getId(), recovered.getInventory().get(1).getId());
+    }
+
+    @Test
+    void testJournal_KeepsMergeOnAddAfterCompaction() {
+        // Arrange
+        inventory.saveInventory();
+        YarnInventory journaled = new YarnInventory(inventoryFile, true);
+        journaled.setMergeOnAdd(true);
+
+        // Act
+        journaled.saveInventory();
+        assertThrows(IllegalArgumentException.class, () -> journaled.addItem(new Yarn("Brand C", "Green", 200, null)));
+        journaled.close();
+        YarnInventory reopened = new YarnInventory(inventoryFile, true);
+
+        // Assert
+        assertTrue(reopened.isMergeOnAdd(), "The setting should survive the journal being emptied.");
+        assertSameYarns(journaled.getInventory(), reopened.getInventory());
+    }
+
+    @Test
+    void testJournal_CloseDoesNotRewriteSnapshot() throws IOException {
+        // Arrange
+        inventory.saveInventory();
+        String snapshot = Files.readString(inventoryFile);
+        YarnInventory journaled = new YarnInventory(inventoryFile, true);
+
+        // Act
+        journaled.addItem(new Yarn("Brand C", "Green", 200, new YarnWeight("Bulky", 5.5, 8.0, 6.5, 9.0, List.of("Chunky"))));
+        journaled.mergeDuplicateYarns();
+        journaled.close();
+
+        // Assert
+        assertEquals(snapshot, Files.readString(inventoryFile), "Closing a journaled inventory should only close the journal.");
+        assertSameYarns(journaled.getInventory(), new YarnInventory(inventoryFile).getInventory());
+    }
+
+    @Test
+    void testJournal_CompactsIntoSnapshot() throws IOException {
+        // Arrange
+        inventory.saveInventory();
+        YarnInventory journaled = new YarnInventory(inventoryFile, true);
+        journaled.setCompactionThreshold(2);
+
+        // Act
+        journaled.changeLength(0, 10);
+        journaled.changeLength(0, 10);
+
+        // Assert
+        assertEquals(1, Files.readAllLines(InventoryJournal.pathFor(inventoryFile)).size(), "Only the header should remain.");
+        assertEquals(80, new YarnInventory(inventoryFile).getInventory().get(0).getLengthMeters());
+    }
+
+    @Test
+    void testJournal_StaleJournalIsIgnored() {
+        // Arrange
+        inventory.saveInventory();
+        YarnInventory journaled = new YarnInventory(inventoryFile, true);
+        journaled.removeAt(0);
+
+        // Act (the snapshot is rewritten by an inventory that does not know about the journal)
+        inventory.saveInventory();
+        YarnInventory loaded = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertEquals(2, loaded.getInventory().size());
+    }
+
+    @Test
+    void testJournal_DamagedTailIsSkipped() throws IOException {
+        // Arrange
+        inventory.saveInventory();
+        YarnInventory journaled = new YarnInventory(inventoryFile, true);
+        journaled.changeLength(1, 50);
+        Files.writeString(InventoryJournal.pathFor(inventoryFile), "{\"op\":\"add\",\"yarn\":{\"bra",
+                java.nio.file.StandardOpenOption.APPEND);
+
+        // Act
+        YarnInventory recovered = new YarnInventory(inventoryFile, true);
+        recovered.removeAt(0);
+        YarnInventory reloaded = new YarnInventory(inventoryFile);
+
+        // Assert
+        assertEquals(1, reloaded.getInventory().size());
+        assertEquals(100, reloaded.getInventory().get(0).getLengthMeters());
+    }
+
+    static void assertSameYarns(List<Yarn> expected, List<Yarn> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+        }
+    }
+}
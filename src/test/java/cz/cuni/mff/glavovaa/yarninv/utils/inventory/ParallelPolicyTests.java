@@ -0,0 +1,73 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.inventory;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelPolicyTests {
+    private static final YarnWeight MEDIUM = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+    private static final YarnWeight FINE = new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"));
+
+    private YarnInventory inventory;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        inventory = new YarnInventory(tempDir.resolve("inventory.json"));
+        for (int i = 0; i < 5000; i++) {
+            inventory.addItem(new Yarn("Brand " + i % 7, i % 3 == 0 ? "Red" : "Blue", 10 + i % 50, i % 2 == 0 ? MEDIUM : FINE));
+        }
+    }
+
+    @Test
+    void testIsParallel_FromThreshold() {
+        // Arrange
+        ParallelPolicy policy = ParallelPolicy.adaptive(1000, 2);
+
+        // Assert
+        assertFalse(policy.isParallel(999));
+        assertTrue(policy.isParallel(1000));
+        assertFalse(ParallelPolicy.adaptive(0, 1).isParallel(1000));
+        assertFalse(ParallelPolicy.SEQUENTIAL.isParallel(Integer.MAX_VALUE - 1));
+    }
+
+    @Test
+    void testParallel_SameResultsAsSequential() {
+        // Arrange
+        Predicate<Yarn> redMedium = yarn -> yarn.getColor().equals("Red") && yarn.getWeight() == MEDIUM;
+        inventory.setParallelPolicy(ParallelPolicy.SEQUENTIAL);
+        List<Yarn> expected = inventory.filter(redMedium);
+        long expectedCount = inventory.count(redMedium);
+        List<GroupTotal> expectedTotals = inventory.totalLengthBy(YarnGroupKey.BRAND, redMedium);
+
+        // Act
+        inventory.setParallelPolicy(ParallelPolicy.adaptive(0, 4));
+        List<Yarn> actual = inventory.filter(redMedium);
+        long actualCount = inventory.count(redMedium);
+        List<GroupTotal> actualTotals = inventory.totalLengthBy(YarnGroupKey.BRAND, redMedium);
+
+        // Assert
+        assertEquals(expected, actual);
+        assertEquals(expectedCount, actualCount);
+        assertEquals(expectedTotals.toString(), actualTotals.toString());
+    }
+
+    @Test
+    void testTotalLengthBy_MatchesRunningTotals() {
+        // Arrange
+        inventory.setParallelPolicy(ParallelPolicy.adaptive(0, 2));
+
+        // Act
+        List<GroupTotal> summed = inventory.totalLengthBy(YarnGroupKey.WEIGHT, yarn -> true);
+
+        // Assert
+        assertEquals(inventory.totalLengthBy(YarnGroupKey.WEIGHT).toString(), summed.toString());
+    }
+}
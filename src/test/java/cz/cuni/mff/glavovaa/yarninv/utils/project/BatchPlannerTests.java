@@ -0,0 +1,132 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchPlannerTests {
+    private static final YarnWeight MEDIUM = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+    private static final YarnWeight BULKY = new YarnWeight("Bulky", 5.5, 8.0, 6.5, 9.0, List.of("Chunky"));
+
+    @Test
+    void testPlan_DoesNotDoubleBook() {
+        // Arrange (a Medium baby hat needs at least 114 meters)
+        List<Yarn> yarns = List.of(new Yarn("Brand A", "Red", 120, MEDIUM), new Yarn("Brand B", "Blue", 100, MEDIUM),
+                new Yarn("Brand C", "Green", 50, MEDIUM));
+        List<ProjectRequest> requests = List.of(new ProjectRequest("baby hat", "Medium", false),
+                new ProjectRequest("baby hat", "Medium", false), new ProjectRequest("baby hat", "Medium", false));
+
+        // Act
+        BatchPlan plan = new BatchPlanner().plan(requests, yarns);
+
+        // Assert
+        assertEquals(2, plan.getFulfilledCount(), "Only two hats can be made from 270 meters.");
+        assertFalse(plan.getEntries().get(2).isFulfilled(), "Earlier requests should have priority.");
+        assertEquals(List.of(yarns.get(0)), plan.getEntries().get(0).getSelection().getYarns());
+    }
+
+    @Test
+    void testPlan_ResolvesWeightNamesAndAliases() {
+        // Arrange
+        List<Yarn> yarns = List.of(new Yarn("Brand A", "Red", 120, MEDIUM), new Yarn("Brand B", "Blue", 130, MEDIUM));
+        List<ProjectRequest> requests = List.of(new ProjectRequest("baby hat", "medium", false),
+                new ProjectRequest("baby hat", "Worsted", false));
+
+        // Act
+        BatchPlan plan = new BatchPlanner().plan(requests, yarns);
+
+        // Assert
+        assertEquals(2, plan.getFulfilledCount(), "Both requests should be planned with the Medium requirements.");
+        assertNotSame(plan.getEntries().get(0).getSelection().getYarns().get(0),
+                plan.getEntries().get(1).getSelection().getYarns().get(0), "Both requests share the Medium yarns.");
+    }
+
+    @Test
+    void testPlan_ManyProjectsInParallel() {
+        // Arrange
+        List<Yarn> yarns = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            yarns.add(new Yarn("Brand A", "Red", 100, i % 2 == 0 ? MEDIUM : BULKY));
+        }
+        List<ProjectRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(new ProjectRequest("socks", i % 2 == 0 ? "Medium" : "Bulky", false));
+        }
+
+        // Act
+        BatchPlan plan = new BatchPlanner().plan(requests, yarns);
+
+        // Assert
+        Set<Yarn> allocated = Collections.newSetFromMap(new IdentityHashMap<>());
+        int skeins = 0;
+        for (BatchPlan.Entry entry : plan.getEntries()) {
+            if (!entry.isFulfilled()) continue;
+            for (Yarn yarn : entry.getSelection().getYarns()) {
+                assertEquals(entry.getRequest().getWeightName(), yarn.getWeight().getName());
+                allocated.add(yarn);
+                skeins++;
+            }
+        }
+        assertEquals(skeins, allocated.size(), "No skein should be allocated twice.");
+        // Medium socks need 229 m (3 skeins), Bulky socks 183 m (2 skeins)
+        assertEquals(33 + 50, plan.getFulfilledCount());
+    }
+
+    @Test
+    void testPlan_UnknownProject() {
+        // Act
+        BatchPlan plan = new BatchPlanner().plan(List.of(new ProjectRequest("tent", "Medium", true)),
+                List.of(new Yarn("Brand A", "Red", 1000, MEDIUM)));
+
+        // Assert
+        assertFalse(plan.getEntries().get(0).isFulfilled());
+        assertNotNull(plan.getEntries().get(0).getReason());
+    }
+
+    @Test
+    void testPlan_UsesTheRequestedLength(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("requirements.json");
+        Files.writeString(file, "{\"hat\": {\"Medium\": {\"min\": 100}}, \"scarf\": {\"Medium\": {\"max\": 150}}}");
+        BatchPlanner planner = new BatchPlanner(YarnRequirements.current(file), new YarnSelectionSolver());
+        List<ProjectRequest> requests = List.of(new ProjectRequest("hat", "Medium", true),
+                new ProjectRequest("scarf", "Medium", true));
+
+        // Act
+        BatchPlan plan = planner.plan(requests, List.of(new Yarn("Brand A", "Red", 200, MEDIUM)));
+
+        // Assert
+        assertFalse(plan.getEntries().get(0).isFulfilled(), "A missing max should not be planned as 0 meters.");
+        assertTrue(plan.getEntries().get(1).isFulfilled(), "A max-only project can be planned for its max.");
+        assertEquals(150, plan.getEntries().get(1).getRequiredLength());
+    }
+
+    @Test
+    void testReadRequests(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("requests.json");
+        Files.writeString(file, "[{\"project\": \"scarf\", \"weight\": \"Bulky\", \"length\": \"max\"},"
+                + " {\"project\": \"socks\", \"weight\": \"Fine\"}]");
+
+        // Act
+        List<ProjectRequest> requests = BatchPlanner.readRequests(file);
+
+        // Assert
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(0).isUseMax());
+        assertEquals("Fine", requests.get(1).getWeightName());
+        assertFalse(requests.get(1).isUseMax());
+    }
+}
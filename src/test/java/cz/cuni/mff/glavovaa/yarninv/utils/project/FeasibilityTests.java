@@ -0,0 +1,104 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeasibilityTests {
+    private static final YarnWeight MEDIUM = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+    private static final YarnWeight BULKY = new YarnWeight("Bulky", 5.5, 8.0, 6.5, 9.0, List.of("Chunky"));
+
+    private YarnInventory inventory;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        inventory = new YarnInventory(tempDir.resolve("inventory.json"));
+        inventory.addItem(new Yarn("Brand A", "Red", 100, MEDIUM));
+        inventory.addItem(new Yarn("Brand B", "Blue", 50, MEDIUM));
+        inventory.addItem(new Yarn("Brand C", "Green", 400, BULKY));
+    }
+
+    @Test
+    void testOf_UsesMetersOfTheProjectWeight() {
+        // Arrange
+        Project project = new Project("hat", MEDIUM, Map.of("min", 120, "max", 180));
+
+        // Act
+        Feasibility feasibility = Feasibility.of(project, inventory);
+
+        // Assert
+        assertEquals(150, feasibility.getAvailable());
+        assertEquals(Feasibility.Status.ENOUGH_FOR_MIN, feasibility.getStatus());
+        assertTrue(feasibility.isEnough(120));
+        assertFalse(feasibility.isEnough(180));
+    }
+
+    @Test
+    void testOf_PartialRequirements() {
+        // Arrange
+        Project minOnly = new Project("hat", MEDIUM, Map.of("min", 120));
+        Project maxOnly = new Project("hat", MEDIUM, Map.of("max", 140));
+
+        // Act
+        Feasibility withMin = Feasibility.of(minOnly, inventory);
+        Feasibility withMax = Feasibility.of(maxOnly, inventory);
+
+        // Assert
+        assertEquals(Feasibility.Status.ENOUGH, withMin.getStatus());
+        assertEquals(Feasibility.Status.ENOUGH, withMax.getStatus());
+        assertEquals(YarnRequirements.MISSING, withMin.getMax());
+        assertEquals(Feasibility.Status.NOT_ENOUGH, Feasibility.status(120, YarnRequirements.MISSING, 0),
+                "A known minimum should not be ignored when the maximum is missing.");
+        assertEquals(Feasibility.Status.NOT_ENOUGH, Feasibility.status(YarnRequirements.MISSING, 140, 100));
+    }
+
+    @Test
+    void testOf_FollowsInventoryChanges() {
+        // Arrange
+        Project project = new Project("hat", MEDIUM, Map.of("min", 120, "max", 180));
+        long redId = inventory.getInventory().get(0).getId();
+
+        // Act
+        inventory.changeLengthById(redId, 40);
+
+        // Assert
+        assertEquals(Feasibility.Status.NOT_ENOUGH, Feasibility.of(project, inventory).getStatus());
+    }
+
+    @Test
+    void testMatrix_CoversAllProjectsAndWeights(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("requirements.json");
+        Files.writeString(file, """
+                {
+                  "hat": { "Medium": { "min": 100, "max": 140 }, "Bulky": { "min": 80, "max": 120 } },
+                  "scarf": { "Medium": { "min": 300, "max": 400 } }
+                }""");
+        YarnRequirements requirements = YarnRequirements.current(file);
+
+        // Act
+        FeasibilityMatrix matrix = new FeasibilityMatrix(requirements, inventory);
+        int hat = requirements.indexOfProject("hat");
+        int scarf = requirements.indexOfProject("scarf");
+        int medium = requirements.indexOfWeight("Medium");
+        int bulky = requirements.indexOfWeight("Bulky");
+
+        // Assert
+        assertEquals(Feasibility.Status.ENOUGH, matrix.getStatus(hat, medium));
+        assertEquals(Feasibility.Status.ENOUGH, matrix.getStatus(hat, bulky));
+        assertEquals(Feasibility.Status.NOT_ENOUGH, matrix.getStatus(scarf, medium));
+        assertEquals(Feasibility.Status.NO_DATA, matrix.getStatus(scarf, bulky));
+        assertEquals(400, matrix.get(scarf, bulky).getAvailable());
+    }
+}
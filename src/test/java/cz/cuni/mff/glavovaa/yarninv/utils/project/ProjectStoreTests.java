@@ -0,0 +1,115 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectStoreTests {
+    private static final YarnWeight MEDIUM = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+
+    @Test
+    void testAddAndGet_KeepsIdsAfterReopening(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        ProjectStore store = new ProjectStore(tempDir);
+        long hat = store.add("baby hat", "Medium", 120, List.of(new Yarn("Brand A", "Red", 150, MEDIUM)));
+        long scarf = store.add("scarf", "Medium", 300, List.of(new Yarn("Brand B", "Blue", 200, MEDIUM),
+                new Yarn("Brand C", "Green", 100, MEDIUM)));
+
+        // Act
+        store.delete(hat);
+        ProjectStore reopened = new ProjectStore(tempDir);
+        ProjectRecord record = reopened.get(scarf);
+
+        // Assert
+        assertEquals(1, reopened.size());
+        assertNull(reopened.get(hat));
+        assertEquals("scarf", record.getName());
+        assertEquals(300, record.getRequiredLength());
+        assertEquals(2, record.getYarns().size());
+        assertEquals("Green", record.getYarns().get(1).getColor());
+        assertTrue(reopened.add("sock", "Medium", 50, List.of()) > scarf, "Ids of deleted projects should not be reused.");
+    }
+
+    @Test
+    void testDelete_CompactsDataFile(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        ProjectStore store = new ProjectStore(tempDir);
+        long first = store.add("baby hat", "Medium", 120, List.of(new Yarn("Brand A", "Red", 150, MEDIUM)));
+        long second = store.add("adult hat", "Medium", 180, List.of(new Yarn("Brand B", "Blue", 200, MEDIUM)));
+        long third = store.add("scarf", "Medium", 300, List.of(new Yarn("Brand C", "Green", 400, MEDIUM)));
+        long sizeBefore = Files.size(tempDir.resolve(ProjectStore.DATA_FILE));
+
+        // Act
+        store.delete(first);
+        store.delete(second);
+
+        // Assert
+        assertTrue(Files.size(store.getDataPath()) < sizeBefore);
+        assertFalse(Files.exists(tempDir.resolve(ProjectStore.DATA_FILE)), "The old data file should be deleted.");
+        ProjectStore reopened = new ProjectStore(tempDir);
+        assertEquals(store.getDataPath(), reopened.getDataPath());
+        assertEquals("scarf", reopened.get(third).getName());
+    }
+
+    @Test
+    void testCompact_MissingDataFileFails(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        ProjectStore store = new ProjectStore(tempDir);
+        store.add("baby hat", "Medium", 120, List.of(new Yarn("Brand A", "Red", 150, MEDIUM)));
+        Files.delete(store.getDataPath());
+
+        // Act & Assert
+        assertThrows(IOException.class, store::compact);
+        assertEquals(1, new ProjectStore(tempDir).size(), "The index should be kept when compaction fails.");
+    }
+
+    @Test
+    void testOpen_CutsOffTornIndexEntry(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        ProjectStore store = new ProjectStore(tempDir);
+        long hat = store.add("baby hat", "Medium", 120, List.of(new Yarn("Brand A", "Red", 150, MEDIUM)));
+        Path index = tempDir.resolve(ProjectStore.INDEX_FILE);
+        long complete = Files.size(index);
+        store.add("scarf", "Medium", 300, List.of());
+        byte[] torn = Arrays.copyOf(Files.readAllBytes(index), (int) complete + 5);
+        Files.write(index, torn);
+
+        // Act
+        ProjectStore reopened = new ProjectStore(tempDir);
+        long sock = reopened.add("sock", "Medium", 50, List.of());
+
+        // Assert
+        ProjectStore again = new ProjectStore(tempDir);
+        assertEquals(2, again.size(), "The entry saved after the torn one should be readable.");
+        assertEquals("baby hat", again.get(hat).getName());
+        assertEquals("sock", again.get(sock).getName());
+    }
+
+    @Test
+    void testOpen_ImportsLegacyTextFiles(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Files.writeString(tempDir.resolve("hat.txt"), "baby hat\nRequired yarn:\n"
+                + "Alize (red, 150m) - Medium (4.5-5.5 mm needles, 5.5-6.5 mm hooks)\n");
+        Files.writeString(tempDir.resolve("notes.txt"), "not a project\n");
+
+        // Act
+        ProjectStore store = new ProjectStore(tempDir);
+        ProjectRecord record = store.get(store.list().get(0).id());
+
+        // Assert
+        assertEquals(1, store.size());
+        assertEquals("baby hat", record.getName());
+        assertEquals("Medium", record.getWeightName());
+        assertEquals(150, record.getYarns().get(0).getLengthMeters());
+        assertEquals(1, new ProjectStore(tempDir).size(), "Legacy files should only be imported once.");
+    }
+}
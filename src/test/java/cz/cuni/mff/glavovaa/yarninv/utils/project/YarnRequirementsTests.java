@@ -0,0 +1,80 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YarnRequirementsTests {
+
+    @Test
+    void testCurrent_KeepsFileOrderAndValues(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("requirements.json");
+        Files.writeString(file, "{\"scarf\": {\"Medium\": {\"min\": 229, \"max\": 343}},"
+                + " \"hat\": {\"Bulky\": {\"min\": 114, \"max\": 137}, \"Medium\": {\"min\": 114, \"max\": 183}}}");
+
+        // Act
+        YarnRequirements requirements = YarnRequirements.current(file);
+
+        // Assert
+        assertEquals("scarf", requirements.getProject(0));
+        assertEquals("hat", requirements.getProject(1));
+        int hat = requirements.indexOfProject("hat");
+        assertEquals(137, requirements.getMax(hat, requirements.indexOfWeight("Bulky")));
+        assertEquals(YarnRequirements.MISSING, requirements.getMin(0, requirements.indexOfWeight("Bulky")));
+        assertSame(requirements, YarnRequirements.current(file), "An unchanged file should not be parsed again.");
+    }
+
+    @Test
+    void testCurrent_ReloadsChangedFile(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("requirements.json");
+        Files.writeString(file, "{\"scarf\": {\"Medium\": {\"min\": 229, \"max\": 343}}}");
+        YarnRequirements first = YarnRequirements.current(file);
+
+        // Act
+        Files.writeString(file, "{\"scarf\": {\"Medium\": {\"min\": 300, \"max\": 400}}}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        YarnRequirements second = YarnRequirements.current(file);
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals(300, second.getMin(0, 0));
+    }
+
+    @Test
+    void testCalculator_ReturnsAvailableLengths(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("requirements.json");
+        Files.writeString(file, "{\"scarf\": {\"Medium\": {\"max\": 343}, \"Bulky\": {\"min\": 200, \"max\": 300}}}");
+        Calculator calculator = new Calculator(YarnRequirements.current(file));
+
+        // Act
+        Map<String, Integer> maxOnly = calculator.getYarnRequirement("scarf", "Medium");
+
+        // Assert
+        assertEquals(Map.of("max", 343), maxOnly, "A missing min should not hide the max.");
+        assertEquals(Map.of("min", 200, "max", 300), calculator.getYarnRequirement("scarf", "Bulky"));
+        assertNull(calculator.getYarnRequirement("hat", "Medium"));
+    }
+
+    @Test
+    void testCalculator_GetProjectByIndex() {
+        // Arrange
+        Calculator calculator = new Calculator();
+
+        // Act
+        String first = calculator.getProjectByIndex(0);
+
+        // Assert
+        assertEquals("baby hat", first, "Projects should keep the order of the requirements file.");
+        assertNull(calculator.getProjectByIndex(calculator.getProjectCount()));
+    }
+}
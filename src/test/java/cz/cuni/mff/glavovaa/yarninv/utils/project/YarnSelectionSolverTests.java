@@ -0,0 +1,97 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.project;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YarnSelectionSolverTests {
+    private static final YarnWeight MEDIUM = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+
+    private static Yarn yarn(String colour, int length) {
+        return new Yarn("Brand A", colour, length, MEDIUM);
+    }
+
+    @Test
+    void testSolve_FindsExactCombination() {
+        // Arrange
+        List<Yarn> yarns = List.of(yarn("Red", 200), yarn("Red", 120), yarn("Blue", 90), yarn("Blue", 60), yarn("Red", 35));
+
+        // Act
+        YarnSelection selection = new YarnSelectionSolver().solve(245, yarns);
+
+        // Assert
+        assertNotNull(selection);
+        assertEquals(0, selection.getWaste(), "120 + 90 + 35 covers 245 meters exactly.");
+        assertTrue(selection.isOptimal());
+    }
+
+    @Test
+    void testSolve_FewestSkeins() {
+        // Arrange
+        List<Yarn> yarns = List.of(yarn("Red", 50), yarn("Red", 50), yarn("Red", 50), yarn("Blue", 160));
+
+        // Act
+        YarnSelection leastWaste = new YarnSelectionSolver().solve(150, yarns);
+        YarnSelection fewest = new YarnSelectionSolver(YarnSelectionSolver.Objective.FEWEST_SKEINS, false, 1000).solve(150, yarns);
+
+        // Assert
+        assertEquals(3, leastWaste.getSkeinCount());
+        assertEquals(1, fewest.getSkeinCount());
+        assertEquals(10, fewest.getWaste());
+    }
+
+    @Test
+    void testSolve_SingleColour() {
+        // Arrange
+        List<Yarn> yarns = List.of(yarn("Red", 100), yarn("Blue", 100), yarn("Blue", 60), yarn("Red", 80));
+
+        // Act
+        YarnSelection selection = new YarnSelectionSolver(YarnSelectionSolver.Objective.LEAST_WASTE, true, 1000).solve(150, yarns);
+
+        // Assert
+        assertEquals(10, selection.getWaste());
+        assertTrue(selection.getYarns().stream().allMatch(y -> y.getColor().equals("Blue")));
+    }
+
+    @Test
+    void testSolve_NotEnoughYarn() {
+        // Act
+        YarnSelection selection = new YarnSelectionSolver().solve(500, List.of(yarn("Red", 200), yarn("Red", 100)));
+
+        // Assert
+        assertNull(selection, "Should return null when yarn is insufficient.");
+    }
+
+    @Test
+    void testSolve_MatchesBruteForce() {
+        // Arrange
+        Random random = new Random(42);
+        List<Yarn> yarns = new ArrayList<>();
+        for (int i = 0; i < 14; i++) {
+            yarns.add(yarn("Red", 20 + random.nextInt(180)));
+        }
+
+        for (int required = 50; required < 1200; required += 97) {
+            // Act
+            YarnSelection selection = new YarnSelectionSolver().solve(required, yarns);
+
+            // Assert
+            int best = Integer.MAX_VALUE;
+            for (int mask = 1; mask < (1 << yarns.size()); mask++) {
+                int sum = 0;
+                for (int i = 0; i < yarns.size(); i++) {
+                    if ((mask & (1 << i)) != 0) sum += yarns.get(i).getLengthMeters();
+                }
+                if (sum >= required) best = Math.min(best, sum - required);
+            }
+            assertEquals(best, selection.getWaste(), "Waste for " + required + " meters should be minimal.");
+            assertEquals(selection.getTotalLength(), selection.getYarns().stream().mapToInt(Yarn::getLengthMeters).sum());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.query;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.Yarn;
+import cz.cuni.mff.glavovaa.yarninv.utils.yarn.YarnWeight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryQueryTests {
+    private static final YarnWeight MEDIUM = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+    private static final YarnWeight BULKY = new YarnWeight("Bulky", 5.5, 8.0, 6.5, 9.0, List.of("Chunky"));
+    private static final YarnWeight FINE = new YarnWeight("Fine", 3.5, 4.5, 4.5, 5.5, List.of("Sport"));
+
+    private YarnInventory inventory;
+
+    @BeforeEach
+    void setUp(@TempDir Path tempDir) {
+        inventory = new YarnInventory(tempDir.resolve("inventory.json"));
+        inventory.addItem(new Yarn("Alaska Wool", "Red", 150, BULKY));
+        inventory.addItem(new Yarn("Alaska Fine", "Blue", 80, MEDIUM));
+        inventory.addItem(new Yarn("Drops", "Red", 200, MEDIUM));
+        inventory.addItem(new Yarn("alaska", "Green", 120, MEDIUM));
+        inventory.addItem(new Yarn("Alaska Wool", "Red", 300, FINE));
+    }
+
+    private List<String> colours(List<Yarn> yarns) {
+        return yarns.stream().map(Yarn::getColor).toList();
+    }
+
+    @Test
+    void testFind_CombinesIndexesAndNumbers() {
+        // Arrange
+        InventoryQuery query = InventoryQuery.parse("weight in (Bulky, medium) and length >= 100 and brand ~ \"alaska*\"");
+
+        // Act
+        List<Yarn> found = query.find(inventory);
+
+        // Assert
+        assertEquals(List.of("Red", "Green"), colours(found));
+        assertEquals(2, query.count(inventory));
+        assertTrue(found.stream().allMatch(query));
+        assertEquals(3, InventoryQuery.parse("weight = worsted").count(inventory), "Worsted is an alias of Medium.");
+    }
+
+    @Test
+    void testFind_OrNotAndParentheses() {
+        // Act
+        List<Yarn> found = InventoryQuery.parse("(colour = red or color = GREEN) and not weight = Medium").find(inventory);
+        List<Yarn> notRed = InventoryQuery.parse("colour != red or id in (3, 4)").find(inventory);
+
+        // Assert
+        assertEquals(List.of(150, 300), found.stream().map(Yarn::getLengthMeters).toList());
+        assertEquals(List.of("Blue", "Red", "Green"), colours(notRed));
+    }
+
+    @Test
+    void testFind_SameResultAsScanningInAnyOrder() {
+        // Arrange
+        String[] queries = {
+                "colour = red or brand ~ \"*fine\"",
+                "brand ~ \"alaska?wool\" and length < 200",
+                "weight in (fine, bulky) or length > 190",
+                "not (colour = red and weight = bulky)",
+                "brand = nobody or id = 2",
+        };
+
+        for (String text : queries) {
+            // Act
+            InventoryQuery query = InventoryQuery.parse(text);
+
+            // Assert
+            assertEquals(inventory.filter(query), query.find(inventory), text);
+        }
+    }
+
+    @Test
+    void testExplain_UsesMostSelectiveIndex() {
+        // Act
+        String explanation = InventoryQuery.parse("length >= 100 and weight = medium and colour = green").explain(inventory);
+
+        // Assert
+        String tested = explanation.substring(explanation.indexOf("Tested:"));
+        assertTrue(explanation.contains("Candidates: 1 of 5 yarns"), explanation);
+        assertFalse(tested.contains("colour"), "The colour is already matched by the index.");
+        assertTrue(tested.contains("weight = \"Medium\"") && tested.contains("length >= 100"), explanation);
+    }
+
+    @Test
+    void testParse_ReportsPosition() {
+        // Act
+        IllegalArgumentException missingValue = assertThrows(IllegalArgumentException.class,
+                () -> InventoryQuery.parse("colour = red and length >="));
+        IllegalArgumentException badNumber = assertThrows(IllegalArgumentException.class,
+                () -> InventoryQuery.parse("length > long"));
+
+        // Assert
+        assertEquals("Expected a value at position 27", missingValue.getMessage());
+        assertTrue(badNumber.getMessage().contains("whole number"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryQuery.parse("brand < alaska"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryQuery.parse("size = 3"));
+        assertThrows(IllegalArgumentException.class, () -> InventoryQuery.parse("colour in (red, blue"));
+    }
+}
@@ -0,0 +1,61 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.yarn;
+
+import cz.cuni.mff.glavovaa.yarninv.utils.inventory.YarnInventory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolSizeIndexTests {
+    private static final YarnWeight FINE = new YarnWeight("Fine", 3.25, 3.75, 3.5, 4.5, List.of("Sport"));
+    private static final YarnWeight LIGHT = new YarnWeight("Light", 3.75, 4.5, 4.5, 5.5, List.of("DK"));
+    private static final YarnWeight MEDIUM = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted"));
+    private static final YarnWeight UNKNOWN = new YarnWeight("Unknown", 0, 0, 0, 0, List.of());
+
+    @Test
+    void testWeightsFor_InsideAtEndsAndOutside() {
+        // Arrange
+        ToolSizeIndex needles = new ToolSizeIndex(List.of(FINE, LIGHT, MEDIUM, UNKNOWN), ToolSizeIndex.Tool.NEEDLE);
+
+        // Assert
+        assertEquals(List.of(MEDIUM), needles.weightsFor(5.0));
+        assertEquals(List.of(LIGHT, MEDIUM), needles.weightsFor(4.5), "Ranges include both ends.");
+        assertEquals(List.of(FINE), needles.weightsFor(3.25));
+        assertEquals(List.of(), needles.weightsFor(3.0));
+        assertEquals(List.of(), needles.weightsFor(6.0));
+    }
+
+    @Test
+    void testWeightsFor_HooksUseHookRanges() {
+        // Arrange
+        ToolSizeIndex hooks = new ToolSizeIndex(List.of(FINE, LIGHT, MEDIUM), ToolSizeIndex.Tool.parse("Hooks"));
+
+        // Assert
+        assertEquals(List.of(MEDIUM), hooks.weightsFor(6.0));
+        assertEquals(List.of(FINE), hooks.weightsFor(4.0));
+        assertThrows(IllegalArgumentException.class, () -> ToolSizeIndex.Tool.parse("loom"));
+    }
+
+    @Test
+    void testFindForTool_JoinsWithWeightIndex(@TempDir Path tempDir) {
+        // Arrange
+        Map<String, YarnWeight> weights = YarnWeightLoader.getDefaultWeights();
+        YarnInventory inventory = new YarnInventory(tempDir.resolve("inventory.json"));
+        inventory.addItem(new Yarn("Brand A", "Red", 100, weights.get("Medium")));
+        inventory.addItem(new Yarn("Brand B", "Blue", 100, weights.get("Bulky")));
+        inventory.addItem(new Yarn("Brand C", "Green", 100, weights.get("Light")));
+        inventory.addItem(new Yarn("Brand D", "Grey", 100, weights.get("Medium")));
+
+        // Act
+        List<Yarn> forNeedle = inventory.findForTool(ToolSizeIndex.Tool.NEEDLE, 5.5);
+        List<Yarn> forHook = inventory.findForTool(ToolSizeIndex.Tool.HOOK, 8.0);
+
+        // Assert
+        assertEquals(List.of("Red", "Blue", "Grey"), forNeedle.stream().map(Yarn::getColor).toList());
+        assertEquals(List.of("Blue"), forHook.stream().map(Yarn::getColor).toList());
+    }
+}
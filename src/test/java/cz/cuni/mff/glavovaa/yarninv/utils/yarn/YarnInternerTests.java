@@ -0,0 +1,65 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.yarn;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YarnInternerTests {
+    private YarnWeight medium;
+    private YarnInterner interner;
+
+    @BeforeEach
+    void setUp() {
+        medium = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted", "Afghan", "Aran"));
+        interner = new YarnInterner(Map.of("Medium", medium));
+    }
+
+    @Test
+    void testIntern_UsesConfiguredWeight() {
+        // Arrange
+        Yarn yarn = new Yarn("Brand A", "Red", 100, new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted")));
+
+        // Act
+        interner.intern(yarn);
+
+        // Assert
+        assertSame(medium, yarn.getWeight(), "The weight should be replaced by the configured instance.");
+    }
+
+    @Test
+    void testIntern_ResolvesCaseAndAliases() {
+        // Arrange
+        Yarn lowerCase = new Yarn("Brand A", "Red", 100, new YarnWeight("medium", 0, 0, 0, 0, List.of()));
+        Yarn alias = new Yarn("Brand A", "Red", 100, new YarnWeight("Aran", 0, 0, 0, 0, List.of()));
+
+        // Act
+        interner.intern(lowerCase);
+        interner.intern(alias);
+
+        // Assert
+        assertSame(medium, lowerCase.getWeight());
+        assertSame(medium, alias.getWeight());
+    }
+
+    @Test
+    void testIntern_SharesUnknownWeightsAndStrings() {
+        // Arrange
+        Yarn first = new Yarn(new String("Brand A"), new String("Red"), 100, new YarnWeight("Jumbo", 12.75, 99, 15, 99, List.of()));
+        Yarn second = new Yarn(new String("Brand A"), new String("Red"), 50, new YarnWeight("Jumbo", 12.75, 99, 15, 99, List.of()));
+
+        // Act
+        interner.intern(first);
+        interner.intern(second);
+
+        // Assert
+        assertSame(first.getWeight(), second.getWeight());
+        assertSame(first.getBrand(), second.getBrand());
+        assertSame(first.getColor(), second.getColor());
+        assertTrue(interner.getSavedBytes() > 0);
+        assertTrue(first.compare(second));
+    }
+}
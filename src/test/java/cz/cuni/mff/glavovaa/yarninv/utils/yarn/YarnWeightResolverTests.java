@@ -0,0 +1,59 @@
+package cz.cuni.mff.glavovaa.yarninv.utils.yarn;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class YarnWeightResolverTests {
+    private YarnWeight superFine;
+    private YarnWeight fine;
+    private YarnWeight light;
+    private YarnWeight medium;
+    private YarnWeight superBulky;
+    private YarnWeight jumbo;
+    private YarnWeightResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        superFine = new YarnWeight("Super Fine", 2.25, 3.25, 2.25, 3.5, List.of("Sock", "Baby"));
+        fine = new YarnWeight("Fine", 3.25, 3.75, 3.5, 4.5, List.of("Sport", "Baby"));
+        light = new YarnWeight("Light", 3.75, 4.5, 4.5, 5.5, List.of("DK", "Light", "Worsted"));
+        medium = new YarnWeight("Medium", 4.5, 5.5, 5.5, 6.5, List.of("Worsted", "Afghan", "Aran"));
+        superBulky = new YarnWeight("Super Bulky", 8.0, 12.75, 9.0, 15.0, List.of("Roving"));
+        jumbo = new YarnWeight("Jumbo", 12.75, 99, 15, 99, List.of("Roving"));
+        resolver = new YarnWeightResolver(List.of(superFine, fine, light, medium, superBulky, jumbo));
+    }
+
+    @Test
+    void testResolve_NamesAndAliasesIgnoringCase() {
+        // Assert
+        assertSame(medium, resolver.resolve("Medium"));
+        assertSame(superFine, resolver.resolve("  super fine "));
+        assertSame(light, resolver.resolve("dk"));
+        assertSame(medium, resolver.resolve("ARAN"));
+        assertNull(resolver.resolve("Lace"));
+        assertNull(resolver.resolve(null));
+    }
+
+    @Test
+    void testResolve_AmbiguousAliasesAreDeterministic() {
+        // Assert
+        assertSame(medium, resolver.resolve("Worsted"), "Medium lists Worsted first among its categories.");
+        assertSame(superFine, resolver.resolve("baby"), "Same position, so the first weight in the config wins.");
+        assertSame(superBulky, resolver.resolve("Roving"));
+        assertEquals(List.of(light, medium), resolver.getWeightsWithAlias("worsted"));
+    }
+
+    @Test
+    void testResolve_NameWinsOverAlias() {
+        // Arrange
+        YarnWeight dk = new YarnWeight("DK", 3.75, 4.5, 4.5, 5.5, List.of());
+        YarnWeightResolver withName = new YarnWeightResolver(List.of(light, dk));
+
+        // Assert
+        assertSame(dk, withName.resolve("dk"));
+    }
+}